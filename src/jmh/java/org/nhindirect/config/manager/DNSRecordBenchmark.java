@@ -0,0 +1,174 @@
+package org.nhindirect.config.manager;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.nhindirect.config.manager.printers.DefaultDNSRecordPrinter;
+import org.nhindirect.config.model.DNSRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xbill.DNS.MXRecord;
+import org.xbill.DNS.SOARecord;
+import org.xbill.DNS.SRVRecord;
+import org.xbill.DNS.TXTRecord;
+
+/**
+ * Micro benchmarks of the DNS record command path: parsing command arguments into dnsjava records, converting the
+ * records to the wire format sent to the configuration service, and printing records to the console.
+ * <p>
+ * Printing writes to a discarding stream so the benchmark measures formatting cost and not the terminal.
+ *
+ * @since 8.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DNSRecordBenchmark
+{
+	protected static final String[] MX_ARGS = {"example.com", "mail.example.com", "3600", "10"};
+
+	protected static final String[] SOA_ARGS = {"example.com", "ns1.example.com", "hostmaster.example.com", "2021070101", "3600",
+			"7200", "900", "1209600", "86400"};
+
+	protected static final String[] SRV_ARGS = {"_ldap._tcp.example.com", "ldap.example.com", "389", "0", "5", "3600"};
+
+	protected static final String[] TXT_ARGS = {"example.com", "v=spf1 mx include:_spf.example.com ~all", "3600"};
+
+	@Param({"1000"})
+	protected int recordCount;
+
+	protected DNSRecordParser parser;
+
+	protected MXRecord mxRecord;
+
+	protected SOARecord soaRecord;
+
+	protected SRVRecord srvRecord;
+
+	protected TXTRecord txtRecord;
+
+	protected Collection<DNSRecord> records;
+
+	protected PrintStream originalOut;
+
+	protected DefaultDNSRecordPrinter printer;
+
+	@Setup
+	public void setup()
+	{
+		parser = new DNSRecordParser();
+		mxRecord = parser.parseMX(MX_ARGS);
+		soaRecord = parser.parseSOA(SOA_ARGS);
+		srvRecord = parser.parseSRV(SRV_ARGS);
+		txtRecord = parser.parseTXT(TXT_ARGS);
+
+		records = new ArrayList<DNSRecord>(recordCount);
+		for (int i = 0; i < recordCount; ++i)
+		{
+			final String host = "host" + i + ".example.com";
+			switch (i % 6)
+			{
+				case 0:
+					records.add(DNSRecordCommands.fromRecord(parser.parseANAME(new String[] {host, "10.0." + (i / 256 % 256) + "." + (i % 256), "3600"})));
+					break;
+				case 1:
+					records.add(DNSRecordCommands.fromRecord(parser.parseMX(new String[] {host, "mail" + i + ".example.com", "3600", "10"})));
+					break;
+				case 2:
+					records.add(DNSRecordCommands.fromRecord(parser.parseSRV(new String[] {"_ldap._tcp." + host, host, "389", "0", "5", "3600"})));
+					break;
+				case 3:
+					records.add(DNSRecordCommands.fromRecord(parser.parseTXT(new String[] {host, "v=spf1 mx ~all", "3600"})));
+					break;
+				case 4:
+					records.add(DNSRecordCommands.fromRecord(parser.parseCNAME(new String[] {"www" + i + ".example.com", host, "3600"})));
+					break;
+				default:
+					records.add(DNSRecordCommands.fromRecord(parser.parseSOA(new String[] {host, "ns1.example.com", "hostmaster.example.com",
+							Integer.toString(i), "3600"})));
+					break;
+			}
+		}
+
+		// the printer writes to System.out as it is when each record is printed
+		originalOut = System.out;
+		System.setOut(new PrintStream(NullOutputStream.NULL_OUTPUT_STREAM));
+		printer = new DefaultDNSRecordPrinter();
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		System.setOut(originalOut);
+	}
+
+	@Benchmark
+	public MXRecord parseMX()
+	{
+		return parser.parseMX(MX_ARGS);
+	}
+
+	@Benchmark
+	public SOARecord parseSOA()
+	{
+		return parser.parseSOA(SOA_ARGS);
+	}
+
+	@Benchmark
+	public SRVRecord parseSRV()
+	{
+		return parser.parseSRV(SRV_ARGS);
+	}
+
+	@Benchmark
+	public TXTRecord parseTXT()
+	{
+		return parser.parseTXT(TXT_ARGS);
+	}
+
+	@Benchmark
+	public DNSRecord fromMXRecord()
+	{
+		return DNSRecordCommands.fromRecord(mxRecord);
+	}
+
+	@Benchmark
+	public DNSRecord fromSOARecord()
+	{
+		return DNSRecordCommands.fromRecord(soaRecord);
+	}
+
+	@Benchmark
+	public DNSRecord fromSRVRecord()
+	{
+		return DNSRecordCommands.fromRecord(srvRecord);
+	}
+
+	@Benchmark
+	public DNSRecord fromTXTRecord()
+	{
+		return DNSRecordCommands.fromRecord(txtRecord);
+	}
+
+	@Benchmark
+	public void printRecords()
+	{
+		printer.print(records);
+	}
+}
@@ -0,0 +1,272 @@
+package org.nhindirect.config.manager.printers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.nhindirect.config.manager.perf.OperationStats;
+import org.nhindirect.config.model.Address;
+import org.nhindirect.config.model.Anchor;
+import org.nhindirect.config.model.CertPolicy;
+import org.nhindirect.config.model.CertPolicyGroup;
+import org.nhindirect.config.model.CertPolicyGroupUse;
+import org.nhindirect.config.model.CertPolicyUse;
+import org.nhindirect.config.model.Certificate;
+import org.nhindirect.config.model.Domain;
+import org.nhindirect.config.model.EntityStatus;
+import org.nhindirect.config.model.Setting;
+import org.nhindirect.config.model.TrustBundle;
+import org.nhindirect.config.model.TrustBundleAnchor;
+import org.nhindirect.policy.PolicyLexicon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro benchmarks of the table printers.  Each benchmark prints a full collection of records the way the list
+ * commands do, including the reflective column lookup and the certificate decoding of the certificate printers.
+ * <p>
+ * Output is written to a discarding stream so the benchmark measures formatting cost and not the terminal.
+ *
+ * @since 8.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordPrinterBenchmark
+{
+	protected static final String CERT_RESOURCE = "/certs/cert-a.der";
+
+	@Param({"1000"})
+	protected int recordCount;
+
+	protected PrintStream originalOut;
+
+	protected List<Address> addresses;
+
+	protected List<Domain> domains;
+
+	protected List<Setting> settings;
+
+	protected List<Certificate> certificates;
+
+	protected List<Anchor> anchors;
+
+	protected List<TrustBundle> bundles;
+
+	protected List<TrustBundleAnchor> bundleAnchors;
+
+	protected List<CertPolicy> policies;
+
+	protected List<CertPolicyGroup> policyGroups;
+
+	protected List<CertPolicyGroupUse> policyUsages;
+
+	protected List<OperationStats> operationStats;
+
+	@Setup
+	public void setup() throws IOException
+	{
+		final byte[] certData;
+		try (InputStream in = RecordPrinterBenchmark.class.getResourceAsStream(CERT_RESOURCE))
+		{
+			certData = IOUtils.toByteArray(in);
+		}
+
+		addresses = new ArrayList<Address>(recordCount);
+		domains = new ArrayList<Domain>(recordCount);
+		settings = new ArrayList<Setting>(recordCount);
+		certificates = new ArrayList<Certificate>(recordCount);
+		anchors = new ArrayList<Anchor>(recordCount);
+		bundles = new ArrayList<TrustBundle>(recordCount);
+		bundleAnchors = new ArrayList<TrustBundleAnchor>(recordCount);
+		policies = new ArrayList<CertPolicy>(recordCount);
+		policyGroups = new ArrayList<CertPolicyGroup>(recordCount);
+		policyUsages = new ArrayList<CertPolicyGroupUse>(recordCount);
+		operationStats = new ArrayList<OperationStats>(recordCount);
+
+		final Calendar now = Calendar.getInstance();
+		for (int i = 0; i < recordCount; ++i)
+		{
+			final String domainName = "domain" + i + ".example.com";
+
+			final Address address = new Address();
+			address.setId(i);
+			address.setDisplayName("User " + i);
+			address.setEmailAddress("user" + i + "@" + domainName);
+			address.setEndpoint((i % 2 == 0) ? "https://" + domainName + "/endpoint" : null);
+			address.setType((i % 2 == 0) ? "SMTP" : null);
+			address.setDomainName(domainName);
+			address.setStatus(EntityStatus.ENABLED);
+			addresses.add(address);
+
+			final Domain domain = new Domain();
+			domain.setId(i);
+			domain.setDomainName(domainName);
+			domain.setPostmasterAddress(address);
+			domain.setStatus(EntityStatus.ENABLED);
+			domains.add(domain);
+
+			final Setting setting = new Setting();
+			setting.setName("Setting" + i);
+			setting.setValue("value-" + i);
+			settings.add(setting);
+
+			final Certificate cert = new Certificate();
+			cert.setOwner(domainName);
+			cert.setData(certData);
+			cert.setPrivateKey(i % 2 == 0);
+			certificates.add(cert);
+
+			final Anchor anchor = new Anchor();
+			anchor.setId(i);
+			anchor.setOwner(domainName);
+			anchor.setCertificateData(certData);
+			anchor.setIncoming(true);
+			anchor.setOutgoing(i % 2 == 0);
+			anchors.add(anchor);
+
+			final TrustBundle bundle = new TrustBundle();
+			bundle.setId(i);
+			bundle.setBundleName("Bundle" + i);
+			bundle.setBundleURL("https://bundles.example.com/bundle" + i + ".p7b");
+			bundle.setRefreshInterval(3600);
+			bundle.setLastRefreshAttempt(now);
+			bundle.setLastSuccessfulRefresh((i % 2 == 0) ? now : null);
+			bundles.add(bundle);
+
+			final TrustBundleAnchor bundleAnchor = new TrustBundleAnchor();
+			bundleAnchor.setId(i);
+			bundleAnchor.setAnchorData(certData);
+			bundleAnchor.setValidEndDate(now);
+			bundleAnchors.add(bundleAnchor);
+
+			final CertPolicy policy = new CertPolicy();
+			policy.setPolicyName("Policy" + i);
+			policy.setLexicon(PolicyLexicon.SIMPLE_TEXT_V1);
+			policy.setPolicyData(("X509.TBS.EXTENSION.KeyUsage & " + i + " > 0").getBytes());
+			policies.add(policy);
+
+			final CertPolicyGroupUse use = new CertPolicyGroupUse();
+			use.setPolicy(policy);
+			use.setPolicyUse(CertPolicyUse.values()[i % CertPolicyUse.values().length]);
+			use.setIncoming(true);
+			use.setOutgoing(i % 2 == 0);
+			policyUsages.add(use);
+
+			final CertPolicyGroup group = new CertPolicyGroup();
+			group.setPolicyGroupName("Group" + i);
+			group.setPolicies(Collections.singletonList(use));
+			policyGroups.add(group);
+
+			final OperationStats stats = new OperationStats("Phase " + (i / 10), "operation" + i);
+			for (int j = 1; j <= 100; ++j)
+				stats.recordSuccess(j * 10000L);
+			stats.setElapsedNanos(TimeUnit.SECONDS.toNanos(1));
+			operationStats.add(stats);
+		}
+
+		originalOut = System.out;
+		System.setOut(new PrintStream(NullOutputStream.NULL_OUTPUT_STREAM));
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		System.setOut(originalOut);
+	}
+
+	@Benchmark
+	public void printAddresses()
+	{
+		print(new AddressPrinter(), addresses);
+	}
+
+	@Benchmark
+	public void printDomains()
+	{
+		print(new DomainPrinter(), domains);
+	}
+
+	@Benchmark
+	public void printSettings()
+	{
+		print(new SettingRecordPrinter(), settings);
+	}
+
+	@Benchmark
+	public void printCertificates()
+	{
+		print(new CertRecordPrinter(), certificates);
+	}
+
+	@Benchmark
+	public void printAnchors()
+	{
+		print(new AnchorRecordPrinter(), anchors);
+	}
+
+	@Benchmark
+	public void printTrustBundles()
+	{
+		print(new TrustBundleRecordPrinter(), bundles);
+	}
+
+	@Benchmark
+	public void printBundleAnchors()
+	{
+		print(new BundleAnchorRecordPrinter(), bundleAnchors);
+	}
+
+	@Benchmark
+	public void printPolicies()
+	{
+		print(new PolicyPrinter(), policies);
+	}
+
+	@Benchmark
+	public void printPolicyGroups()
+	{
+		print(new PolicyGroupPrinter(), policyGroups);
+	}
+
+	@Benchmark
+	public void printPolicyUsages()
+	{
+		print(new PolicyUsagePrinter(), policyUsages);
+	}
+
+	@Benchmark
+	public void printOperationStats()
+	{
+		print(new OperationStatsPrinter(), operationStats);
+	}
+
+	/*
+	 * Printers are created per invocation, as the commands do
+	 */
+	protected <T> void print(RecordPrinter<T> printer, Collection<T> records)
+	{
+		printer.printRecords(records);
+	}
+}
@@ -0,0 +1,4 @@
+#!/bin/sh
+# Runs a command in a configuration manager daemon started with config-manager.sh --daemon.  The client does not
+# load Spring, so each command only pays for a small JVM start.
+exec java -XX:TieredStopAtLevel=1 $JAVA_OPTS -cp "@cds.jar@" org.nhindirect.config.manager.daemon.DaemonClient "$@"
@@ -0,0 +1,6 @@
+#!/bin/sh
+# Runs the configuration manager in fast-start mode with the class data sharing archive built by the appcds
+# profile.  Short commands also skip the optimizing JIT compiler, which does not pay off in a process that only
+# lives for a few seconds.  The archive only matches the paths it was built with, rebuild it after moving them.
+exec java -XX:SharedArchiveFile="@cds.dir@/config-manager.jsa" -XX:TieredStopAtLevel=1 $JAVA_OPTS \
+	-cp "@cds.jar@:@cds.classpath@" org.nhindirect.config.manager.ConfigManager --fast-start "$@"
@@ -12,6 +12,8 @@ import org.nhind.config.rest.DomainService;
 import org.nhindirect.common.crypto.CryptoExtensions;
 import org.nhindirect.common.tooling.Command;
 import org.nhindirect.common.tooling.StringArrayUtil;
+import org.nhindirect.config.manager.feign.CloseableIterator;
+import org.nhindirect.config.manager.feign.StreamingConfigServiceClient;
 import org.nhindirect.config.manager.printers.AnchorRecordPrinter;
 import org.nhindirect.config.model.Anchor;
 import org.nhindirect.config.model.Domain;
@@ -44,10 +46,26 @@ public class AnchorCommands
 	
 	protected final AnchorRecordPrinter anchorPrinter;
 	
+	protected StreamingConfigServiceClient streamingClient;
+	
 	public AnchorCommands(AnchorService anchorService, DomainService domainService)
+	{
+		this(anchorService, domainService, null);
+	}
+	
+	/**
+	 * Constructor with a streaming client.  Listing commands print anchors as they are received.
+	 * @param anchorService The anchor service.
+	 * @param domainService The domain service.
+	 * @param streamingClient The streaming client.  If null, listings are fully read before they are printed.
+	 * 
+	 * @since 8.0.1
+	 */
+	public AnchorCommands(AnchorService anchorService, DomainService domainService, StreamingConfigServiceClient streamingClient)
 	{
 		this.anchorService = anchorService;
 		this.domainService = domainService;
+		this.streamingClient = streamingClient;
 		
 		this.anchorPrinter = new AnchorRecordPrinter();
 	}
@@ -57,6 +75,16 @@ public class AnchorCommands
 	{
 		try
 		{
+			if (streamingClient != null)
+			{
+				try (CloseableIterator<Anchor> anchors = streamingClient.streamAnchors())
+				{
+					if (anchorPrinter.printRecords(anchors) == 0)
+						System.out.println("No anchors found");
+				}
+				return;
+			}
+			
 			final Collection<Anchor> anchors = anchorService.getAnchors();
 			
 			if (anchors == null || anchors.size() == 0)
@@ -15,6 +15,8 @@ import org.nhind.config.rest.CertificateService;
 import org.nhindirect.common.crypto.CryptoExtensions;
 import org.nhindirect.common.tooling.Command;
 import org.nhindirect.common.tooling.StringArrayUtil;
+import org.nhindirect.config.manager.feign.CloseableIterator;
+import org.nhindirect.config.manager.feign.StreamingConfigServiceClient;
 import org.nhindirect.config.manager.printers.CertRecordPrinter;
 import org.nhindirect.config.manager.printers.RecordPrinter;
 import org.nhindirect.config.model.Certificate;
@@ -68,11 +70,27 @@ public class CertCommands
 	protected CertificateService certService;
     
 	protected RecordPrinter<Certificate> certPrinter;
+	
+	protected StreamingConfigServiceClient streamingClient;
     
 	public CertCommands(CertificateService certService)
+	{
+		this(certService, null);
+	}
+	
+	/**
+	 * Constructor with a streaming client.  Listing commands print certificates as they are received.
+	 * @param certService The certificate service.
+	 * @param streamingClient The streaming client.  If null, listings are fully read before they are printed.
+	 * 
+	 * @since 8.0.1
+	 */
+	public CertCommands(CertificateService certService, StreamingConfigServiceClient streamingClient)
 	{
 		this.certService = certService;
 		
+		this.streamingClient = streamingClient;
+		
 		this.certPrinter = new CertRecordPrinter();
 	}    
 	
@@ -81,6 +99,16 @@ public class CertCommands
 	{
 		try
 		{
+			if (streamingClient != null)
+			{
+				try (CloseableIterator<Certificate> certs = streamingClient.streamCertificates())
+				{
+					if (certPrinter.printRecords(certs) == 0)
+						System.out.println("No certificates found");
+				}
+				return;
+			}
+			
 			final Collection<Certificate> certs = certService.getAllCertificates();
 			if (certs == null || certs.size() == 0)
 				System.out.println("No certificates found");
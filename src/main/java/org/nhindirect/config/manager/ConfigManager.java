@@ -1,6 +1,13 @@
 package org.nhindirect.config.manager;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.nhind.config.rest.AddressService;
 import org.nhind.config.rest.AnchorService;
@@ -11,44 +18,113 @@ import org.nhind.config.rest.DomainService;
 import org.nhind.config.rest.SettingService;
 import org.nhind.config.rest.TrustBundleService;
 import org.nhindirect.common.tooling.Commands;
+import org.nhindirect.config.manager.async.AsyncService;
+import org.nhindirect.config.manager.cache.DNSRecordSnapshot;
+import org.nhindirect.config.manager.daemon.CommandDaemon;
+import org.nhindirect.config.manager.daemon.DaemonEndpoint;
+import org.nhindirect.config.manager.feign.StreamingConfigServiceClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.Banner;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cloud.bootstrap.BootstrapApplicationListener;
+import org.springframework.context.annotation.Lazy;
 
 @SpringBootApplication(exclude= {R2dbcAutoConfiguration.class})
 public class ConfigManager implements CommandLineRunner
 {
 	@Autowired
+	@Lazy
 	protected DomainService domainService;
 	
 	@Autowired
+	@Lazy
 	protected SettingService settingService;
 	
 	@Autowired
+	@Lazy
 	protected DNSService dnsService;	
 	
 	@Autowired
+	@Lazy
 	protected CertificateService certService;		
 	
 	@Autowired
+	@Lazy
 	protected AnchorService anchorService;	
 	
 	@Autowired
+	@Lazy
 	protected CertPolicyService certPolicyService;	
 	
 	@Autowired
+	@Lazy
 	protected TrustBundleService bundleService;		
 	
 	@Autowired
+	@Lazy
 	protected AddressService addressService;			
 	
+	@Autowired
+	@Lazy
+	protected StreamingConfigServiceClient streamingClient;
+	
+	@Autowired
+	@Lazy
+	protected AsyncService<TrustBundleService> asyncBundleService;
+	
+	@Autowired
+	@Lazy
+	protected AsyncService<DomainService> asyncDomainService;
+	
+	@Autowired
+	@Lazy
+	protected AsyncService<DNSService> asyncDnsService;
+	
+	@Autowired
+	@Lazy
+	protected DNSRecordSnapshot dnsSnapshot;
+	
+	@Value("${direct.config.manager.reportStartup:false}")
+	protected boolean reportStartup;
+	
+	@Value("${direct.config.manager.daemon.port:0}")
+	protected int daemonPort;
+	
+	@Value("${" + DaemonEndpoint.ENDPOINT_FILE_PROPERTY + ":}")
+	protected String daemonEndpointFile;
+	
 	private Commands commands;
 	
 	private static boolean exitOnEndCommands = true;
 	
+	/**
+	 * Command line argument that starts the manager in fast-start mode.  The Spring Cloud bootstrap context and
+	 * regular auto-configuration are skipped (see {@link FastStartConfig}), and beans are created lazily, so only
+	 * the config service clients that the command uses are built.  Intended for scripts that run many one-shot
+	 * commands.
+	 * 
+	 * @since 8.0.1
+	 */
+	public static final String FAST_START_ARG = "--fast-start";
+	
+	static final String FAST_START_PROPERTY = "direct.config.manager.fastStart";
+	
+	/**
+	 * Command line argument that runs the manager as a daemon on a loopback port.  Commands are sent with the 
+	 * {@link org.nhindirect.config.manager.daemon.DaemonClient} and run in the warm application context.  The port
+	 * is set with direct.config.manager.daemon.port (a free port by default) and published with an access token in
+	 * the file given by direct.config.manager.daemon.endpointFile (~/.config-manager/daemon by default).
+	 * 
+	 * @since 8.0.1
+	 */
+	public static final String DAEMON_ARG = "--daemon";
+	
 	/**
 	 * Application entry point.
 	 * @param args Command line arguments.
@@ -57,33 +133,86 @@ public class ConfigManager implements CommandLineRunner
 	 */
     public static void main(String[] args) 
     {
-        new SpringApplicationBuilder(ConfigManager.class).web(WebApplicationType.NONE).run(args);
+        applicationBuilder(args).run(args);
+    }	
+    
+	/*
+	 * Builds the application, in fast-start mode if requested by the arguments
+	 */
+    static SpringApplicationBuilder applicationBuilder(String[] args)
+    {
+    	final SpringApplicationBuilder builder = new SpringApplicationBuilder(ConfigManager.class).web(WebApplicationType.NONE);
+    	
+    	if (Arrays.asList(args).contains(FAST_START_ARG))
+    	{
+    		// the bootstrap starter forces the bootstrap context regardless of spring.cloud.bootstrap.enabled, so its 
+    		// listener is removed instead
+    		final SpringApplication application = builder.application();
+    		application.setListeners(application.getListeners().stream()
+    			.filter(listener -> !(listener instanceof BootstrapApplicationListener)).collect(Collectors.toList()));
+    		
+    		// bean overriding is normally enabled in bootstrap.yml, which is not read without the bootstrap context
+    		builder.lazyInitialization(true).bannerMode(Banner.Mode.OFF).logStartupInfo(false)
+    			.properties("spring.boot.enableautoconfiguration=false", "spring.main.allow-bean-definition-overriding=true", 
+    				FAST_START_PROPERTY + "=true");
+    	}
+    	
+        return builder;
     }	
     
     public void run(String... args)
 	{
-		String[] passArgs = null;
-		
-		// get the config URL if it exist
-		
-        for (int i = 0; i < args.length; i++)
+		// Spring Boot options such as --spring.profiles.active are consumed by the application context
+		// and are not part of the command
+		final List<String> commandArgs = new ArrayList<String>();
+        for (String arg : args)
         {		
-			if ((args.length - i) > 2)
-				passArgs = (String[])Arrays.copyOfRange(args, i, args.length);
-			else
-				passArgs = new String[0];
+			if (!arg.startsWith("--"))
+				commandArgs.add(arg);
         }
 		
+		final String[] passArgs = commandArgs.toArray(new String[commandArgs.size()]);
+		
 
+		if (Arrays.asList(args).contains(DAEMON_ARG))
+		{
+			runDaemon();
+			if (exitOnEndCommands)
+				System.exit(0);
+			return;
+		}
+		
 		boolean runCommand = false;
 
+		final long commandStart = System.nanoTime();
+		final long startupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+
 		runCommand = runApp(passArgs);
 
+		if (reportStartup)
+			System.err.println(String.format("Startup took %d ms (JVM start to command), the command took %d ms", startupMillis, 
+					(System.nanoTime() - commandStart) / 1000000));
 
 		if (exitOnEndCommands)
 			System.exit(runCommand ? 0 : -1);			
 	}	
 	
+	/*
+	 * Serves commands from daemon clients until a client stops the daemon
+	 */
+	protected void runDaemon()
+	{
+		final File endpointFile = daemonEndpointFile.isEmpty() ? DaemonEndpoint.getDefaultFile() : new File(daemonEndpointFile);
+		try
+		{
+			new CommandDaemon(commandArgs -> commandArgs.length > 0 && runApp(commandArgs), daemonPort, endpointFile).run();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Failed to run the configuration manager daemon", e);
+		}
+	}
+	
 	/**
 	 * Constructor with the location of the configuration service.
 	 * @param configURL URL containing the locations of the configuration service.
@@ -109,26 +238,30 @@ public class ConfigManager implements CommandLineRunner
 		
 		commands.register(new SettingsCommands(settingService));
 		
-		commands.register(new DNSRecordCommands(dnsService));
+		commands.register(new DNSRecordCommands(dnsService, streamingClient, asyncDnsService, dnsSnapshot));
 
-		commands.register(new CertCommands(certService));
+		commands.register(new CertCommands(certService, streamingClient));
 		
 		commands.register(new DomainCommands(domainService));
 		
-		commands.register(new AnchorCommands(anchorService, domainService));
+		commands.register(new AnchorCommands(anchorService, domainService, streamingClient));
 		
 		commands.register(new PolicyCommands(certPolicyService, domainService));
 	
-		commands.register(new TrustBundleCommands(bundleService, domainService));
+		commands.register(new TrustBundleCommands(bundleService, domainService, streamingClient, asyncBundleService, asyncDomainService));
 	
 		commands.register(new AddressCommands(addressService));	
 		
-		commands.register(new PerformanceCommands(anchorService, domainService, certService, 
-			 certPolicyService, settingService, dnsService, addressService, bundleService));
+		final PerformanceCommands performanceCommands = new PerformanceCommands(anchorService, domainService, certService, 
+			 certPolicyService, settingService, dnsService, addressService, bundleService);
+		commands.register(performanceCommands);
+		
+		final ScriptCommands scriptCommands = new ScriptCommands(commands);
+		commands.register(scriptCommands);
 		
         if (args != null && args.length > 0)
         {
-            return commands.run(args);
+            return commands.run(args) && !performanceCommands.isFailureDetected() && !scriptCommands.isFailureDetected();
         }
         
         commands.runInteractive();
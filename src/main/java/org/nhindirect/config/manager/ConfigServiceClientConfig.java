@@ -30,7 +30,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
-@EnableFeignClients({"org.nhind.config.rest.feign"})
+@EnableFeignClients({"org.nhind.config.rest.feign", "org.nhindirect.config.manager.feign"})
 public class ConfigServiceClientConfig
 {
 	@Bean
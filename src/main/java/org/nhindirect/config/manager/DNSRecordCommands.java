@@ -22,13 +22,26 @@ THE POSSIBILITY OF SUCH DAMAGE.
 package org.nhindirect.config.manager;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.regex.Matcher;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 
 import org.apache.commons.io.FileUtils;
@@ -36,9 +49,14 @@ import org.nhind.config.rest.DNSService;
 import org.nhindirect.common.rest.exceptions.ServiceException;
 import org.nhindirect.common.tooling.Command;
 import org.nhindirect.common.tooling.StringArrayUtil;
+import org.nhindirect.config.manager.async.AsyncService;
+import org.nhindirect.config.manager.cache.DNSRecordSnapshot;
+import org.nhindirect.config.manager.feign.CloseableIterator;
+import org.nhindirect.config.manager.feign.StreamingConfigServiceClient;
 import org.nhindirect.config.manager.printers.DNSRecordPrinter;
 import org.nhindirect.config.manager.printers.DefaultDNSRecordPrinter;
 import org.nhindirect.config.model.DNSRecord;
+import org.xbill.DNS.Master;
 import org.xbill.DNS.Name;
 import org.xbill.DNS.Record;
 import org.xbill.DNS.SOARecord;
@@ -115,6 +133,25 @@ public class DNSRecordCommands
         "\r\n\trecordid" +
         "\r\n\t recordid: record id to be removed from the database";
 
+    private static final String IMPORT_ZONE_USAGE = "Imports all records of an RFC 1035 master (zone) file.  Records that already exist are skipped." +
+        "\r\n\tfilepath [origin] [defaultTTL] [batchSize]" +
+        "\r\n\t filepath: path to the zone file.  $ORIGIN, $TTL, $INCLUDE, and $GENERATE directives are supported." +
+        "\r\n\t origin: Optional origin of relative names if the file does not set one with $ORIGIN." +
+        "\r\n\t defaultTTL: Optional TTL of records without a TTL if the file does not set one with $TTL.  Defaults to 3600." +
+        "\r\n\t batchSize: Optional number of records that are added concurrently before the next records are read.  Defaults to 200.";
+    
+    private static final String EXPORT_ZONE_USAGE = "Exports all records in the DNS store as an RFC 1035 master (zone) file that Dns_Zone_Import can read." +
+        "\r\n\tpath [perZone]" +
+        "\r\n\t path: The file the records are written to, or the directory of the zone files if perZone is true." +
+        "\r\n\t perZone: Optional.  If true, the records of each zone (the names under an SOA record) are written to their own file " +
+        "named after the zone.  Records outside of any zone are written to unzoned.zone.  Defaults to false.";
+    
+    private static final String MATCH_USAGE = "Resolve all records for the given domain" +
+        "\r\n\tquery [mode]" +
+        "\r\n\t query: A regular expression that is searched for in the record names, or a name for the other modes." +
+        "\r\n\t mode: Optional.  regex, exact (the records of the name), suffix (the records of the name and all names below it), " +
+        "or wildcard (the records of the names below it).  Defaults to wildcard for queries starting with *. and to regex otherwise.";
+    
     private static final String GET_ALL_USAGE = "Gets all records in the DNS store.";
     
     private static final String GET_SOA_CONTACTS = "Gets a list of all the different SOA contacts.";
@@ -128,6 +165,9 @@ public class DNSRecordCommands
     private DNSRecordPrinter printer;
     private DNSRecordParser parser;
     private DNSService proxy;
+    private StreamingConfigServiceClient streamingClient;
+    private AsyncService<DNSService> asyncProxy;
+    private DNSRecordSnapshot snapshot;
     
     /**
      * Constructor that takes a reference to the configuration service proxy.
@@ -136,16 +176,59 @@ public class DNSRecordCommands
      * @since 1.0
      */
 	public DNSRecordCommands(DNSService proxy)
+	{
+	    this(proxy, null);
+	}
+	
+    /**
+     * Constructor with a streaming client.  Listing all records prints records as they are received.
+     * @param proxy Configuration service proxy for accessing the configuration service.
+     * @param streamingClient The streaming client.  If null, listings are fully read before they are printed.
+     * 
+     * @since 8.0.1
+     */
+	public DNSRecordCommands(DNSService proxy, StreamingConfigServiceClient streamingClient)
+	{
+	    this(proxy, streamingClient, null);
+	}
+	
+    /**
+     * Constructor with a streaming client and an asynchronous facade.  Zone imports add records concurrently.
+     * @param proxy Configuration service proxy for accessing the configuration service.
+     * @param streamingClient The streaming client.  If null, listings are fully read before they are printed.
+     * @param asyncProxy Asynchronous facade of the DNS service.  If null, zone imports add records one after another.
+     * 
+     * @since 8.0.1
+     */
+	public DNSRecordCommands(DNSService proxy, StreamingConfigServiceClient streamingClient, AsyncService<DNSService> asyncProxy)
+	{
+	    this(proxy, streamingClient, asyncProxy, null);
+	}
+	
+    /**
+     * Constructor with a streaming client, an asynchronous facade, and a shared snapshot of the DNS store.
+     * @param proxy Configuration service proxy for accessing the configuration service.
+     * @param streamingClient The streaming client.  If null, listings are fully read before they are printed.
+     * @param asyncProxy Asynchronous facade of the DNS service.  If null, zone imports add records one after another.
+     * @param snapshot Indexed snapshot of the store used by Dns_Match.  If null, every Dns_Match downloads the store.
+     * 
+     * @since 8.0.1
+     */
+	public DNSRecordCommands(DNSService proxy, StreamingConfigServiceClient streamingClient, AsyncService<DNSService> asyncProxy,
+			DNSRecordSnapshot snapshot)
 	{
 	    parser = new DNSRecordParser();
 	    printer = new DefaultDNSRecordPrinter();
 	    this.proxy = proxy;
+	    this.streamingClient = streamingClient;
+	    this.asyncProxy = (asyncProxy != null) ? asyncProxy : new AsyncService<>(proxy, Runnable::run);
+	    this.snapshot = (snapshot != null) ? snapshot : new DNSRecordSnapshot(proxy, streamingClient, 0);
 	}
 	
 	/*
 	 * Convert a dnsjava record to a DnsRecord for use with the proxy.
 	 */
-	private DNSRecord fromRecord(Record rec)
+	protected static DNSRecord fromRecord(Record rec)
 	{
 	    DNSRecord retVal = new DNSRecord();
 	    retVal.setData(rec.rdataToWireCanonical());
@@ -189,6 +272,7 @@ public class DNSRecordCommands
 		try
 		{
 			proxy.addDNSRecord(dnsRecord);
+			snapshot.invalidate();
 			System.out.println("Record added successfully.");
 		}		
 		catch (ServiceException e)
@@ -206,6 +290,7 @@ public class DNSRecordCommands
 		try
 		{
 			proxy.deleteDNSRecordsByIds(Arrays.asList(recordId));
+			snapshot.invalidate();
 			System.out.println("Record removed successfully.");
 		}
 		catch (Exception e)
@@ -268,6 +353,312 @@ public class DNSRecordCommands
 	    importRecord(path, Type.A);
 	}       
 	
+	/**
+	 * Imports all records of a zone file.  Records that already exist in the configuration service or appear twice in
+	 * the file are skipped.  The remaining records are added in batches, with the records of a batch added concurrently.
+	 * <p>
+	 * The file is parsed as a stream and only one batch of adds is pending at a time.  Duplicates are detected with a
+	 * set of the keys of every existing record and every parsed record, so memory use grows with the size of the store
+	 * plus the size of the zone.
+	 * @param args The file path (required), the origin, the default TTL, and the batch size.
+	 * 
+	 * @since 8.0.1
+	 */
+	@Command(name = "Dns_Zone_Import", usage = IMPORT_ZONE_USAGE)
+	public void importZone(String[] args)
+	{
+	    final String path = StringArrayUtil.getRequiredValue(args, 0);
+	    final String origin = StringArrayUtil.getOptionalValue(args, 1, "");
+	    final long defaultTTL = Long.parseLong(StringArrayUtil.getOptionalValue(args, 2, "3600"));
+	    final int batchSize = Integer.parseInt(StringArrayUtil.getOptionalValue(args, 3, "200"));
+	    
+	    if (!new File(path).exists())
+	    	throw new IllegalArgumentException("Zone file " + new File(path).getAbsolutePath() + " not found");
+	    if (batchSize < 1)
+	    	throw new IllegalArgumentException("batchSize must be at least 1");
+	    
+	    final Set<String> knownRecords = loadRecordKeys();
+	    System.out.println("Loaded " + knownRecords.size() + " existing records");
+	    
+	    final ZoneImportStats stats = new ZoneImportStats();
+	    final List<DNSRecord> batch = new ArrayList<DNSRecord>(batchSize);
+	    try (Master master = origin.isEmpty() ? new Master(path, null, defaultTTL) : new Master(path, nameFromString(origin), defaultTTL))
+	    {
+	    	Record rec;
+	    	while ((rec = master.nextRecord()) != null)
+	    	{
+	    		++stats.parsed;
+	    		final DNSRecord record = fromRecord(rec);
+	    		if (!knownRecords.add(recordKey(record)))
+	    		{
+	    			++stats.skipped;
+	    			continue;
+	    		}
+	    		
+	    		batch.add(record);
+	    		if (batch.size() == batchSize)
+	    			addBatch(batch, stats);
+	    	}
+	    	addBatch(batch, stats);
+	    }
+	    catch (Exception e)
+	    {
+	    	throw new RuntimeException("Error importing zone file after " + stats.parsed + " records: " + e.getMessage(), e);
+	    }
+	    finally
+	    {
+	    	snapshot.invalidate();
+	    }
+	    
+	    System.out.println("Zone import complete.  " + stats);
+	    if (stats.failed > 0)
+	    	System.err.println(stats.failed + " records could not be added.");
+	}
+	
+	/*
+	 * Counters of a zone import
+	 */
+	private static class ZoneImportStats
+	{
+		private int parsed;
+		private int added;
+		private int skipped;
+		private int failed;
+		
+		@Override
+		public String toString()
+		{
+			return "Parsed " + parsed + " records: " + added + " added, " + skipped + " already present, " + failed + " failed";
+		}
+	}
+	
+	/**
+	 * Exports all records as a master file.  Records are grouped by owner name in canonical DNS order, with the SOA
+	 * record first in each zone, and written through one buffered writer per file instead of being printed one by one.
+	 * @param args The output path (required) and if a file is written per zone.
+	 * 
+	 * @since 8.0.1
+	 */
+	@Command(name = "Dns_Zone_Export", usage = EXPORT_ZONE_USAGE)
+	public void exportZone(String[] args)
+	{
+	    final Path path = Paths.get(StringArrayUtil.getRequiredValue(args, 0));
+	    final boolean perZone = Boolean.parseBoolean(StringArrayUtil.getOptionalValue(args, 1, "false"));
+	    
+	    final Map<Name, List<Record>> recordsByName = loadRecordsByName();
+	    if (recordsByName.isEmpty())
+	    {
+	    	System.out.println("No records found");
+	    	return;
+	    }
+	    
+	    // zones are identified by their SOA records, records belong to the closest enclosing zone
+	    final Map<Name, Map<Name, List<Record>>> zones = new TreeMap<Name, Map<Name, List<Record>>>();
+	    for (Entry<Name, List<Record>> owner : recordsByName.entrySet())
+	    	for (Record rec : owner.getValue())
+	    		if (rec.getType() == Type.SOA)
+	    			zones.put(owner.getKey(), new TreeMap<Name, List<Record>>());
+	    final Map<Name, List<Record>> unzoned = new TreeMap<Name, List<Record>>();
+	    
+	    int recordCount = 0;
+	    for (Entry<Name, List<Record>> owner : recordsByName.entrySet())
+	    {
+	    	Map<Name, List<Record>> zone = unzoned;
+	    	for (int i = 0; i < owner.getKey().labels(); ++i)
+	    	{
+	    		final Map<Name, List<Record>> enclosing = zones.get(new Name(owner.getKey(), i));
+	    		if (enclosing != null)
+	    		{
+	    			zone = enclosing;
+	    			break;
+	    		}
+	    	}
+	    	owner.getValue().sort(Comparator.comparing((Record rec) -> rec.getType() != Type.SOA).thenComparing(Record::getType));
+	    	zone.put(owner.getKey(), owner.getValue());
+	    	recordCount += owner.getValue().size();
+	    }
+	    
+	    try
+	    {
+	    	if (perZone)
+	    	{
+	    		Files.createDirectories(path);
+	    		for (Entry<Name, Map<Name, List<Record>>> zone : zones.entrySet())
+	    			try (Writer writer = Files.newBufferedWriter(path.resolve(zone.getKey().toString(true) + ".zone"), StandardCharsets.UTF_8))
+	    			{
+	    				writeZone(writer, zone.getKey(), zone.getValue());
+	    			}
+	    		if (!unzoned.isEmpty())
+	    			try (Writer writer = Files.newBufferedWriter(path.resolve("unzoned.zone"), StandardCharsets.UTF_8))
+	    			{
+	    				writeZone(writer, null, unzoned);
+	    			}
+	    	}
+	    	else
+	    	{
+	    		if (path.toAbsolutePath().getParent() != null)
+	    			Files.createDirectories(path.toAbsolutePath().getParent());
+	    		try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8))
+	    		{
+	    			for (Entry<Name, Map<Name, List<Record>>> zone : zones.entrySet())
+	    				writeZone(writer, zone.getKey(), zone.getValue());
+	    			writeZone(writer, null, unzoned);
+	    		}
+	    	}
+	    }
+	    catch (IOException e)
+	    {
+	    	throw new RuntimeException("Error writing " + path.toAbsolutePath() + ": " + e.getMessage(), e);
+	    }
+	    
+	    System.out.println("Exported " + recordCount + " records of " + zones.size() + " zones to " + path.toAbsolutePath());
+	}
+	
+	/*
+	 * Reads all records and groups them by owner name in canonical order
+	 */
+	private Map<Name, List<Record>> loadRecordsByName()
+	{
+		final Map<Name, List<Record>> retVal = new TreeMap<Name, List<Record>>();
+	    if (streamingClient != null)
+	    {
+		    try (CloseableIterator<DNSRecord> records = streamingClient.streamDNSRecords(Type.ANY, ""))
+		    {
+		    	while (records.hasNext())
+		    		addToOwner(retVal, records.next());
+		    }
+			catch (Exception e)
+			{
+				throw new RuntimeException("Error accessing configuration service: " + e.getMessage(), e);
+			}
+		    return retVal;
+	    }
+	    
+	    try
+	    {
+	    	final Collection<DNSRecord> records = proxy.getDNSRecord(Type.ANY, "");
+	    	if (records != null)
+	    		for (DNSRecord record : records)
+	    			addToOwner(retVal, record);
+	    }
+		catch (Exception e)
+		{
+			throw new RuntimeException("Error accessing configuration service: " + e.getMessage(), e);
+		}
+	    return retVal;
+	}
+	
+	private void addToOwner(Map<Name, List<Record>> recordsByName, DNSRecord record)
+	{
+		final Record rec = Record.newRecord(nameFromString(record.getName()), record.getType(), record.getDclass(), record.getTtl(), record.getData());
+		recordsByName.computeIfAbsent(rec.getName(), name -> new ArrayList<Record>(2)).add(rec);
+	}
+	
+	/*
+	 * Writes the records of a zone.  The owner name is only written on the first record of each name.
+	 */
+	private static void writeZone(Writer writer, Name origin, Map<Name, List<Record>> recordsByName) throws IOException
+	{
+		if (recordsByName.isEmpty())
+			return;
+		
+		writer.write((origin != null) ? "$ORIGIN " + origin + "\n" : "; records outside of any zone\n");
+		for (List<Record> records : recordsByName.values())
+		{
+			boolean first = true;
+			for (Record rec : records)
+			{
+				final String line = rec.toString();
+				writer.write(first ? line : line.substring(line.indexOf('\t')));
+				writer.write('\n');
+				first = false;
+			}
+		}
+		writer.write('\n');
+	}
+	
+	/*
+	 * Adds the records of a batch concurrently and waits for all of them before the next batch is read
+	 */
+	private void addBatch(List<DNSRecord> batch, ZoneImportStats stats)
+	{
+		if (batch.isEmpty())
+			return;
+		
+		final List<CompletableFuture<Void>> adds = new ArrayList<CompletableFuture<Void>>(batch.size());
+		for (DNSRecord record : batch)
+			adds.add(asyncProxy.submit(s -> 
+			{
+				s.addDNSRecord(record);
+				return null;
+			}));
+		
+		for (int i = 0; i < adds.size(); ++i)
+		{
+			try
+			{
+				AsyncService.await(adds.get(i));
+				++stats.added;
+			}
+			catch (Exception e)
+			{
+				++stats.failed;
+				System.out.println("Failed to add record " + batch.get(i).getName() + " type " + Type.string(batch.get(i).getType()) + 
+						": " + e.getMessage());
+			}
+		}
+		batch.clear();
+		
+		System.out.println(stats);
+	}
+	
+	/*
+	 * Loads the keys of all records in the configuration service for detecting duplicates
+	 */
+	private Set<String> loadRecordKeys()
+	{
+		final Set<String> retVal = new HashSet<String>();
+	    if (streamingClient != null)
+	    {
+		    try (CloseableIterator<DNSRecord> records = streamingClient.streamDNSRecords(Type.ANY, ""))
+		    {
+		    	while (records.hasNext())
+		    		retVal.add(recordKey(records.next()));
+		    }
+			catch (Exception e)
+			{
+				throw new RuntimeException("Error accessing configuration service: " + e.getMessage(), e);
+			}
+		    return retVal;
+	    }
+	    
+	    try
+	    {
+	    	final Collection<DNSRecord> records = proxy.getDNSRecord(Type.ANY, "");
+	    	if (records != null)
+	    		for (DNSRecord record : records)
+	    			retVal.add(recordKey(record));
+	    }
+		catch (Exception e)
+		{
+			throw new RuntimeException("Error accessing configuration service: " + e.getMessage(), e);
+		}
+	    return retVal;
+	}
+	
+	/*
+	 * Identifies a record by name, type, class, and data like the ensure commands do
+	 */
+	private static String recordKey(DNSRecord record)
+	{
+		String name = record.getName().toLowerCase(Locale.ENGLISH);
+		if (!name.endsWith("."))
+			name += ".";
+		
+		return name + " " + record.getType() + " " + record.getDclass() + " " + 
+			((record.getData() == null) ? "" : Base64.getEncoder().encodeToString(record.getData()));
+	}
+	
 	/**
 	 * Adds an MX records to the configuration service.
 	 * @param args Contains the MX record attributes.
@@ -514,6 +905,12 @@ public class DNSRecordCommands
 	@Command(name= "Dns_Get_All", usage = GET_ALL_USAGE)
 	public void getAll(String[] args)
 	{
+	    if (streamingClient != null)
+	    {
+	    	streamAll();
+	    	return;
+	    }
+	    
 	    Collection<DNSRecord> records = null;
 	    try
 	    {
@@ -592,43 +989,43 @@ public class DNSRecordCommands
 	}
 	*/
 	/**
-	 * Looks up all records for a given domain and any sub domains.
-	 * @param args The first entry in the array contains the domain name (required).
+	 * Looks up all records for a given domain and any sub domains.  Lookups use the session's indexed snapshot of
+	 * the store, so repeated matches do not download the store again.
+	 * @param args The first entry in the array contains the domain name or pattern (required), the second the match mode.
 	 * 
 	 * @since 1.0
 	 */			
-	@Command(name = "Dns_Match", usage = "Resolve all records for the given domain")
+	@Command(name = "Dns_Match", usage = MATCH_USAGE)
 	public void match(String[] args)
 	{
-	    String domain = StringArrayUtil.getRequiredValue(args, 0);
-	    Collection<DNSRecord> records = null;
-	    Pattern pattern = Pattern.compile(domain);
-	    ArrayList<DNSRecord> matchedRecords = new ArrayList<DNSRecord>(); 
+	    final String query = StringArrayUtil.getRequiredValue(args, 0);
+	    final String mode = StringArrayUtil.getOptionalValue(args, 1, query.startsWith("*.") ? "wildcard" : "regex").toLowerCase(Locale.ENGLISH);
+	    
+	    Collection<DNSRecord> matchedRecords = null;
 	    try
 	    {
-	    	records = proxy.getDNSRecord(Type.ANY, "");
+	    	switch (mode)
+	    	{
+	    		case "exact":
+	    			matchedRecords = snapshot.getRecords(query, Type.ANY);
+	    			break;
+	    		case "suffix":
+	    			matchedRecords = snapshot.getRecordsUnder(query, true);
+	    			break;
+	    		case "wildcard":
+	    			matchedRecords = snapshot.getRecordsUnder(query.startsWith("*.") ? query.substring(2) : query, false);
+	    			break;
+	    		case "regex":
+	    			matchedRecords = snapshot.match(Pattern.compile(query));
+	    			break;
+	    		default:
+	    			throw new IllegalArgumentException("Unknown match mode " + mode);
+	    	}
 	    }
-		catch (Exception e)
+		catch (ServiceException e)
 		{
 			throw new RuntimeException("Error accessing configuration service: " + e.getMessage(), e);
 		}
-		
-	    if (records == null || records.isEmpty())
-	    {
-	        System.out.println("No records found");
-	        return;
-	    }
-	    else
-	    {
-	    	for (DNSRecord record : records)
-	    	{
-	    		Matcher matcher = pattern.matcher(record.getName());
-	    		if (matcher.find())
-	    		{
-	    			matchedRecords.add(record);
-	    		}
-	    	}
-	    }
 	    
 	    if (matchedRecords.size() == 0)
 	    {
@@ -788,6 +1185,30 @@ public class DNSRecordCommands
 		addDNS(record);
 	}	
 	
+	/*
+	 * prints all records as they are received
+	 */
+	private void streamAll()
+	{
+	    int count = 0;
+	    try (CloseableIterator<DNSRecord> records = streamingClient.streamDNSRecords(Type.ANY, ""))
+	    {
+	    	while (records.hasNext())
+	    	{
+	    		print(records.next());
+	    		System.out.println("\r\n-------------------------------------------");
+	    		++count;
+	    	}
+	    }
+		catch (Exception e)
+		{
+			throw new RuntimeException("Error accessing configuration service: " + e.getMessage(), e);
+		}
+	    
+	    if (count == 0)
+	    	System.out.println("No records found");
+	}
+	
 	/*
 	 * prints the contents of an array of records
 	 */
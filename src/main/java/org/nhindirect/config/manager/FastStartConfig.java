@@ -0,0 +1,25 @@
+package org.nhindirect.config.manager;
+
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The only auto-configuration applied in fast-start mode.  Regular auto-configuration is disabled in that mode and
+ * these are exactly what the Feign config service clients need: property placeholders, the Jackson object mapper,
+ * the HTTP message converters of the Feign decoders, and Feign itself.
+ *
+ * @since 8.0.1
+ */
+@Configuration
+@ConditionalOnProperty(name = ConfigManager.FAST_START_PROPERTY, havingValue = "true")
+@ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, JacksonAutoConfiguration.class, 
+	HttpMessageConvertersAutoConfiguration.class, FeignAutoConfiguration.class})
+public class FastStartConfig
+{
+
+}
@@ -1,8 +1,24 @@
 package org.nhindirect.config.manager;
 
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
 
 import org.apache.commons.io.IOUtils;
 import org.nhind.config.rest.AddressService;
@@ -14,15 +30,135 @@ import org.nhind.config.rest.DomainService;
 import org.nhind.config.rest.SettingService;
 import org.nhind.config.rest.TrustBundleService;
 import org.nhindirect.common.tooling.Command;
+import org.nhindirect.common.tooling.StringArrayUtil;
+import org.nhindirect.config.manager.perf.JvmTelemetry;
+import org.nhindirect.config.manager.perf.LoadOperation;
+import org.nhindirect.config.manager.perf.LocalBundleServer;
+import org.nhindirect.config.manager.perf.LoadRunner;
+import org.nhindirect.config.manager.perf.LoadTestReport;
+import org.nhindirect.config.manager.perf.OperationStats;
+import org.nhindirect.config.manager.perf.PhaseResult;
+import org.nhindirect.config.manager.perf.ThreadingMode;
+import org.nhindirect.config.manager.perf.WeightedOperationMix;
+import org.nhindirect.config.manager.printers.OperationStatsPrinter;
+import org.nhindirect.config.model.Address;
 import org.nhindirect.config.model.Anchor;
+import org.nhindirect.config.model.BundleRefreshError;
+import org.nhindirect.config.model.CertPolicy;
+import org.nhindirect.config.model.CertPolicyGroup;
+import org.nhindirect.config.model.CertPolicyGroupUse;
+import org.nhindirect.config.model.CertPolicyUse;
+import org.nhindirect.config.model.Certificate;
+import org.nhindirect.config.model.DNSRecord;
+import org.nhindirect.config.model.Domain;
 import org.nhindirect.config.model.EntityStatus;
 import org.nhindirect.config.model.TrustBundle;
+import org.nhindirect.config.model.utils.CertUtils;
+import org.nhindirect.policy.PolicyLexicon;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.xbill.DNS.Record;
+import org.xbill.DNS.Type;
 
 public class PerformanceCommands
 {
-	private static final String STRESS_TEST_USAGE = "Performs a stress test against the configuration service.";
+	private static final String STRESS_TEST_USAGE = "Performs a stress test against the configuration service." +
+			"\r\n  [workers] [operations] [threadingMode] [suites] [bundleURL] [bundleTimeout] [resultFile]" +
+			"\r\n\t workers: Optional number of concurrent workers calling the service.  Defaults to 1 (sequential)." +
+			"\r\n\t operations: Optional number of entities created per phase.  Defaults to 500." +
+			"\r\n\t threadingMode: Optional type of worker threads.  Valid values are platform or virtual.  Defaults to platform." +
+			"\r\n\t suites: Optional comma delimited list of test suites to run.  Valid values are all, domains, certs, dns, settings, " +
+			"policies, anchors, and bundles.  Defaults to all." +
+			"\r\n\t bundleURL: Optional URL the stress test trust bundles are downloaded from.  Use local to serve a stand-in bundle from " +
+			"this process on the loopback interface (the service must run on the same host).  Defaults to the DirectTrust accredited community bundle." +
+			"\r\n\t bundleTimeout: Optional number of seconds to wait for the service to download the trust bundles.  Defaults to 60." +
+			"\r\n\t resultFile: Optional file the results are written to as JSON for use with ComparePerfResults.";
+	
+	protected static final String DEFAULT_LOOKUP_WEIGHTS = "certs=40,anchors=20,bundles=15,dns=15,policies=10";
+	
+	private static final String LOOKUP_LOAD_TEST_USAGE = "Seeds a realistic dataset and replays the security agent's weighted lookup mix " +
+			"against the configuration service.  The dataset is removed when the test completes." +
+			"\r\n  domains addressesPerDomain [workers] [operations] [threadingMode] [weights] [resultFile]" +
+			"\r\n\t domains: Number of domains to seed.  Each domain gets an anchor, an MX record, a trust bundle and a policy group." +
+			"\r\n\t addressesPerDomain: Number of addresses seeded per domain.  Each address gets a public certificate." +
+			"\r\n\t workers: Optional number of concurrent workers calling the service.  Defaults to 8." +
+			"\r\n\t operations: Optional number of lookups to replay.  Defaults to 10000." +
+			"\r\n\t threadingMode: Optional type of worker threads.  Valid values are platform or virtual.  Defaults to platform." +
+			"\r\n\t weights: Optional comma delimited lookup weights in the form name=weight.  Valid names are certs, anchors, bundles, " +
+			"dns, and policies.  Defaults to " + DEFAULT_LOOKUP_WEIGHTS +
+			"\r\n\t resultFile: Optional file the results are written to as JSON for use with ComparePerfResults.";
+	
+	private static final String RATE_LOAD_TEST_USAGE = "Seeds the lookup dataset and replays the agent lookup mix open loop at a constant arrival rate.  " +
+			"Latency is measured from each request's intended send time so service stalls are not hidden by the load generator.  " +
+			"The rate can be stepped up until a p99 latency SLO is breached to find the maximum sustainable throughput." +
+			"\r\n  domains addressesPerDomain rate [sloMillis] [stepRate] [maxRate] [stepSeconds] [workers] [threadingMode] [weights] [resultFile]" +
+			"\r\n\t domains: Number of domains to seed." +
+			"\r\n\t addressesPerDomain: Number of addresses seeded per domain." +
+			"\r\n\t rate: The starting arrival rate in requests per second." +
+			"\r\n\t sloMillis: Optional p99 latency SLO in milliseconds.  Defaults to 0 which runs a single step without an SLO." +
+			"\r\n\t stepRate: Optional number of requests per second added after each step.  Defaults to 0 (no stepping)." +
+			"\r\n\t maxRate: Optional highest arrival rate to attempt.  Defaults to 10 times the starting rate." +
+			"\r\n\t stepSeconds: Optional duration of each step in seconds.  Defaults to 30." +
+			"\r\n\t workers: Optional maximum number of outstanding requests.  Defaults to 64." +
+			"\r\n\t threadingMode: Optional type of worker threads.  Valid values are platform or virtual.  Defaults to platform." +
+			"\r\n\t weights: Optional comma delimited lookup weights in the form name=weight.  Defaults to " + DEFAULT_LOOKUP_WEIGHTS +
+			"\r\n\t resultFile: Optional file the results are written to as JSON for use with ComparePerfResults.";
+	
+	private static final String COMPARE_PERF_RESULTS_USAGE = "Compares a load test result file against a baseline result file and fails if " +
+			"the throughput, p99 latency, or error rate of any operation regressed beyond a tolerance, or if an operation of the baseline was not run." +
+			"\r\n  baselineFile resultFile [tolerance] [minCount]" +
+			"\r\n\t baselineFile: Result file of the baseline run." +
+			"\r\n\t resultFile: Result file of the run being checked." +
+			"\r\n\t tolerance: Optional allowed regression in percent.  The error rate may grow by this many percentage points.  Defaults to 10." +
+			"\r\n\t minCount: Optional minimum number of executions for an operation to be compared.  Defaults to 50.";
+	
+	private static final String SOAK_TEST_USAGE = "Runs a workload for a fixed duration and prints rolling per interval throughput and latency " +
+			"together with the heap, GC pauses, and thread counts of this JVM so service degradation can be told apart from load generator artifacts." +
+			"\r\n  duration [interval] [workload] [domains] [addressesPerDomain] [workers] [threadingMode] [weights] [resultFile]" +
+			"\r\n\t duration: How long to run.  A number followed by s, m, or h (for example 4h).  Minutes are assumed without a unit." +
+			"\r\n\t interval: Optional reporting interval in seconds.  Defaults to 60." +
+			"\r\n\t workload: Optional workload to run.  lookup replays the agent lookup mix against a seeded dataset.  churn repeatedly " +
+			"creates and deletes settings and certificates.  Defaults to lookup." +
+			"\r\n\t domains: Optional number of domains seeded for the lookup workload.  Defaults to 10." +
+			"\r\n\t addressesPerDomain: Optional number of addresses seeded per domain for the lookup workload.  Defaults to 10." +
+			"\r\n\t workers: Optional number of concurrent workers calling the service.  Defaults to 8." +
+			"\r\n\t threadingMode: Optional type of worker threads.  Valid values are platform or virtual.  Defaults to platform." +
+			"\r\n\t weights: Optional comma delimited lookup weights in the form name=weight.  Defaults to " + DEFAULT_LOOKUP_WEIGHTS +
+			"\r\n\t resultFile: Optional file the results, including every interval, are written to as JSON.";
+	
+	protected static final String STRESS_TEST_DOMAIN = "stresstest%d.perf.example";
+	
+	protected static final String STRESS_TEST_OWNER = "Stress Test";
+	
+	protected static final String STRESS_TEST_BUNDLE = "StressTestBundle";
+	
+	protected static final String STRESS_TEST_SETTING = "StressTestSetting";
+	
+	protected static final String STRESS_TEST_POLICY = "StressTestPolicy";
+	
+	protected static final String STRESS_TEST_POLICY_GROUP = "StressTestPolicyGroup";
+	
+	protected static final String STRESS_TEST_POLICY_DEF = "X509.TBS.EXTENSION.KeyUsage & 32 > 0";
+	
+	protected static final String PRIVATE_CERT_PASS = "stresstest";
+	
+	protected static final String DEFAULT_BUNDLE_URL = "https://bundles.directtrust.org/bundles/accreditedCommunity.p7b";
+	
+	protected static final String LOCAL_BUNDLE_URL = "local";
+	
+	protected static final long BUNDLE_POLL_INTERVAL = 250;
+	
+	protected static final String LOOKUP_DOMAIN = "stresslookup%d.perf.example";
+	
+	protected static final String SOAK_SETTING = "StressTestSoakSetting";
+	
+	protected static final String SOAK_CERT_OWNER = "soak%d.perf.example";
+	
+	protected static final String LOOKUP_BUNDLE = "StressTestLookupBundle";
+	
+	protected static final String LOOKUP_POLICY_GROUP = "StressTestLookupGroup";
+	
+	protected static final Collection<String> ALL_SUITES = Arrays.asList("domains", "certs", "dns", "settings", "policies", "anchors", "bundles");
 	
 	protected AnchorService anchorService;
 	
@@ -40,6 +176,10 @@ public class PerformanceCommands
 	
 	protected TrustBundleService bundleService;
 	
+	protected final OperationStatsPrinter statsPrinter;
+	
+	protected volatile boolean failureDetected;
+	
 	public PerformanceCommands(AnchorService anchorService, DomainService domainService, CertificateService certService, 
 			CertPolicyService certPolService, SettingService settingsService, DNSService dnsService, AddressService addressService,
 			TrustBundleService bundleService)
@@ -52,134 +192,1209 @@ public class PerformanceCommands
 		this.dnsService = dnsService;
 		this.addressService = addressService;
 		this.bundleService = bundleService;
+		
+		this.statsPrinter = new OperationStatsPrinter();
 	} 
 	
 	@Command(name = "StressTest", usage = STRESS_TEST_USAGE)
     public void stressTest(String[] args)
 	{
-		System.out.println("Intiating Stress Test.");
+		final int workers = Integer.parseInt(StringArrayUtil.getOptionalValue(args, 0, "1"));
+		final int operations = Integer.parseInt(StringArrayUtil.getOptionalValue(args, 1, "500"));
+		final ThreadingMode threadingMode = ThreadingMode.fromString(StringArrayUtil.getOptionalValue(args, 2, "platform"));
+		final Collection<String> suites = parseSuites(StringArrayUtil.getOptionalValue(args, 3, "all"));
+		final String bundleURL = StringArrayUtil.getOptionalValue(args, 4, DEFAULT_BUNDLE_URL);
+		final long bundleTimeout = TimeUnit.SECONDS.toMillis(Long.parseLong(StringArrayUtil.getOptionalValue(args, 5, "60")));
+		final String resultFile = StringArrayUtil.getOptionalValue(args, 6, "");
+		
+		if (threadingMode == ThreadingMode.VIRTUAL && !ThreadingMode.isVirtualThreadsSupported())
+			System.out.println("Virtual threads are not supported by this JVM.  Using platform threads.");
+		
+		final LoadRunner runner = new LoadRunner(workers, threadingMode);
+		
+		System.out.println("Intiating Stress Test with " + workers + " worker(s) and " + operations + " operations per phase.");
+		
+		final List<PhaseResult> results = new ArrayList<PhaseResult>();
+		boolean aborted = false;
+		
+		try
+		{
+			// domains are needed by the address and policy group association phases, so they are created first
+			// and deleted last
+			final boolean needsDomains = suites.contains("domains") || suites.contains("policies");
+			if (needsDomains)
+				runDomainCreateTests(runner, operations, results);
+			
+			if (suites.contains("domains"))
+				runAddressTests(runner, operations, results);
+			
+			if (suites.contains("certs"))
+				runCertificateTests(runner, operations, results);
+			
+			if (suites.contains("dns"))
+				runDNSTests(runner, operations, results);
+			
+			if (suites.contains("settings"))
+				runSettingTests(runner, operations, results);
+			
+			if (suites.contains("policies"))
+				runPolicyTests(runner, operations, results);
+			
+			if (needsDomains)
+				runDomainDeleteTests(runner, operations, results);
+			
+			if (suites.contains("anchors"))
+				runAnchorTests(runner, operations, results);
+			
+			// bundles are downloaded by the service, so keep the bundle count proportionally smaller
+			if (suites.contains("bundles"))
+				runTrustBundleTests(runner, Math.max(1, operations / 5), results, bundleURL, bundleTimeout);
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+			aborted = true;
+			failureDetected = true;
+		}
+		
+		printSummary(results);
+		
+		writeReport(resultFile, "StressTest", results, !aborted, "workers", workers, "operations", operations, "threadingMode", threadingMode, 
+				"suites", String.join(",", suites), "bundleURL", bundleURL, "bundleTimeout", bundleTimeout);
+	}	
+	
+	@Command(name = "LookupLoadTest", usage = LOOKUP_LOAD_TEST_USAGE)
+    public void lookupLoadTest(String[] args)
+	{
+		final int domains = Integer.parseInt(StringArrayUtil.getRequiredValue(args, 0));
+		final int addressesPerDomain = Integer.parseInt(StringArrayUtil.getRequiredValue(args, 1));
+		final int workers = Integer.parseInt(StringArrayUtil.getOptionalValue(args, 2, "8"));
+		final int operations = Integer.parseInt(StringArrayUtil.getOptionalValue(args, 3, "10000"));
+		final ThreadingMode threadingMode = ThreadingMode.fromString(StringArrayUtil.getOptionalValue(args, 4, "platform"));
+		final String weightList = StringArrayUtil.getOptionalValue(args, 5, DEFAULT_LOOKUP_WEIGHTS);
+		final Map<String, Integer> weights = WeightedOperationMix.parseWeights(weightList);
+		final String resultFile = StringArrayUtil.getOptionalValue(args, 6, "");
 		
+		if (domains < 1 || addressesPerDomain < 1)
+			throw new IllegalArgumentException("The dataset must contain at least one domain and one address per domain");
 		
+		final LoadRunner runner = new LoadRunner(workers, threadingMode);
+		final WeightedOperationMix mix = buildLookupMix(domains, addressesPerDomain, weights);
+		
+		System.out.println("Intiating Lookup Load Test with " + workers + " worker(s), " + domains + " domain(s), " + 
+				addressesPerDomain + " address(es) per domain and " + operations + " lookups.");
+		
+		final List<PhaseResult> results = new ArrayList<PhaseResult>();
+		boolean aborted = false;
 		
 		try
 		{
+			seedLookupDataset(runner, domains, addressesPerDomain, results);
 			
-			System.out.println("\r\nRunning sequential anchors tests.");
+			System.out.println("\r\nReplaying agent lookups.");
+			final PhaseResult lookups = runPhase(runner, results, "Replaying agent lookups", operations, mix);
 			
+			System.out.println(String.format(Locale.US, "Aggregate lookup throughput: %.1f ops/sec with %d error(s).", 
+					lookups.getThroughput(), lookups.getErrors()));
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+			aborted = true;
+			failureDetected = true;
+		}
+		finally
+		{
+			try
+			{
+				removeLookupDataset(runner, domains, addressesPerDomain, results);
+			}
+			catch (Exception e)
+			{
+				System.err.println("Failed to remove lookup dataset: " + e.getMessage());
+			}
+		}
+		
+		printSummary(results);
+		
+		writeReport(resultFile, "LookupLoadTest", results, !aborted, "domains", domains, "addressesPerDomain", addressesPerDomain, "workers", workers, 
+				"operations", operations, "threadingMode", threadingMode, "weights", weightList);
+	}
+	
+	@Command(name = "RateLoadTest", usage = RATE_LOAD_TEST_USAGE)
+    public void rateLoadTest(String[] args)
+	{
+		final int domains = Integer.parseInt(StringArrayUtil.getRequiredValue(args, 0));
+		final int addressesPerDomain = Integer.parseInt(StringArrayUtil.getRequiredValue(args, 1));
+		final double startRate = Double.parseDouble(StringArrayUtil.getRequiredValue(args, 2));
+		final double sloMillis = Double.parseDouble(StringArrayUtil.getOptionalValue(args, 3, "0"));
+		final double stepRate = Double.parseDouble(StringArrayUtil.getOptionalValue(args, 4, "0"));
+		final double maxRate = Double.parseDouble(StringArrayUtil.getOptionalValue(args, 5, String.valueOf(startRate * 10)));
+		final int stepSeconds = Integer.parseInt(StringArrayUtil.getOptionalValue(args, 6, "30"));
+		final int workers = Integer.parseInt(StringArrayUtil.getOptionalValue(args, 7, "64"));
+		final ThreadingMode threadingMode = ThreadingMode.fromString(StringArrayUtil.getOptionalValue(args, 8, "platform"));
+		final String weightList = StringArrayUtil.getOptionalValue(args, 9, DEFAULT_LOOKUP_WEIGHTS);
+		final Map<String, Integer> weights = WeightedOperationMix.parseWeights(weightList);
+		final String resultFile = StringArrayUtil.getOptionalValue(args, 10, "");
+		
+		if (domains < 1 || addressesPerDomain < 1)
+			throw new IllegalArgumentException("The dataset must contain at least one domain and one address per domain");
+		
+		if (startRate <= 0 || stepSeconds < 1)
+			throw new IllegalArgumentException("The rate and step duration must be greater than 0");
+		
+		final LoadRunner runner = new LoadRunner(workers, threadingMode);
+		final WeightedOperationMix mix = buildLookupMix(domains, addressesPerDomain, weights);
+		
+		System.out.println(String.format(Locale.US, "Intiating Rate Load Test at %.1f req/s with up to %d outstanding request(s), %d domain(s) and %d " +
+				"address(es) per domain.", startRate, workers, domains, addressesPerDomain));
+		
+		final List<PhaseResult> results = new ArrayList<PhaseResult>();
+		boolean aborted = false;
+		
+		try
+		{
+			seedLookupDataset(runner, domains, addressesPerDomain, results);
 			
-			/*
-			 * Anchor tests 
-			 */
-			long sequentialAnchorStartTime = System.currentTimeMillis();
+			System.out.println("\r\nReplaying agent lookups at a constant arrival rate.");
 			
-			final Resource resource = new ClassPathResource("certs/cert-a.der");
-			final byte[] certAData = IOUtils.toByteArray(resource.getInputStream());
+			double rate = startRate;
+			double maxSustainableRate = -1;
+			boolean sloBreached = false;
+			while (true)
+			{
+				final int operations = (int)Math.max(1, Math.round(rate * stepSeconds));
+				final String phaseName = String.format(Locale.US, "Lookups at %.1f req/s", rate);
+				
+				System.out.println("\t" + phaseName + ".");
+				final PhaseResult result = runner.runPhaseAtRate(phaseName, rate, operations, mix);
+				results.add(result);
+				
+				final double p99 = result.getLatencyMillis(99);
+				System.out.println(String.format(Locale.US, "\t\tAchieved %.1f req/s.  p50=%.3fms p99=%.3fms p99.9=%.3fms with %d error(s).", 
+						result.getThroughput(), result.getLatencyMillis(50), p99, result.getLatencyMillis(99.9), result.getErrors()));
+				
+				if (sloMillis > 0)
+				{
+					if (p99 >= sloMillis)
+					{
+						System.out.println(String.format(Locale.US, "\t\tp99 SLO of %.3fms breached.", sloMillis));
+						sloBreached = true;
+						break;
+					}
+					maxSustainableRate = rate;
+				}
+				
+				if (stepRate <= 0 || rate + stepRate > maxRate)
+					break;
+				
+				rate += stepRate;
+			}
+			
+			if (sloMillis > 0)
+			{
+				if (maxSustainableRate < 0)
+					System.out.println(String.format(Locale.US, "\r\nThe p99 SLO of %.3fms was breached at the starting rate of %.1f req/s.", sloMillis, startRate));
+				else
+					System.out.println(String.format(Locale.US, "\r\nMax sustainable throughput at p99 < %.3fms: %.1f req/s%s", sloMillis, maxSustainableRate,
+							sloBreached ? "." : " (SLO not breached up to the maximum rate)."));
+			}
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+			aborted = true;
+			failureDetected = true;
+		}
+		finally
+		{
+			try
+			{
+				removeLookupDataset(runner, domains, addressesPerDomain, results);
+			}
+			catch (Exception e)
+			{
+				System.err.println("Failed to remove lookup dataset: " + e.getMessage());
+			}
+		}
+		
+		printSummary(results);
+		
+		writeReport(resultFile, "RateLoadTest", results, !aborted, "domains", domains, "addressesPerDomain", addressesPerDomain, "rate", startRate, 
+				"sloMillis", sloMillis, "stepRate", stepRate, "maxRate", maxRate, "stepSeconds", stepSeconds, "workers", workers, 
+				"threadingMode", threadingMode, "weights", weightList);
+	}
+	
+	@Command(name = "SoakTest", usage = SOAK_TEST_USAGE)
+    public void soakTest(String[] args)
+	{
+		final String duration = StringArrayUtil.getRequiredValue(args, 0);
+		final long durationMillis = parseDuration(duration);
+		final long intervalMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(StringArrayUtil.getOptionalValue(args, 1, "60")));
+		final String workload = StringArrayUtil.getOptionalValue(args, 2, "lookup").toLowerCase(Locale.getDefault());
+		final int domains = Integer.parseInt(StringArrayUtil.getOptionalValue(args, 3, "10"));
+		final int addressesPerDomain = Integer.parseInt(StringArrayUtil.getOptionalValue(args, 4, "10"));
+		final int workers = Integer.parseInt(StringArrayUtil.getOptionalValue(args, 5, "8"));
+		final ThreadingMode threadingMode = ThreadingMode.fromString(StringArrayUtil.getOptionalValue(args, 6, "platform"));
+		final String weightList = StringArrayUtil.getOptionalValue(args, 7, DEFAULT_LOOKUP_WEIGHTS);
+		final String resultFile = StringArrayUtil.getOptionalValue(args, 8, "");
+		
+		final boolean lookupWorkload = workload.equals("lookup");
+		if (!lookupWorkload && !workload.equals("churn"))
+			throw new IllegalArgumentException("Unknown workload " + workload + ".  Valid values are lookup or churn");
+		
+		if (lookupWorkload && (domains < 1 || addressesPerDomain < 1))
+			throw new IllegalArgumentException("The dataset must contain at least one domain and one address per domain");
+		
+		final LoadRunner runner = new LoadRunner(workers, threadingMode);
+		final WeightedOperationMix mix = lookupWorkload ? 
+				buildLookupMix(domains, addressesPerDomain, WeightedOperationMix.parseWeights(weightList)) : buildChurnMix();
+		
+		System.out.println("Intiating Soak Test running the " + workload + " workload for " + duration + " with " + workers + " worker(s).");
 		
-			System.out.println("\tCreating anchors.");
+		final List<PhaseResult> results = new ArrayList<PhaseResult>();
+		boolean aborted = false;
+		final List<PhaseResult> intervals = new ArrayList<PhaseResult>();
+		
+		try (JvmTelemetry telemetry = new JvmTelemetry())
+		{
+			if (lookupWorkload)
+				seedLookupDataset(runner, domains, addressesPerDomain, results);
+			
+			System.out.println("\r\nSoaking.");
 			
-			for (int i = 0; i < 500; ++i)
+			final long soakStartTime = System.currentTimeMillis();
+			final PhaseResult soak = runner.runPhaseForDuration("Soaking " + workload + " workload", durationMillis, intervalMillis, mix, interval ->
 			{
-				final Anchor newAnchor = new Anchor();
-				newAnchor.setCertificateData(certAData);
-				newAnchor.setIncoming(true);
-				newAnchor.setOutgoing(true);
-				newAnchor.setStatus(EntityStatus.ENABLED);
-				newAnchor.setOwner("Stress Test" + i);
+				intervals.add(interval);
 				
+				final long elapsedSeconds = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - soakStartTime);
+				System.out.println(String.format(Locale.US, "\t[%02d:%02d:%02d] %.1f ops/sec p50=%.3fms p99=%.3fms p99.9=%.3fms errors=%d | %s", 
+						elapsedSeconds / 3600, (elapsedSeconds / 60) % 60, elapsedSeconds % 60, interval.getThroughput(), 
+						interval.getLatencyMillis(50), interval.getLatencyMillis(99), interval.getLatencyMillis(99.9), interval.getErrors(), 
+						telemetry.sample()));
+			});
+			results.add(soak);
+			
+			System.out.println();
+			printPhaseResult(soak);
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+			aborted = true;
+			failureDetected = true;
+		}
+		finally
+		{
+			if (lookupWorkload)
+			{
 				try
 				{
-					anchorService.addAnchor(newAnchor);
+					removeLookupDataset(runner, domains, addressesPerDomain, results);
 				}
 				catch (Exception e)
 				{
-					System.err.println("\tError creating anchor for owner Stress Test" + i);
+					System.err.println("Failed to remove lookup dataset: " + e.getMessage());
+				}
+			}
+		}
+		
+		printSummary(results);
+		
+		final List<PhaseResult> reportResults = new ArrayList<PhaseResult>(results);
+		reportResults.addAll(intervals);
+		writeReport(resultFile, "SoakTest", reportResults, !aborted, "duration", durationMillis, "interval", intervalMillis, "workload", workload, 
+				"domains", domains, "addressesPerDomain", addressesPerDomain, "workers", workers, "threadingMode", threadingMode, "weights", weightList);
+	}
+	
+	/*
+	 * Builds a write heavy mix where every operation creates an entity and deletes it again
+	 */
+	protected WeightedOperationMix buildChurnMix()
+	{
+		final byte[] certData;
+		try
+		{
+			certData = IOUtils.toByteArray(new ClassPathResource("certs/cert-a.der").getInputStream());
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException("Failed to load churn certificate: " + e.getMessage(), e);
+		}
+		
+		return new WeightedOperationMix()
+			.add("settingChurn", 1, i ->
+			{
+				settingsService.addSetting(SOAK_SETTING + i, "value" + i);
+				try
+				{
+					requireFound(settingsService.getSetting(SOAK_SETTING + i), "Setting", SOAK_SETTING + i);
+				}
+				finally
+				{
+					settingsService.deleteSetting(SOAK_SETTING + i);
+				}
+			})
+			.add("certificateChurn", 1, i ->
+			{
+				final String owner = String.format(Locale.US, SOAK_CERT_OWNER, i);
+				
+				final Certificate addCert = new Certificate();
+				addCert.setData(certData);
+				addCert.setOwner(owner);
+				addCert.setPrivateKey(false);
+				addCert.setStatus(EntityStatus.ENABLED);
+				
+				certService.addCertificate(addCert);
+				try
+				{
+					requireFound(certService.getCertificatesByOwner(owner), "Certificate", owner);
 				}
+				finally
+				{
+					certService.deleteCertificateByOwner(owner);
+				}
+			});
+	}
+	
+	/*
+	 * Parses a duration such as 90s, 30m, or 4h.  Minutes are assumed when there is no unit.
+	 */
+	protected long parseDuration(String duration)
+	{
+		final String value = duration.trim().toLowerCase(Locale.getDefault());
+		final char unit = value.isEmpty() ? ' ' : value.charAt(value.length() - 1);
+		
+		try
+		{
+			switch (unit)
+			{
+				case 's':
+					return TimeUnit.SECONDS.toMillis(Long.parseLong(value.substring(0, value.length() - 1)));
+				case 'm':
+					return TimeUnit.MINUTES.toMillis(Long.parseLong(value.substring(0, value.length() - 1)));
+				case 'h':
+					return TimeUnit.HOURS.toMillis(Long.parseLong(value.substring(0, value.length() - 1)));
+				default:
+					return TimeUnit.MINUTES.toMillis(Long.parseLong(value));
 			}
-			System.out.println("\t\tCompleted in " + (System.currentTimeMillis() - sequentialAnchorStartTime) + "ms." );
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException("Invalid duration " + duration + ".  Expected a number followed by s, m, or h");
+		}
+	}
+	
+	@Command(name = "ComparePerfResults", usage = COMPARE_PERF_RESULTS_USAGE)
+    public void comparePerfResults(String[] args)
+	{
+		final String baselineFile = StringArrayUtil.getRequiredValue(args, 0);
+		final String resultFile = StringArrayUtil.getRequiredValue(args, 1);
+		final double tolerance = Double.parseDouble(StringArrayUtil.getOptionalValue(args, 2, "10"));
+		final long minCount = Long.parseLong(StringArrayUtil.getOptionalValue(args, 3, "50"));
+		
+		final LoadTestReport baseline = readReport(baselineFile);
+		final LoadTestReport current = readReport(resultFile);
+		
+		if (!String.valueOf(baseline.getTestName()).equals(current.getTestName()))
+			throw new IllegalArgumentException("Cannot compare " + current.getTestName() + " results against a " + baseline.getTestName() + " baseline");
+		
+		if (!baseline.getParameters().equals(current.getParameters()))
+			System.out.println("Warning: the run parameters differ from the baseline.\r\n\tBaseline: " + baseline.getParameters() + 
+					"\r\n\tCurrent:  " + current.getParameters());
+		
+		final List<String> regressions = current.findRegressions(baseline, tolerance, minCount);
+		if (!regressions.isEmpty())
+		{
+			System.err.println(regressions.size() + " performance regression(s) beyond " + tolerance + "% tolerance:");
+			for (String regression : regressions)
+				System.err.println("\t" + regression);
 			
+			// the command framework reports exceptions without failing the run, so the failure is also recorded
+			// for ConfigManager to turn into a non-zero exit code
+			failureDetected = true;
+			throw new IllegalStateException(regressions.size() + " performance regression(s) detected against baseline " + baselineFile);
+		}
+		
+		System.out.println("No performance regressions beyond " + tolerance + "% tolerance against baseline " + baselineFile);
+	}
+	
+	/*
+	 * Gets the lookup dataset domain name for a domain index
+	 */
+	protected String lookupDomain(int domainIdx)
+	{
+		return String.format(Locale.US, LOOKUP_DOMAIN, domainIdx);
+	}
+	
+	/*
+	 * Gets the lookup dataset address for a domain and address index
+	 */
+	protected String lookupAddress(int domainIdx, int addressIdx)
+	{
+		return "user" + addressIdx + "@" + lookupDomain(domainIdx);
+	}
+	
+	/*
+	 * Builds the agent lookup mix.  Each lookup picks a random domain or address from the seeded dataset.
+	 */
+	protected WeightedOperationMix buildLookupMix(int domains, int addressesPerDomain, Map<String, Integer> weights)
+	{
+		for (String name : weights.keySet())
+		{
+			if (!Arrays.asList("certs", "anchors", "bundles", "dns", "policies").contains(name))
+				throw new IllegalArgumentException("Unknown lookup operation " + name);
+		}
+		
+		final WeightedOperationMix mix = new WeightedOperationMix();
+		
+		mix.add("getCertificatesByOwner", weightOf(weights, "certs"), i ->
+		{
+			final ThreadLocalRandom random = ThreadLocalRandom.current();
+			final String address = lookupAddress(random.nextInt(domains), random.nextInt(addressesPerDomain));
+			requireFound(certService.getCertificatesByOwner(address), "Certificate", address);
+		});
+		
+		mix.add("getAnchorsForOwner", weightOf(weights, "anchors"), i ->
+		{
+			final String domain = lookupDomain(ThreadLocalRandom.current().nextInt(domains));
+			requireFound(anchorService.getAnchorsForOwner(domain, true, true, null), "Anchor", domain);
+		});
+		
+		mix.add("getTrustBundlesByDomain", weightOf(weights, "bundles"), i ->
+		{
+			final String domain = lookupDomain(ThreadLocalRandom.current().nextInt(domains));
+			requireFound(bundleService.getTrustBundlesByDomain(domain, true), "Trust bundle for domain", domain);
+		});
+		
+		mix.add("getDNSRecord", weightOf(weights, "dns"), i ->
+		{
+			final String domain = lookupDomain(ThreadLocalRandom.current().nextInt(domains)) + ".";
+			requireFound(dnsService.getDNSRecord(Type.MX, domain), "MX record", domain);
+		});
+		
+		mix.add("getPolicyGroupsByDomain", weightOf(weights, "policies"), i ->
+		{
+			final String domain = lookupDomain(ThreadLocalRandom.current().nextInt(domains));
+			requireFound(certPolService.getPolicyGroupsByDomain(domain), "Policy group for domain", domain);
+		});
+		
+		if (mix.getEntries().isEmpty())
+			throw new IllegalArgumentException("At least one lookup operation must have a weight greater than 0");
+		
+		return mix;
+	}
+	
+	/*
+	 * Gets a lookup weight or 0 if the lookup is not part of the mix
+	 */
+	protected int weightOf(Map<String, Integer> weights, String name)
+	{
+		final Integer weight = weights.get(name);
+		return (weight == null) ? 0 : weight;
+	}
+	
+	/*
+	 * Seeds the domains, addresses, certificates, anchors, DNS records, bundle and policy group used by the lookup mix
+	 */
+	protected void seedLookupDataset(LoadRunner runner, int domains, int addressesPerDomain, List<PhaseResult> results) throws Exception
+	{
+		System.out.println("\r\nSeeding lookup dataset.");
+		
+		final byte[] certData = IOUtils.toByteArray(new ClassPathResource("certs/cert-a.der").getInputStream());
+		final int addresses = domains * addressesPerDomain;
+		
+		runPhase(runner, results, "Seeding domains", "addDomain", domains, i ->
+		{
+			final Address postmasterAddress = new Address();
+			postmasterAddress.setDomainName(lookupDomain(i));
+			postmasterAddress.setEmailAddress("postmaster@" + lookupDomain(i));
+			
+			final Domain newDomain = new Domain();
+			newDomain.setDomainName(lookupDomain(i));
+			newDomain.setPostmasterAddress(postmasterAddress);
+			newDomain.setStatus(EntityStatus.ENABLED);
 			
-			System.out.println("\tReading all anchors.");
+			domainService.addDomain(newDomain);
+		});
+		
+		runPhase(runner, results, "Seeding addresses", "addAddress", addresses, i ->
+		{
+			final Address address = new Address();
+			address.setDomainName(lookupDomain(i / addressesPerDomain));
+			address.setEmailAddress(lookupAddress(i / addressesPerDomain, i % addressesPerDomain));
+			address.setEndpoint(address.getEmailAddress());
+			address.setType("SMTP");
+			address.setStatus(EntityStatus.ENABLED);
 			
-			long readAnchorsStartTime = System.currentTimeMillis();
-			final Collection<Anchor> allAnchors = anchorService.getAnchors();
-			System.out.println("\t\tCompleted in " + (System.currentTimeMillis() - readAnchorsStartTime) + "ms." );
+			addressService.addAddress(address);
+		});
+		
+		runPhase(runner, results, "Seeding certificates", "addCertificate", addresses, i ->
+		{
+			final Certificate addCert = new Certificate();
+			addCert.setData(certData);
+			addCert.setOwner(lookupAddress(i / addressesPerDomain, i % addressesPerDomain));
+			addCert.setPrivateKey(false);
+			addCert.setStatus(EntityStatus.ENABLED);
 			
+			certService.addCertificate(addCert);
+		});
+		
+		runPhase(runner, results, "Seeding anchors", "addAnchor", domains, i ->
+		{
+			final Anchor newAnchor = new Anchor();
+			newAnchor.setCertificateData(certData);
+			newAnchor.setIncoming(true);
+			newAnchor.setOutgoing(true);
+			newAnchor.setStatus(EntityStatus.ENABLED);
+			newAnchor.setOwner(lookupDomain(i));
 			
-			System.out.println("\tDeleting new anchors.");
+			anchorService.addAnchor(newAnchor);
+		});
+		
+		final DNSRecordParser parser = new DNSRecordParser();
+		runPhase(runner, results, "Seeding MX records", "addDNSRecord", domains, i -> 
+			dnsService.addDNSRecord(DNSRecordCommands.fromRecord(parser.parseMX(new String[] {lookupDomain(i), 
+					"mail." + lookupDomain(i), "3600", "10"}))));
+		
+		runPhase(runner, results, "Seeding trust bundle", "addTrustBundle", 1, i ->
+		{
+			final TrustBundle newBundle = new TrustBundle();
+			newBundle.setBundleName(LOOKUP_BUNDLE);
+			newBundle.setBundleURL("https://bundles.directtrust.org/bundles/accreditedCommunity.p7b");
+			newBundle.setRefreshInterval(1440);
 			
-			long deleteAnchorsStartTime = System.currentTimeMillis();
+			bundleService.addTrustBundle(newBundle);
+		});
+		
+		runPhase(runner, results, "Associating trust bundle to domains", "associateTrustBundleToDomain", domains, i -> 
+			bundleService.associateTrustBundleToDomain(LOOKUP_BUNDLE, lookupDomain(i), true, true));
+		
+		runPhase(runner, results, "Seeding policy group", "addPolicyGroup", 1, i ->
+		{
+			final CertPolicyGroup group = new CertPolicyGroup();
+			group.setPolicyGroupName(LOOKUP_POLICY_GROUP);
 			
-			for (Anchor anchor : allAnchors)
+			certPolService.addPolicyGroup(group);
+		});
+		
+		runPhase(runner, results, "Associating policy group to domains", "associatePolicyGroupToDomain", domains, i -> 
+			certPolService.associatePolicyGroupToDomain(LOOKUP_POLICY_GROUP, lookupDomain(i)));
+	}
+	
+	/*
+	 * Removes everything created by seedLookupDataset
+	 */
+	protected void removeLookupDataset(LoadRunner runner, int domains, int addressesPerDomain, List<PhaseResult> results) throws Exception
+	{
+		System.out.println("\r\nRemoving lookup dataset.");
+		
+		final int addresses = domains * addressesPerDomain;
+		
+		runPhase(runner, results, "Removing policy group", "deletePolicyGroup", 1, i ->
+		{
+			certPolService.disassociatePolicyGroupFromDomains(LOOKUP_POLICY_GROUP);
+			certPolService.deletePolicyGroup(LOOKUP_POLICY_GROUP);
+		});
+		
+		runPhase(runner, results, "Removing trust bundle", "deleteTrustBundle", 1, i -> bundleService.deleteTrustBundle(LOOKUP_BUNDLE));
+		
+		runPhase(runner, results, "Removing MX records", "deleteDNSRecordsByIds", domains, i ->
+		{
+			final Collection<DNSRecord> records = dnsService.getDNSRecord(Type.MX, lookupDomain(i) + ".");
+			if (records != null && !records.isEmpty())
+			{
+				final List<Long> ids = new ArrayList<Long>();
+				for (DNSRecord record : records)
+					ids.add(record.getId());
+				
+				dnsService.deleteDNSRecordsByIds(ids);
+			}
+		});
+		
+		runPhase(runner, results, "Removing anchors", "deleteAnchorsByOwner", domains, i -> anchorService.deleteAnchorsByOwner(lookupDomain(i)));
+		
+		runPhase(runner, results, "Removing certificates", "deleteCertificateByOwner", addresses, i -> 
+			certService.deleteCertificateByOwner(lookupAddress(i / addressesPerDomain, i % addressesPerDomain)));
+		
+		runPhase(runner, results, "Removing addresses", "deleteAddress", addresses, i -> 
+			addressService.deleteAddress(lookupAddress(i / addressesPerDomain, i % addressesPerDomain)));
+		
+		runPhase(runner, results, "Removing domains", "deleteDomain", domains, i -> domainService.deleteDomain(lookupDomain(i)));
+	}
+	
+	/*
+	 * Creates, reads, and deletes anchors
+	 */
+	protected void runAnchorTests(LoadRunner runner, int operations, List<PhaseResult> results) throws Exception
+	{
+		System.out.println("\r\nRunning anchors tests.");
+		
+		final long anchorStartTime = System.currentTimeMillis();
+		
+		final Resource resource = new ClassPathResource("certs/cert-a.der");
+		final byte[] certAData = IOUtils.toByteArray(resource.getInputStream());
+		
+		runPhase(runner, results, "Creating anchors", "addAnchor", operations, i ->
+		{
+			final Anchor newAnchor = new Anchor();
+			newAnchor.setCertificateData(certAData);
+			newAnchor.setIncoming(true);
+			newAnchor.setOutgoing(true);
+			newAnchor.setStatus(EntityStatus.ENABLED);
+			newAnchor.setOwner(STRESS_TEST_OWNER + i);
+			
+			anchorService.addAnchor(newAnchor);
+		});
+		
+		final List<Anchor> allAnchors = new ArrayList<Anchor>();
+		runPhase(runner, results, "Reading all anchors", "getAnchors", 1, i -> allAnchors.addAll(anchorService.getAnchors()));
+		
+		final List<Anchor> stressAnchors = new ArrayList<Anchor>();
+		for (Anchor anchor : allAnchors)
+		{
+			if (anchor.getOwner().contains(STRESS_TEST_OWNER))
+				stressAnchors.add(anchor);
+		}
+		
+		runPhase(runner, results, "Deleting new anchors", "deleteAnchorsByIds", stressAnchors.size(), 
+				i -> anchorService.deleteAnchorsByIds(Arrays.asList(stressAnchors.get(i).getId())));
+		
+		System.out.println("Completed anchors tests in " + (System.currentTimeMillis() - anchorStartTime) + "ms");
+	}
+	
+	/*
+	 * Creates, reads, and deletes trust bundles
+	 */
+	protected void runTrustBundleTests(LoadRunner runner, int operations, List<PhaseResult> results, String bundleURL, 
+			long refreshTimeout) throws Exception
+	{
+		final long trustBundleStartTime = System.currentTimeMillis();
+		
+		System.out.println("\r\nRunning trust bundle tests.");
+		
+		LocalBundleServer localServer = null;
+		try
+		{
+			String url = bundleURL;
+			if (LOCAL_BUNDLE_URL.equalsIgnoreCase(bundleURL))
 			{
-				if (anchor.getOwner().contains("Stress Test"))
-					anchorService.deleteAnchorsByIds(Arrays.asList(anchor.getId()));
+				localServer = new LocalBundleServer(IOUtils.toByteArray(new ClassPathResource("certs/stress-bundle.p7b").getInputStream()));
+				url = localServer.getBundleURL();
+				System.out.println("\tServing stand-in trust bundle from " + url);
 			}
-			System.out.println("\t\tCompleted in " + (System.currentTimeMillis() - deleteAnchorsStartTime) + "ms." );
 			
-			System.out.println("Completed sequential anchors tests in " + (System.currentTimeMillis() - sequentialAnchorStartTime) + "ms");
+			final String downloadURL = url;
+			final Map<String, Long> createTimes = new ConcurrentHashMap<String, Long>();
+			runPhase(runner, results, "Creating trust bundles", "addTrustBundle", operations, i ->
+			{
+				final TrustBundle newBundle = new TrustBundle();
+				newBundle.setBundleName(STRESS_TEST_BUNDLE + i);
+				newBundle.setBundleURL(downloadURL);
+				newBundle.setRefreshInterval(1440);
+				
+				final long createTime = System.nanoTime();
+				bundleService.addTrustBundle(newBundle);
+				createTimes.put(newBundle.getBundleName(), createTime);
+			});
 			
+			runPhase(runner, results, "Reading all bundles without anchors", "getTrustBundles", 1, i -> bundleService.getTrustBundles(false));
 			
-			/*
-			 * Trust bundle tests 
-			 */
-			long sequentialTrustBundleStartTime = System.currentTimeMillis();
+			awaitBundleRefresh(runner, results, createTimes, refreshTimeout);
 			
-			System.out.println("\r\nRunning sequential trust bundle tests.");
+			final List<TrustBundle> allBundles = new ArrayList<TrustBundle>();
+			runPhase(runner, results, "Reading all bundles with anchors", "getTrustBundles", 1, i -> allBundles.addAll(bundleService.getTrustBundles(false)));
 			
-			System.out.println("\tCreating trust bundles.");
+			final List<TrustBundle> stressBundles = new ArrayList<TrustBundle>();
+			for (TrustBundle bundle : allBundles)
+			{
+				if (bundle.getBundleName().contains(STRESS_TEST_BUNDLE))
+					stressBundles.add(bundle);
+			}
 			
-			for (int i = 0; i < 100; ++i)
+			runPhase(runner, results, "Deleting new trust bundles", "deleteTrustBundle", stressBundles.size(), 
+					i -> bundleService.deleteTrustBundle(stressBundles.get(i).getBundleName()));
+		}
+		finally
+		{
+			if (localServer != null)
 			{
-				final TrustBundle newBundle = new TrustBundle();
-				newBundle.setBundleName("StressTestBundle" + i);
-				newBundle.setBundleURL("https://bundles.directtrust.org/bundles/accreditedCommunity.p7b");
-				newBundle.setRefreshInterval(1440);
+				System.out.println("\tStand-in trust bundle was downloaded " + localServer.getDownloads() + " time(s).");
+				localServer.close();
+			}
+		}
+		
+		System.out.println("Completed trust bundle tests in " + (System.currentTimeMillis() - trustBundleStartTime) + "ms");
+	}
+	
+	/*
+	 * Polls each created bundle until the service reports a successful refresh, a refresh error, or the timeout expires.
+	 * The time from creating a bundle until its refresh is observed is recorded as the bundleRefresh latency, so its
+	 * resolution is limited by the poll interval.
+	 */
+	protected void awaitBundleRefresh(LoadRunner runner, List<PhaseResult> results, Map<String, Long> createTimes, long timeoutMillis) throws Exception
+	{
+		final String phaseName = "Waiting for bundle refresh";
+		System.out.println("\t" + phaseName + " (up to " + TimeUnit.MILLISECONDS.toSeconds(timeoutMillis) + " seconds).");
+		
+		final PhaseResult result = new PhaseResult(phaseName);
+		final OperationStats refreshStats = result.getOperationStats("bundleRefresh");
+		final List<String> pending = new ArrayList<String>(createTimes.keySet());
+		
+		final long startTime = System.nanoTime();
+		final long deadline = startTime + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		long polls = 0;
+		while (!pending.isEmpty() && System.nanoTime() < deadline)
+		{
+			final List<String> polled = new ArrayList<String>(pending);
+			final Set<String> finished = ConcurrentHashMap.newKeySet();
+			
+			final PhaseResult pollResult = runner.runPhase(phaseName, "getTrustBundle", polled.size(), i ->
+			{
+				final String bundleName = polled.get(i);
+				final TrustBundle bundle = bundleService.getTrustBundle(bundleName);
+				final long latency = System.nanoTime() - createTimes.get(bundleName);
 				
-				try
+				if (bundle == null)
 				{
-					bundleService.addTrustBundle(newBundle);
+					refreshStats.recordError(new IllegalStateException("Trust bundle " + bundleName + " not found"), latency);
+					finished.add(bundleName);
 				}
-				catch (Exception e)
+				else if (bundle.getLastSuccessfulRefresh() != null)
 				{
-					System.err.println("\tError creating anchor for owner Stress Test" + i);
+					refreshStats.recordSuccess(latency);
+					finished.add(bundleName);
 				}
-			}
-			System.out.println("\t\tCompleted in " + (System.currentTimeMillis() - sequentialTrustBundleStartTime) + "ms." );
+				else if (bundle.getLastRefreshError() != null && bundle.getLastRefreshError() != BundleRefreshError.SUCCESS)
+				{
+					refreshStats.recordError(new IllegalStateException("Trust bundle " + bundleName + " refresh failed with " + 
+							bundle.getLastRefreshError()), latency);
+					finished.add(bundleName);
+				}
+			});
 			
-			System.out.println("\tReading all bundles without anchors.");
-			long readBundlesStartTime = System.currentTimeMillis();
-			bundleService.getTrustBundles(false);
-			System.out.println("\t\tCompleted in " + (System.currentTimeMillis() - readBundlesStartTime) + "ms." );
+			polls += pollResult.getCount();
+			pending.removeAll(finished);
 			
+			if (!pending.isEmpty())
+				Thread.sleep(BUNDLE_POLL_INTERVAL);
+		}
+		
+		result.complete(System.nanoTime() - startTime);
+		results.add(result);
+		
+		System.out.println("\t\tIssued " + polls + " getTrustBundle poll(s).");
+		printPhaseResult(result);
+		
+		if (!pending.isEmpty())
+			System.err.println("\t\t" + pending.size() + " trust bundle(s) still pending refresh at the deadline.");
+	}
+
+	/*
+	 * Parses the comma delimited suite list
+	 */
+	protected Collection<String> parseSuites(String suiteList)
+	{
+		final Collection<String> suites = new HashSet<String>();
+		for (String suite : suiteList.split(","))
+		{
+			final String trimmed = suite.trim().toLowerCase(Locale.getDefault());
+			if (trimmed.equals("all"))
+				suites.addAll(ALL_SUITES);
+			else if (ALL_SUITES.contains(trimmed))
+				suites.add(trimmed);
+			else
+				throw new IllegalArgumentException("Unknown test suite " + suite);
+		}
+		
+		return suites;
+	}
+	
+	/*
+	 * Gets the unique stress test domain name for an iteration
+	 */
+	protected String stressDomain(int iteration)
+	{
+		return String.format(Locale.US, STRESS_TEST_DOMAIN, iteration);
+	}
+	
+	/*
+	 * Creates and reads domains
+	 */
+	protected void runDomainCreateTests(LoadRunner runner, int operations, List<PhaseResult> results) throws Exception
+	{
+		System.out.println("\r\nRunning domain tests.");
+		
+		runPhase(runner, results, "Creating domains", "addDomain", operations, i ->
+		{
+			final String domainName = stressDomain(i);
 			
-			System.out.println("\tWaiting 30 seconds for bundles to download anchors.");
-			Thread.sleep(20000);
+			final Address postmasterAddress = new Address();
+			postmasterAddress.setDomainName(domainName);
+			postmasterAddress.setEmailAddress("postmaster@" + domainName);
 			
-			System.out.println("\tReading all bundles with anchors.");
-			readBundlesStartTime = System.currentTimeMillis();
-			final Collection<TrustBundle> allBundles = bundleService.getTrustBundles(false);
-			System.out.println("\t\tCompleted in " + (System.currentTimeMillis() - readBundlesStartTime) + "ms." );
+			final Domain newDomain = new Domain();
+			newDomain.setDomainName(domainName);
+			newDomain.setPostmasterAddress(postmasterAddress);
+			newDomain.setStatus(EntityStatus.ENABLED);
 			
+			domainService.addDomain(newDomain);
+		});
+		
+		runPhase(runner, results, "Reading domains", "getDomain", operations, i -> 
+			requireFound(domainService.getDomain(stressDomain(i)), "Domain", stressDomain(i)));
+		
+		runPhase(runner, results, "Searching all domains", "searchDomains", 1, i -> domainService.searchDomains("", null));
+	}
+	
+	/*
+	 * Deletes the stress test domains
+	 */
+	protected void runDomainDeleteTests(LoadRunner runner, int operations, List<PhaseResult> results) throws Exception
+	{
+		runPhase(runner, results, "Deleting domains", "deleteDomain", operations, i -> domainService.deleteDomain(stressDomain(i)));
+	}
+	
+	/*
+	 * Creates, reads, and deletes addresses within the stress test domains
+	 */
+	protected void runAddressTests(LoadRunner runner, int operations, List<PhaseResult> results) throws Exception
+	{
+		System.out.println("\r\nRunning address tests.");
+		
+		runPhase(runner, results, "Creating addresses", "addAddress", operations, i ->
+		{
+			final Address address = new Address();
+			address.setDomainName(stressDomain(i));
+			address.setEmailAddress("user@" + stressDomain(i));
+			address.setDisplayName("Stress Test User " + i);
+			address.setEndpoint("user@" + stressDomain(i));
+			address.setType("SMTP");
+			address.setStatus(EntityStatus.ENABLED);
 			
-			System.out.println("\tDeleting new trust bundles.");
+			addressService.addAddress(address);
+		});
+		
+		runPhase(runner, results, "Reading addresses", "getAddress", operations, i -> 
+			requireFound(addressService.getAddress("user@" + stressDomain(i)), "Address", "user@" + stressDomain(i)));
+		
+		runPhase(runner, results, "Reading addresses by domain", "getAddressesByDomain", operations, i -> 
+			addressService.getAddressesByDomain(stressDomain(i)));
+		
+		runPhase(runner, results, "Deleting addresses", "deleteAddress", operations, i -> 
+			addressService.deleteAddress("user@" + stressDomain(i)));
+	}
+	
+	/*
+	 * Creates, reads, and deletes public and private certificates
+	 */
+	protected void runCertificateTests(LoadRunner runner, int operations, List<PhaseResult> results) throws Exception
+	{
+		System.out.println("\r\nRunning certificate tests.");
+		
+		final byte[] publicCertData = IOUtils.toByteArray(new ClassPathResource("certs/cert-a.der").getInputStream());
+		final byte[] privateCertData = CertUtils.pkcs12ToStrippedPkcs12(
+				IOUtils.toByteArray(new ClassPathResource("certs/stress-private.p12").getInputStream()), PRIVATE_CERT_PASS);
+		
+		runCertificateTests(runner, operations, results, "public", publicCertData, false);
+		runCertificateTests(runner, operations, results, "private", privateCertData, true);
+	}
+	
+	/*
+	 * Runs the certificate life cycle for one type of certificate.  Each certificate gets a unique owner so that 
+	 * it can be looked up and removed by owner.
+	 */
+	protected void runCertificateTests(LoadRunner runner, int operations, List<PhaseResult> results, String certType,
+			byte[] certData, boolean privateKey) throws Exception
+	{
+		final String ownerPrefix = certType + ".";
+		
+		runPhase(runner, results, "Creating " + certType + " certificates", "addCertificate", operations, i ->
+		{
+			final Certificate addCert = new Certificate();
+			addCert.setData(certData);
+			addCert.setOwner(ownerPrefix + stressDomain(i));
+			addCert.setPrivateKey(privateKey);
+			addCert.setStatus(EntityStatus.ENABLED);
 			
-			long deleteBundlesStartTime = System.currentTimeMillis();
+			certService.addCertificate(addCert);
+		});
+		
+		runPhase(runner, results, "Reading " + certType + " certificates by owner", "getCertificatesByOwner", operations, i -> 
+			requireFound(certService.getCertificatesByOwner(ownerPrefix + stressDomain(i)), "Certificate", ownerPrefix + stressDomain(i)));
+		
+		runPhase(runner, results, "Deleting " + certType + " certificates", "deleteCertificateByOwner", operations, i -> 
+			certService.deleteCertificateByOwner(ownerPrefix + stressDomain(i)));
+	}
+	
+	/*
+	 * Creates, reads, and deletes DNS records of every type supported by the DNSRecordParser
+	 */
+	protected void runDNSTests(LoadRunner runner, int operations, List<PhaseResult> results) throws Exception
+	{
+		System.out.println("\r\nRunning DNS tests.");
+		
+		final DNSRecordParser parser = new DNSRecordParser();
+		final String ttl = "3600";
+		
+		runDNSTests(runner, operations, results, "A", i -> parser.parseANAME(new String[] {stressDomain(i), 
+				"10.0." + ((i / 256) % 256) + "." + (i % 256), ttl}));
+		runDNSTests(runner, operations, results, "SOA", i -> parser.parseSOA(new String[] {stressDomain(i), 
+				"ns1.perf.example", "hostmaster.perf.example", "1", ttl, "3600", "600", "604800", "3600"}));
+		runDNSTests(runner, operations, results, "MX", i -> parser.parseMX(new String[] {stressDomain(i), 
+				"mail." + stressDomain(i), ttl, "10"}));
+		runDNSTests(runner, operations, results, "NS", i -> parser.parseNS(new String[] {stressDomain(i), 
+				"ns1.perf.example", ttl}));
+		runDNSTests(runner, operations, results, "CNAME", i -> parser.parseCNAME(new String[] {"alias." + stressDomain(i), 
+				stressDomain(i), ttl}));
+		runDNSTests(runner, operations, results, "TXT", i -> parser.parseTXT(new String[] {stressDomain(i), 
+				"v=stresstest" + i, ttl}));
+		runDNSTests(runner, operations, results, "SRV", i -> parser.parseSRV(new String[] {"_ldap._tcp." + stressDomain(i), 
+				"ldap." + stressDomain(i), "389", "0", "0", ttl}));
+	}
+	
+	/*
+	 * Runs the DNS record life cycle for a single record type
+	 */
+	protected void runDNSTests(LoadRunner runner, int operations, List<PhaseResult> results, String typeName, 
+			IntFunction<Record> recordFactory) throws Exception
+	{
+		runPhase(runner, results, "Creating " + typeName + " records", "addDNSRecord", operations, i -> 
+			dnsService.addDNSRecord(DNSRecordCommands.fromRecord(recordFactory.apply(i))));
+		
+		// the reads collect the record ids needed by the delete phase
+		final Collection<Long> recordIds = new ConcurrentLinkedQueue<Long>();
+		runPhase(runner, results, "Reading " + typeName + " records", "getDNSRecord", operations, i ->
+		{
+			final Record rec = recordFactory.apply(i);
+			final Collection<DNSRecord> records = dnsService.getDNSRecord(rec.getType(), rec.getName().toString());
+			requireFound(records, typeName + " record", rec.getName().toString());
 			
-			for (TrustBundle bundle : allBundles)
-			{
-				if (bundle.getBundleName().contains("StressTestBundle"))
-					bundleService.deleteTrustBundle(bundle.getBundleName());
-			}
+			for (DNSRecord record : records)
+				recordIds.add(record.getId());
+		});
+		
+		final List<Long> deleteIds = new ArrayList<Long>(new LinkedHashSet<Long>(recordIds));
+		runPhase(runner, results, "Deleting " + typeName + " records", "deleteDNSRecordsByIds", deleteIds.size(), i -> 
+			dnsService.deleteDNSRecordsByIds(Arrays.asList(deleteIds.get(i))));
+	}
+	
+	/*
+	 * Creates, reads, updates, and deletes settings
+	 */
+	protected void runSettingTests(LoadRunner runner, int operations, List<PhaseResult> results) throws Exception
+	{
+		System.out.println("\r\nRunning setting tests.");
+		
+		runPhase(runner, results, "Creating settings", "addSetting", operations, i -> 
+			settingsService.addSetting(STRESS_TEST_SETTING + i, "value" + i));
+		
+		runPhase(runner, results, "Reading settings", "getSetting", operations, i -> 
+			requireFound(settingsService.getSetting(STRESS_TEST_SETTING + i), "Setting", STRESS_TEST_SETTING + i));
+		
+		runPhase(runner, results, "Reading all settings", "getSettings", 1, i -> settingsService.getSettings());
+		
+		runPhase(runner, results, "Updating settings", "updateSetting", operations, i -> 
+			settingsService.updateSetting(STRESS_TEST_SETTING + i, "updated" + i));
+		
+		runPhase(runner, results, "Deleting settings", "deleteSetting", operations, i -> 
+			settingsService.deleteSetting(STRESS_TEST_SETTING + i));
+	}
+	
+	/*
+	 * Creates, reads, associates, and deletes policies and policy groups.  Each policy group receives one policy
+	 * and is associated with one stress test domain.
+	 */
+	protected void runPolicyTests(LoadRunner runner, int operations, List<PhaseResult> results) throws Exception
+	{
+		System.out.println("\r\nRunning policy tests.");
+		
+		runPhase(runner, results, "Creating policies", "addPolicy", operations, i ->
+		{
+			final CertPolicy policy = new CertPolicy();
+			policy.setPolicyName(STRESS_TEST_POLICY + i);
+			policy.setLexicon(PolicyLexicon.SIMPLE_TEXT_V1);
+			policy.setPolicyData(STRESS_TEST_POLICY_DEF.getBytes(StandardCharsets.UTF_8));
 			
-			System.out.println("\t\tCompleted in " + (System.currentTimeMillis() - deleteBundlesStartTime) + "ms." );
+			certPolService.addPolicy(policy);
+		});
+		
+		runPhase(runner, results, "Reading policies", "getPolicyByName", operations, i -> 
+			requireFound(certPolService.getPolicyByName(STRESS_TEST_POLICY + i), "Policy", STRESS_TEST_POLICY + i));
+		
+		runPhase(runner, results, "Creating policy groups", "addPolicyGroup", operations, i ->
+		{
+			final CertPolicyGroup group = new CertPolicyGroup();
+			group.setPolicyGroupName(STRESS_TEST_POLICY_GROUP + i);
 			
-			System.out.println("Completed sequential anchors tests in " + (System.currentTimeMillis() - sequentialTrustBundleStartTime  - 30000) + "ms");
+			certPolService.addPolicyGroup(group);
+		});
+		
+		runPhase(runner, results, "Adding policies to groups", "addPolicyUseToGroup", operations, i ->
+			certPolService.addPolicyUseToGroup(STRESS_TEST_POLICY_GROUP + i, stressPolicyUse(i)));
+		
+		runPhase(runner, results, "Reading policy groups", "getPolicyGroup", operations, i -> 
+			requireFound(certPolService.getPolicyGroup(STRESS_TEST_POLICY_GROUP + i), "Policy group", STRESS_TEST_POLICY_GROUP + i));
+		
+		runPhase(runner, results, "Associating policy groups to domains", "associatePolicyGroupToDomain", operations, i -> 
+			certPolService.associatePolicyGroupToDomain(STRESS_TEST_POLICY_GROUP + i, stressDomain(i)));
+		
+		runPhase(runner, results, "Reading policy groups by domain", "getPolicyGroupsByDomain", operations, i -> 
+			requireFound(certPolService.getPolicyGroupsByDomain(stressDomain(i)), "Policy group for domain", stressDomain(i)));
+		
+		runPhase(runner, results, "Disassociating policy groups from domains", "disassociatePolicyGroupFromDomain", operations, i -> 
+			certPolService.disassociatePolicyGroupFromDomain(STRESS_TEST_POLICY_GROUP + i, stressDomain(i)));
+		
+		runPhase(runner, results, "Removing policies from groups", "removePolicyUseFromGroup", operations, i ->
+			certPolService.removePolicyUseFromGroup(STRESS_TEST_POLICY_GROUP + i, stressPolicyUse(i)));
+		
+		runPhase(runner, results, "Deleting policy groups", "deletePolicyGroup", operations, i -> 
+			certPolService.deletePolicyGroup(STRESS_TEST_POLICY_GROUP + i));
+		
+		runPhase(runner, results, "Deleting policies", "deletePolicy", operations, i -> 
+			certPolService.deletePolicy(STRESS_TEST_POLICY + i));
+	}
+	
+	/*
+	 * Creates the trust policy usage that links a stress test policy to its group
+	 */
+	protected CertPolicyGroupUse stressPolicyUse(int iteration)
+	{
+		final CertPolicy policy = new CertPolicy();
+		policy.setPolicyName(STRESS_TEST_POLICY + iteration);
+		
+		final CertPolicyGroupUse groupUse = new CertPolicyGroupUse();
+		groupUse.setIncoming(true);
+		groupUse.setOutgoing(true);
+		groupUse.setPolicyUse(CertPolicyUse.TRUST);
+		groupUse.setPolicy(policy);
+		
+		return groupUse;
+	}
+	
+	/*
+	 * Fails an operation if a lookup did not find the entity it was expected to find
+	 */
+	protected void requireFound(Object result, String entityType, String name)
+	{
+		if (result == null || (result instanceof Collection && ((Collection<?>)result).isEmpty()))
+			throw new IllegalStateException(entityType + " " + name + " not found");
+	}
+	
+	/*
+	 * Runs a single phase and prints its timing
+	 */
+	protected PhaseResult runPhase(LoadRunner runner, List<PhaseResult> results, String phaseName, String operation, 
+			int operations, LoadOperation op) throws InterruptedException
+	{
+		return runPhase(runner, results, phaseName, operations, WeightedOperationMix.of(operation, op));
+	}
+	
+	/*
+	 * Runs a single phase over a weighted operation mix and prints its timing
+	 */
+	protected PhaseResult runPhase(LoadRunner runner, List<PhaseResult> results, String phaseName, int operations, 
+			WeightedOperationMix mix) throws InterruptedException
+	{
+		System.out.println("\t" + phaseName + ".");
+		
+		final PhaseResult result = runner.runPhase(phaseName, operations, mix);
+		results.add(result);
+		
+		printPhaseResult(result);
+		
+		return result;
+	}
+	
+	/*
+	 * Prints the timing, latency percentiles, and errors of a completed phase
+	 */
+	protected void printPhaseResult(PhaseResult result)
+	{
+		System.out.println(String.format(Locale.US, "\t\tCompleted in %dms (%.1f ops/sec).", result.getElapsedMillis(), result.getThroughput()));
+		
+		for (OperationStats stats : result.getOperations())
+		{
+			if (stats.getCount() == 0)
+				continue;
 			
+			System.out.println(String.format(Locale.US, "\t\t%s latency ms: min=%.3f p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f max=%.3f", 
+					stats.getOperation(), stats.getMinLatencyMillis(), stats.getLatencyMillis(50), stats.getLatencyMillis(90), 
+					stats.getLatencyMillis(99), stats.getLatencyMillis(99.9), stats.getMaxLatencyMillis()));
 		}
-		catch (Exception e)
+		
+		for (OperationStats stats : result.getOperations())
 		{
-			e.printStackTrace();
+			if (stats.getErrors() > 0)
+				System.err.println("\t\t" + stats.getErrors() + " " + stats.getOperation() + " operation(s) failed.  First error: " + stats.getFirstError());
 		}
+	}
+	
+	/*
+	 * Writes the results of a run as a JSON report if a result file was requested.  The parameters are passed as
+	 * alternating names and values.  The report of an aborted run is marked incomplete so it fails any comparison.
+	 */
+	protected void writeReport(String resultFile, String testName, List<PhaseResult> results, boolean complete, Object... parameters)
+	{
+		if (resultFile.isEmpty())
+			return;
 		
-	}	
+		final Map<String, String> params = new LinkedHashMap<String, String>();
+		for (int i = 0; i < parameters.length - 1; i += 2)
+			params.put(String.valueOf(parameters[i]), String.valueOf(parameters[i + 1]));
+		
+		try
+		{
+			final LoadTestReport report = new LoadTestReport(testName, params, results);
+			report.setComplete(complete);
+			report.write(new File(resultFile));
+			System.out.println((complete ? "Results" : "Partial results of the aborted run") + " written to " + resultFile);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException("Failed to write results to " + resultFile + ": " + e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Determines if a load test aborted or a ComparePerfResults command detected a performance regression.
+	 * @return True if a run aborted or a regression was detected.  False otherwise.
+	 */
+	public boolean isFailureDetected()
+	{
+		return failureDetected;
+	}
+	
+	/*
+	 * Reads a JSON report written by writeReport
+	 */
+	protected LoadTestReport readReport(String file)
+	{
+		try
+		{
+			return LoadTestReport.read(new File(file));
+		}
+		catch (IOException e)
+		{
+			throw new IllegalArgumentException("Failed to read results from " + file + ": " + e.getMessage(), e);
+		}
+	}
+	
+	/*
+	 * Prints per phase throughput for the entire run
+	 */
+	protected void printSummary(List<PhaseResult> results)
+	{
+		if (results.isEmpty())
+			return;
+		
+		final List<OperationStats> allStats = new ArrayList<OperationStats>();
+		for (PhaseResult result : results)
+			allStats.addAll(result.getOperations());
+		
+		System.out.println("\r\nStress Test Summary");
+		statsPrinter.printRecords(allStats);
+	}
 }
@@ -0,0 +1,389 @@
+package org.nhindirect.config.manager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.nhindirect.common.tooling.Command;
+import org.nhindirect.common.tooling.Commands;
+import org.nhindirect.common.tooling.StringArrayUtil;
+
+/**
+ * Runs files of commands in this process.  Unlike the sequential batch command, commands that do not depend on each
+ * other run concurrently.
+ * <p>
+ * Two commands are treated as dependent if they share an argument, ignoring case and plain numbers.  The domain of an
+ * email address argument is treated as an argument as well, so address and postmaster changes stay ordered with the
+ * changes of their domain.  Dependent commands run in file order.  Commands without arguments, such as listings, wait
+ * for all earlier commands, and all later commands wait for them.
+ * <p>
+ * The output of each command is collected while it runs and printed as one block when it completes, so output of
+ * concurrent commands is not interleaved.  A command fails if it throws, writes to standard error, or does not exist.
+ *
+ * @since 8.0.1
+ */
+public class ScriptCommands
+{
+	private static final String RUN_SCRIPT_USAGE = "Runs the commands in a file, running commands that do not depend on each other concurrently." +
+			"\r\n  filepath [workers]" +
+			"\r\n\t filepath: The file with the commands.  Each command is on its own line.  Comments begin with //." +
+			"\r\n\t workers: Optional number of commands that run at the same time.  Defaults to 8.  Use 1 to run the commands in file order." +
+			"\r\n\r\n  Commands that share an argument (for example a domain name, a DNS name, or the domain of an email address) run in file order." +
+			"\r\n  Commands without arguments wait for all earlier commands, and all later commands wait for them.";
+
+	protected static final int DEFAULT_WORKERS = 8;
+
+	protected final Commands commands;
+
+	protected volatile boolean failureDetected;
+
+	ScriptCommands(Commands commands)
+	{
+		this.commands = commands;
+	}
+
+	/*
+	 * A command line of the script
+	 */
+	protected static class ScriptLine
+	{
+		protected final int lineNumber;
+
+		protected final String text;
+
+		protected final String[] args;
+
+		protected boolean success;
+
+		protected long elapsedMillis;
+
+		public ScriptLine(int lineNumber, String text, String[] args)
+		{
+			this.lineNumber = lineNumber;
+			this.text = text;
+			this.args = args;
+		}
+	}
+
+	@Command(name = "RunScript", usage = RUN_SCRIPT_USAGE)
+	public void runScript(String[] args)
+	{
+		final File file = new File(StringArrayUtil.getRequiredValue(args, 0));
+		final int workers = Integer.parseInt(StringArrayUtil.getOptionalValue(args, 1, String.valueOf(DEFAULT_WORKERS)));
+		if (workers < 1)
+			throw new IllegalArgumentException("workers must be at least 1");
+
+		final List<ScriptLine> lines;
+		try
+		{
+			lines = readScript(file);
+		}
+		catch (IOException e)
+		{
+			System.err.println("Failed to read script " + file.getAbsolutePath() + ": " + e.getMessage());
+			failureDetected = true;
+			return;
+		}
+
+		final PrintStream console = System.out;
+		final PrintStream errorConsole = System.err;
+		final LineOutputRouter router = new LineOutputRouter();
+		final ExecutorService executor = Executors.newFixedThreadPool(workers, runnable ->
+		{
+			final Thread thread = new Thread(runnable, "run-script");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		final long start = System.nanoTime();
+		final AtomicInteger completed = new AtomicInteger();
+		System.setOut(new PrintStream(router.stream(console, false), true));
+		System.setErr(new PrintStream(router.stream(errorConsole, true), true));
+		try
+		{
+			final List<CompletableFuture<Void>> tasks = new ArrayList<>(lines.size());
+			final List<CompletableFuture<Void>> sinceBarrier = new ArrayList<>();
+			final Map<String, CompletableFuture<Void>> lastByEntity = new HashMap<>();
+			CompletableFuture<Void> barrier = CompletableFuture.completedFuture(null);
+
+			for (ScriptLine line : lines)
+			{
+				final Set<String> entities = entityKeys(line.args);
+				final List<CompletableFuture<Void>> predecessors = new ArrayList<>();
+				predecessors.add(barrier);
+				if (entities.isEmpty())
+					predecessors.addAll(sinceBarrier);
+				else
+				{
+					for (String entity : entities)
+					{
+						final CompletableFuture<Void> last = lastByEntity.get(entity);
+						if (last != null)
+							predecessors.add(last);
+					}
+				}
+
+				final CompletableFuture<Void> task = CompletableFuture.allOf(predecessors.toArray(new CompletableFuture<?>[predecessors.size()]))
+						.thenRunAsync(() -> runLine(line, router, console, completed, lines.size()), executor);
+				tasks.add(task);
+
+				if (entities.isEmpty())
+				{
+					barrier = task;
+					sinceBarrier.clear();
+					lastByEntity.clear();
+				}
+				else
+				{
+					sinceBarrier.add(task);
+					for (String entity : entities)
+						lastByEntity.put(entity, task);
+				}
+			}
+
+			CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[tasks.size()])).join();
+		}
+		finally
+		{
+			System.setOut(console);
+			System.setErr(errorConsole);
+			executor.shutdown();
+		}
+
+		printSummary(lines, (System.nanoTime() - start) / 1000000);
+	}
+
+	/**
+	 * Indicates if a command of a script failed.
+	 * @return True if a command failed.  False otherwise.
+	 */
+	public boolean isFailureDetected()
+	{
+		return failureDetected;
+	}
+
+	/*
+	 * Reads the command lines, skipping blank lines and comments like the batch command
+	 */
+	protected List<ScriptLine> readScript(File file) throws IOException
+	{
+		if (!file.exists())
+			throw new IOException("File not found");
+
+		final List<ScriptLine> lines = new ArrayList<>();
+		int lineNumber = 0;
+		for (String text : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8))
+		{
+			++lineNumber;
+			final String trimmed = text.trim();
+			if (trimmed.isEmpty() || trimmed.startsWith("//"))
+				continue;
+
+			lines.add(new ScriptLine(lineNumber, trimmed, parseCommandLine(trimmed)));
+		}
+
+		return lines;
+	}
+
+	/*
+	 * Splits a line into arguments to find the command and its entities.  Double quotes group words with spaces.  The
+	 * command itself is run from the line text, so it is parsed exactly like in the console.
+	 */
+	protected static String[] parseCommandLine(String line)
+	{
+		final List<String> args = new ArrayList<>();
+		final StringBuilder current = new StringBuilder();
+		boolean quoted = false;
+		boolean inArg = false;
+		for (char c : line.toCharArray())
+		{
+			if (c == '"')
+			{
+				quoted = !quoted;
+				inArg = true;
+			}
+			else if (Character.isWhitespace(c) && !quoted)
+			{
+				if (inArg)
+					args.add(current.toString());
+				current.setLength(0);
+				inArg = false;
+			}
+			else
+			{
+				current.append(c);
+				inArg = true;
+			}
+		}
+		if (inArg)
+			args.add(current.toString());
+
+		return args.toArray(new String[args.size()]);
+	}
+
+	/*
+	 * Gets the entities a command touches from its arguments.  The command name is not an entity.
+	 */
+	protected static Set<String> entityKeys(String[] args)
+	{
+		final Set<String> keys = new LinkedHashSet<>();
+		for (int i = 1; i < args.length; ++i)
+		{
+			String key = args[i].trim().toLowerCase(Locale.ENGLISH);
+			if (key.endsWith("."))
+				key = key.substring(0, key.length() - 1);
+			if (key.isEmpty() || key.matches("-?\\d+") || key.equals("true") || key.equals("false"))
+				continue;
+
+			keys.add(key);
+			final int at = key.lastIndexOf('@');
+			if (at >= 0 && at < key.length() - 1)
+				keys.add(key.substring(at + 1));
+		}
+
+		return keys;
+	}
+
+	/*
+	 * Runs one command with its output collected and prints the result block
+	 */
+	protected void runLine(ScriptLine line, LineOutputRouter router, PrintStream console, AtomicInteger completed, int total)
+	{
+		final LineOutput output = router.begin();
+		final long start = System.nanoTime();
+		try
+		{
+			if (commands.getCommand(line.args[0]) == null)
+			{
+				System.err.println(line.args[0] + " not found.");
+				line.success = false;
+			}
+			else
+				line.success = commands.run(line.text);
+		}
+		catch (RuntimeException e)
+		{
+			System.err.println(e.getMessage());
+			line.success = false;
+		}
+		finally
+		{
+			router.end();
+		}
+
+		line.elapsedMillis = (System.nanoTime() - start) / 1000000;
+		line.success = line.success && !output.errors;
+		if (!line.success)
+			failureDetected = true;
+
+		synchronized (console)
+		{
+			console.println(String.format("[%d/%d] line %d %s (%d ms): %s", completed.incrementAndGet(), total, line.lineNumber,
+					line.success ? "OK" : "FAILED", line.elapsedMillis, line.text));
+			if (output.text.size() > 0)
+			{
+				console.write(output.text.toByteArray(), 0, output.text.size());
+				console.println();
+			}
+			console.flush();
+		}
+	}
+
+	protected void printSummary(List<ScriptLine> lines, long elapsedMillis)
+	{
+		final List<ScriptLine> failed = new ArrayList<>();
+		for (ScriptLine line : lines)
+			if (!line.success)
+				failed.add(line);
+
+		System.out.println();
+		System.out.println(String.format("Ran %d commands in %.1f s: %d succeeded, %d failed", lines.size(), elapsedMillis / 1000.0,
+				lines.size() - failed.size(), failed.size()));
+		for (ScriptLine line : failed)
+			System.out.println(String.format("  FAILED line %d: %s", line.lineNumber, line.text));
+	}
+
+	/*
+	 * The collected output of the command that runs on a worker thread
+	 */
+	protected static class LineOutput
+	{
+		protected final ByteArrayOutputStream text = new ByteArrayOutputStream();
+
+		protected volatile boolean errors;
+	}
+
+	/*
+	 * Sends System.out and System.err writes of worker threads to the output of their command.  Other threads write
+	 * to the original streams.
+	 */
+	protected static class LineOutputRouter
+	{
+		protected final ThreadLocal<LineOutput> current = new ThreadLocal<>();
+
+		public LineOutput begin()
+		{
+			final LineOutput output = new LineOutput();
+			current.set(output);
+			return output;
+		}
+
+		public void end()
+		{
+			System.out.flush();
+			System.err.flush();
+			current.remove();
+		}
+
+		public OutputStream stream(PrintStream original, boolean errorStream)
+		{
+			return new OutputStream()
+			{
+				@Override
+				public void write(int b)
+				{
+					write(new byte[] {(byte)b}, 0, 1);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len)
+				{
+					final LineOutput output = current.get();
+					if (output == null)
+					{
+						original.write(b, off, len);
+						return;
+					}
+
+					synchronized (output)
+					{
+						output.text.write(b, off, len);
+					}
+					if (errorStream && len > 0)
+						output.errors = true;
+				}
+
+				@Override
+				public void flush()
+				{
+					original.flush();
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package org.nhindirect.config.manager;
+
+import java.util.Arrays;
+
+import org.nhind.config.rest.AddressService;
+import org.nhind.config.rest.AnchorService;
+import org.nhind.config.rest.CertPolicyService;
+import org.nhind.config.rest.CertificateService;
+import org.nhind.config.rest.DNSService;
+import org.nhind.config.rest.DomainService;
+import org.nhind.config.rest.SettingService;
+import org.nhind.config.rest.TrustBundleService;
+import org.nhind.config.rest.feign.AddressClient;
+import org.nhind.config.rest.feign.AnchorClient;
+import org.nhind.config.rest.feign.CertificateClient;
+import org.nhind.config.rest.feign.CertificatePolicyClient;
+import org.nhind.config.rest.feign.DNSClient;
+import org.nhind.config.rest.feign.DomainClient;
+import org.nhind.config.rest.feign.SettingClient;
+import org.nhind.config.rest.feign.TrustBundleClient;
+import org.nhindirect.config.manager.feign.StreamingConfigServiceClient;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Training run for a class data sharing (AppCDS) archive of the manager.  Starts the manager in fast-start mode
+ * against the in-memory stand-in services, runs commands of every command class, and builds every Feign client, so
+ * the classes a short command loads are recorded in the archive.  No configuration service is needed.  Run by the
+ * appcds build profile with -XX:ArchiveClassesAtExit.
+ *
+ * @since 8.0.1
+ */
+public class StartupTraining
+{
+	protected static final String[] START_ARGS = {ConfigManager.FAST_START_ARG, "--spring.profiles.active=standin"};
+	
+	protected static final String[][] TRAINING_COMMANDS = 
+	{
+		{"AddDomain", "training.example", "postmaster@training.example"},
+		{"GetDomain", "training.example"},
+		{"ListDomains"},
+		{"ListAddressesByDomain", "training.example"},
+		{"AddSetting", "TrainingSetting", "TrainingValue"},
+		{"ListSettings"},
+		{"DeleteSetting", "TrainingSetting"},
+		{"Dns_MX_Add", "training.example", "mail.training.example", "3600", "10"},
+		{"Dns_TXT_Add", "training.example", "training", "3600"},
+		{"Dns_Get_All"},
+		{"Dns_Match", "training"},
+		{"ListCerts"},
+		{"ListCertsByAddress", "postmaster@training.example"},
+		{"ListAnchors"},
+		{"AddPolicyGroup", "TrainingGroup"},
+		{"ListPolicyGroups"},
+		{"ListPolicies"},
+		{"ListDomainPolicyGroups", "training.example"},
+		{"DeletePolicyGroup", "TrainingGroup"},
+		{"ListTrustBundles"},
+		{"ListDomainBundles", "training.example"},
+		{"DeleteDomain", "training.example"}
+	};
+	
+	protected static final Class<?>[] TRAINING_BEANS = 
+	{
+		AddressClient.class, AnchorClient.class, CertificateClient.class, CertificatePolicyClient.class, DNSClient.class, 
+		DomainClient.class, SettingClient.class, TrustBundleClient.class, StreamingConfigServiceClient.class,
+		AddressService.class, AnchorService.class, CertificateService.class, CertPolicyService.class, DNSService.class,
+		DomainService.class, SettingService.class, TrustBundleService.class
+	};
+	
+	public static void main(String[] args)
+	{
+		ConfigManager.setExitOnEndCommands(false);
+		
+		// the first command runs as part of startup, just like a one-shot invocation
+		final String[] firstRun = concat(START_ARGS, TRAINING_COMMANDS[0]);
+		try (ConfigurableApplicationContext context = ConfigManager.applicationBuilder(firstRun).run(firstRun))
+		{
+			final ConfigManager manager = context.getBean(ConfigManager.class);
+			for (int i = 1; i < TRAINING_COMMANDS.length; ++i)
+				manager.runApp(TRAINING_COMMANDS[i]);
+			
+			// the stand-ins replace the Feign backed services, so the clients are built explicitly
+			for (Class<?> beanType : TRAINING_BEANS)
+				context.getBeansOfType(beanType);
+		}
+		
+		System.out.println("Startup training complete.");
+	}
+	
+	protected static String[] concat(String[] first, String[] second)
+	{
+		final String[] retVal = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, retVal, first.length, second.length);
+		
+		return retVal;
+	}
+}
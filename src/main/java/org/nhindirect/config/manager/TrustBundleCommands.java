@@ -4,6 +4,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -11,6 +12,9 @@ import org.nhind.config.rest.DomainService;
 import org.nhind.config.rest.TrustBundleService;
 import org.nhindirect.common.tooling.Command;
 import org.nhindirect.common.tooling.StringArrayUtil;
+import org.nhindirect.config.manager.async.AsyncService;
+import org.nhindirect.config.manager.feign.CloseableIterator;
+import org.nhindirect.config.manager.feign.StreamingConfigServiceClient;
 import org.nhindirect.config.manager.printers.BundleAnchorRecordPrinter;
 import org.nhindirect.config.manager.printers.TrustBundleRecordPrinter;
 import org.nhindirect.config.model.Certificate;
@@ -73,12 +77,54 @@ public class TrustBundleCommands
 	
 	protected BundleAnchorRecordPrinter anchorPrinter;
 	
+	protected StreamingConfigServiceClient streamingClient;
+	
+	protected AsyncService<TrustBundleService> asyncBundleService;
+	
+	protected AsyncService<DomainService> asyncDomainService;
+	
 	public TrustBundleCommands(TrustBundleService bundleService, DomainService domainService)
+	{
+		this(bundleService, domainService, null);
+	}
+	
+	/**
+	 * Constructor with a streaming client.  Listing commands print bundles as they are received.
+	 * @param bundleService The trust bundle service.
+	 * @param domainService The domain service.
+	 * @param streamingClient The streaming client.  If null, listings are fully read before they are printed.
+	 * 
+	 * @since 8.0.1
+	 */
+	public TrustBundleCommands(TrustBundleService bundleService, DomainService domainService, StreamingConfigServiceClient streamingClient)
+	{
+		this(bundleService, domainService, streamingClient, null, null);
+	}
+	
+	/**
+	 * Constructor with a streaming client and asynchronous facades.  Independent lookups of a command run concurrently.
+	 * @param bundleService The trust bundle service.
+	 * @param domainService The domain service.
+	 * @param streamingClient The streaming client.  If null, listings are fully read before they are printed.
+	 * @param asyncBundleService Asynchronous facade of the trust bundle service.  If null, lookups run one after another.
+	 * @param asyncDomainService Asynchronous facade of the domain service.  If null, lookups run one after another.
+	 * 
+	 * @since 8.0.1
+	 */
+	public TrustBundleCommands(TrustBundleService bundleService, DomainService domainService, StreamingConfigServiceClient streamingClient,
+			AsyncService<TrustBundleService> asyncBundleService, AsyncService<DomainService> asyncDomainService)
 	{
 		this.bundleService = bundleService;
 		
 		this.domainService = domainService;
 		
+		this.streamingClient = streamingClient;
+		
+		// without an executor the facades run each call on the calling thread
+		this.asyncBundleService = (asyncBundleService != null) ? asyncBundleService : new AsyncService<>(bundleService, Runnable::run);
+		
+		this.asyncDomainService = (asyncDomainService != null) ? asyncDomainService : new AsyncService<>(domainService, Runnable::run);
+		
 		this.bundlePrinter = new TrustBundleRecordPrinter();
 		
 		this.anchorPrinter = new BundleAnchorRecordPrinter();
@@ -181,6 +227,16 @@ public class TrustBundleCommands
 	{
 		try
 		{
+			if (streamingClient != null)
+			{
+				try (CloseableIterator<TrustBundle> bundles = streamingClient.streamTrustBundles(false))
+				{
+					if (bundlePrinter.printRecords(bundles) == 0)
+						System.out.println("No bundles found");
+				}
+				return;
+			}
+			
 			final Collection<TrustBundle> bundles = bundleService.getTrustBundles(false);
 			
 			if (bundles == null || bundles.size() == 0)
@@ -298,7 +354,13 @@ public class TrustBundleCommands
 		
 		try
 		{
-			final TrustBundle bundle = bundleService.getTrustBundle(bundleName);
+			// the lookups are independent, so they are issued together and checked in order
+			final CompletableFuture<TrustBundle> bundleLookup = asyncBundleService.submit(s -> s.getTrustBundle(bundleName));
+			final CompletableFuture<Domain> domainLookup = asyncDomainService.submit(s -> s.getDomain(domainName));
+			final CompletableFuture<Collection<TrustBundleDomainReltn>> reltnLookup = 
+					asyncBundleService.submit(s -> s.getTrustBundlesByDomain(domainName, false));
+			
+			final TrustBundle bundle = AsyncService.await(bundleLookup);
 			
 			if (bundle == null)
 			{
@@ -306,7 +368,7 @@ public class TrustBundleCommands
 				return;
 			}
 			
-			final Domain domain = domainService.getDomain(domainName);
+			final Domain domain = AsyncService.await(domainLookup);
 			
 			if (domain == null)
 			{
@@ -315,7 +377,7 @@ public class TrustBundleCommands
 			}
 			
 			// make sure there isn't already an association
-			final Collection<TrustBundleDomainReltn> reltns = bundleService.getTrustBundlesByDomain(domainName, false);
+			final Collection<TrustBundleDomainReltn> reltns = AsyncService.await(reltnLookup);
 			if (reltns != null && reltns.size() > 0)
 			{
 				for (TrustBundleDomainReltn reltn : reltns) 
@@ -0,0 +1,112 @@
+package org.nhindirect.config.manager.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import org.nhindirect.common.rest.exceptions.ServiceException;
+
+/**
+ * Asynchronous facade of a blocking config service.  Calls are submitted to a shared, bounded executor and return
+ * a {@link CompletableFuture}, so independent calls can run concurrently and a command waits only as long as its
+ * slowest call.  For example:
+ * <pre>
+ * final CompletableFuture&lt;TrustBundle&gt; bundle = asyncBundleService.submit(s -&gt; s.getTrustBundle(bundleName));
+ * final CompletableFuture&lt;Domain&gt; domain = asyncDomainService.submit(s -&gt; s.getDomain(domainName));
+ * </pre>
+ * Futures of failed calls complete exceptionally with the {@link ServiceException} or runtime exception thrown by
+ * the service.
+ *
+ * @param <S> The service type.
+ *
+ * @since 8.0.1
+ */
+public class AsyncService<S>
+{
+	protected final S service;
+
+	protected final Executor executor;
+
+	/**
+	 * Constructor.
+	 * @param service The blocking service.
+	 * @param executor The executor that runs the calls.
+	 */
+	public AsyncService(S service, Executor executor)
+	{
+		this.service = service;
+		this.executor = executor;
+	}
+
+	/**
+	 * Submits a call to the service.
+	 * @param call The call.
+	 * @return A future of the call's result.
+	 */
+	public <T> CompletableFuture<T> submit(ServiceCall<S, T> call)
+	{
+		final CompletableFuture<T> retVal = new CompletableFuture<>();
+		try
+		{
+			executor.execute(() ->
+			{
+				try
+				{
+					retVal.complete(call.call(service));
+				}
+				catch (Throwable e)
+				{
+					retVal.completeExceptionally(e);
+				}
+			});
+		}
+		catch (RuntimeException e)
+		{
+			// rejected by a saturated or shut down executor
+			retVal.completeExceptionally(e);
+		}
+
+		return retVal;
+	}
+
+	/**
+	 * Gets the blocking service.
+	 * @return The blocking service.
+	 */
+	public S getService()
+	{
+		return service;
+	}
+
+	/**
+	 * Waits for the result of a call and rethrows the exception of a failed call as is.
+	 * @param future The future of the call.
+	 * @return The result of the call.
+	 * @throws ServiceException Thrown if the call failed or the wait was interrupted.
+	 */
+	public static <T> T await(Future<T> future) throws ServiceException
+	{
+		try
+		{
+			return future.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new ServiceException("Interrupted while waiting for the config service", e);
+		}
+		catch (ExecutionException | CompletionException e)
+		{
+			final Throwable cause = e.getCause();
+			if (cause instanceof ServiceException)
+				throw (ServiceException)cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException)cause;
+			if (cause instanceof Error)
+				throw (Error)cause;
+			throw new ServiceException(cause);
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package org.nhindirect.config.manager.async;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.nhind.config.rest.AddressService;
+import org.nhind.config.rest.AnchorService;
+import org.nhind.config.rest.CertPolicyService;
+import org.nhind.config.rest.CertificateService;
+import org.nhind.config.rest.DNSService;
+import org.nhind.config.rest.DomainService;
+import org.nhind.config.rest.SettingService;
+import org.nhind.config.rest.TrustBundleService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Asynchronous facades of the eight config services.  All facades share one executor.  With platform threads the
+ * executor runs at most direct.config.service.async.maxThreads calls at once, which also bounds the number of
+ * connections the facades use.  With virtual threads every call gets its own thread and concurrency is bounded
+ * by the HTTP connection pool.  Executor threads are named config-async-N.
+ *
+ * @since 8.0.1
+ */
+@Configuration
+public class AsyncServiceConfig
+{
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService configServiceExecutor(@Value("${direct.config.service.async.threadingMode:platform}") String threadingMode,
+			@Value("${direct.config.service.async.maxThreads:32}") int maxThreads)
+	{
+		final String mode = threadingMode.toLowerCase(Locale.ENGLISH);
+		if (!mode.equals("platform") && !mode.equals("virtual"))
+			throw new IllegalArgumentException("Invalid threading mode " + threadingMode + ".  Valid values are platform or virtual");
+		
+		if (mode.equals("virtual"))
+		{
+			final ExecutorService executor = newVirtualThreadExecutor();
+			// falls back to platform threads on runtimes without virtual threads
+			if (executor != null)
+				return executor;
+		}
+		
+		return Executors.newFixedThreadPool(maxThreads, new ConfigServiceThreadFactory());
+	}
+	
+	/*
+	 * The project targets Java 8, so the named virtual thread executor is created reflectively.  Returns null if the
+	 * runtime does not support virtual threads.
+	 */
+	protected static ExecutorService newVirtualThreadExecutor()
+	{
+		final Object builder;
+		try
+		{
+			builder = Thread.class.getMethod("ofVirtual").invoke(null);
+		}
+		catch (Exception e)
+		{
+			return null;
+		}
+		
+		try
+		{
+			final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			final Object namedBuilder = builderClass.getMethod("name", String.class, long.class).invoke(builder, ConfigServiceThreadFactory.NAME_PREFIX, 1L);
+			final ThreadFactory factory = (ThreadFactory)builderClass.getMethod("factory").invoke(namedBuilder);
+			final Method newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService)newExecutor.invoke(null, factory);
+		}
+		catch (Exception e)
+		{
+			throw new IllegalStateException("Failed to create virtual thread executor: " + e.getMessage(), e);
+		}
+	}
+	
+	/*
+	 * Creates named daemon threads so pending calls do not hold the JVM open
+	 */
+	protected static class ConfigServiceThreadFactory implements ThreadFactory
+	{
+		protected static final String NAME_PREFIX = "config-async-";
+		
+		protected final AtomicInteger threadCount = new AtomicInteger();
+		
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			final Thread thread = new Thread(r, NAME_PREFIX + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+	
+	@Bean
+	public AsyncService<CertificateService> asyncCertificateService(CertificateService certService, 
+			@Qualifier("configServiceExecutor") ExecutorService executor)
+	{
+		return new AsyncService<>(certService, executor);
+	}
+	
+	@Bean
+	public AsyncService<TrustBundleService> asyncTrustBundleService(TrustBundleService bundleService, 
+			@Qualifier("configServiceExecutor") ExecutorService executor)
+	{
+		return new AsyncService<>(bundleService, executor);
+	}
+	
+	@Bean
+	public AsyncService<DomainService> asyncDomainService(DomainService domainService, 
+			@Qualifier("configServiceExecutor") ExecutorService executor)
+	{
+		return new AsyncService<>(domainService, executor);
+	}
+	
+	@Bean
+	public AsyncService<AnchorService> asyncAnchorService(AnchorService anchorService, 
+			@Qualifier("configServiceExecutor") ExecutorService executor)
+	{
+		return new AsyncService<>(anchorService, executor);
+	}
+	
+	@Bean
+	public AsyncService<CertPolicyService> asyncCertPolicyService(CertPolicyService certPolicyService, 
+			@Qualifier("configServiceExecutor") ExecutorService executor)
+	{
+		return new AsyncService<>(certPolicyService, executor);
+	}
+	
+	@Bean
+	public AsyncService<SettingService> asyncSettingService(SettingService settingService, 
+			@Qualifier("configServiceExecutor") ExecutorService executor)
+	{
+		return new AsyncService<>(settingService, executor);
+	}
+	
+	@Bean
+	public AsyncService<DNSService> asyncDNSService(DNSService dnsService, 
+			@Qualifier("configServiceExecutor") ExecutorService executor)
+	{
+		return new AsyncService<>(dnsService, executor);
+	}
+	
+	@Bean
+	public AsyncService<AddressService> asyncAddressService(AddressService addressService, 
+			@Qualifier("configServiceExecutor") ExecutorService executor)
+	{
+		return new AsyncService<>(addressService, executor);
+	}
+}
@@ -0,0 +1,17 @@
+package org.nhindirect.config.manager.async;
+
+import org.nhindirect.common.rest.exceptions.ServiceException;
+
+/**
+ * A call to one of the blocking config service facades.
+ *
+ * @param <S> The service type.
+ * @param <T> The result type.
+ *
+ * @since 8.0.1
+ */
+@FunctionalInterface
+public interface ServiceCall<S, T>
+{
+	public T call(S service) throws ServiceException;
+}
@@ -0,0 +1,137 @@
+package org.nhindirect.config.manager.cache;
+
+import java.util.Collection;
+
+import org.nhind.config.rest.CertPolicyService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.model.CertPolicy;
+import org.nhindirect.config.model.CertPolicyGroup;
+import org.nhindirect.config.model.CertPolicyGroupDomainReltn;
+import org.nhindirect.config.model.CertPolicyGroupUse;
+
+/**
+ * Read-through caching decorator of the certificate policy service.  Policies, policy groups, and their domain
+ * associations share one cache because writes to any of them change the others.
+ *
+ * @since 8.0.1
+ */
+public class CachingCertPolicyService implements CertPolicyService
+{
+	protected final CertPolicyService delegate;
+
+	protected final ServiceCache cache;
+
+	public CachingCertPolicyService(CertPolicyService delegate, ServiceCache cache)
+	{
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public Collection<CertPolicy> getPolicies() throws ServiceException
+	{
+		return cache.getCollection(ServiceCache.key("getPolicies"), () -> delegate.getPolicies());
+	}
+
+	@Override
+	public CertPolicy getPolicyByName(String policyName) throws ServiceException
+	{
+		return cache.get(ServiceCache.key("getPolicyByName", policyName), () -> delegate.getPolicyByName(policyName));
+	}
+
+	@Override
+	public void addPolicy(CertPolicy policy) throws ServiceException
+	{
+		cache.write(() -> delegate.addPolicy(policy));
+	}
+
+	@Override
+	public void deletePolicy(String policyName) throws ServiceException
+	{
+		cache.write(() -> delegate.deletePolicy(policyName));
+	}
+
+	@Override
+	public void updatePolicy(String policyName, CertPolicy policyAttributes) throws ServiceException
+	{
+		cache.write(() -> delegate.updatePolicy(policyName, policyAttributes));
+	}
+
+	@Override
+	public Collection<CertPolicyGroup> getPolicyGroups() throws ServiceException
+	{
+		return cache.getCollection(ServiceCache.key("getPolicyGroups"), () -> delegate.getPolicyGroups());
+	}
+
+	@Override
+	public CertPolicyGroup getPolicyGroup(String groupName) throws ServiceException
+	{
+		return cache.get(ServiceCache.key("getPolicyGroup", groupName), () -> delegate.getPolicyGroup(groupName));
+	}
+
+	@Override
+	public void addPolicyGroup(CertPolicyGroup group) throws ServiceException
+	{
+		cache.write(() -> delegate.addPolicyGroup(group));
+	}
+
+	@Override
+	public void deletePolicyGroup(String groupName) throws ServiceException
+	{
+		cache.write(() -> delegate.deletePolicyGroup(groupName));
+	}
+
+	@Override
+	public void updatePolicyGroup(String groupName, String newGroupName) throws ServiceException
+	{
+		cache.write(() -> delegate.updatePolicyGroup(groupName, newGroupName));
+	}
+
+	@Override
+	public void addPolicyUseToGroup(String groupName, CertPolicyGroupUse use) throws ServiceException
+	{
+		cache.write(() -> delegate.addPolicyUseToGroup(groupName, use));
+	}
+
+	@Override
+	public void removePolicyUseFromGroup(String groupName, CertPolicyGroupUse use) throws ServiceException
+	{
+		cache.write(() -> delegate.removePolicyUseFromGroup(groupName, use));
+	}
+
+	@Override
+	public Collection<CertPolicyGroupDomainReltn> getPolicyGroupDomainReltns() throws ServiceException
+	{
+		return cache.getCollection(ServiceCache.key("getPolicyGroupDomainReltns"), () -> delegate.getPolicyGroupDomainReltns());
+	}
+
+	@Override
+	public Collection<CertPolicyGroup> getPolicyGroupsByDomain(String domainName) throws ServiceException
+	{
+		return cache.getCollection(ServiceCache.key("getPolicyGroupsByDomain", domainName), () -> delegate.getPolicyGroupsByDomain(domainName));
+	}
+
+	@Override
+	public void associatePolicyGroupToDomain(String groupName, String domainName) throws ServiceException
+	{
+		cache.write(() -> delegate.associatePolicyGroupToDomain(groupName, domainName));
+	}
+
+	@Override
+	public void disassociatePolicyGroupFromDomain(String groupName, String domainName) throws ServiceException
+	{
+		cache.write(() -> delegate.disassociatePolicyGroupFromDomain(groupName, domainName));
+	}
+
+	@Override
+	public void disassociatePolicyGroupsFromDomain(String domainName) throws ServiceException
+	{
+		cache.write(() -> delegate.disassociatePolicyGroupsFromDomain(domainName));
+	}
+
+	@Override
+	public void disassociatePolicyGroupFromDomains(String groupName) throws ServiceException
+	{
+		cache.write(() -> delegate.disassociatePolicyGroupFromDomains(groupName));
+	}
+}
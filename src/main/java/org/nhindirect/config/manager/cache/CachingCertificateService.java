@@ -0,0 +1,62 @@
+package org.nhindirect.config.manager.cache;
+
+import java.util.Collection;
+
+import org.nhind.config.rest.CertificateService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.model.Certificate;
+
+/**
+ * Read-through caching decorator of the certificate service.
+ *
+ * @since 8.0.1
+ */
+public class CachingCertificateService implements CertificateService
+{
+	protected final CertificateService delegate;
+
+	protected final ServiceCache cache;
+
+	public CachingCertificateService(CertificateService delegate, ServiceCache cache)
+	{
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public Collection<Certificate> getAllCertificates() throws ServiceException
+	{
+		return cache.getCollection(ServiceCache.key("getAllCertificates"), () -> delegate.getAllCertificates());
+	}
+
+	@Override
+	public Collection<Certificate> getCertificatesByOwner(String owner) throws ServiceException
+	{
+		return cache.getCollection(ServiceCache.key("getCertificatesByOwner", owner), () -> delegate.getCertificatesByOwner(owner));
+	}
+
+	@Override
+	public Certificate getCertificatesByOwnerAndThumbprint(String owner, String thumbprint) throws ServiceException
+	{
+		return cache.get(ServiceCache.key("getCertificatesByOwnerAndThumbprint", owner, thumbprint), 
+				() -> delegate.getCertificatesByOwnerAndThumbprint(owner, thumbprint));
+	}
+
+	@Override
+	public void addCertificate(Certificate cert) throws ServiceException
+	{
+		cache.write(() -> delegate.addCertificate(cert));
+	}
+
+	@Override
+	public void deleteCertificatesByIds(Collection<Long> ids) throws ServiceException
+	{
+		cache.write(() -> delegate.deleteCertificatesByIds(ids));
+	}
+
+	@Override
+	public void deleteCertificateByOwner(String owner) throws ServiceException
+	{
+		cache.write(() -> delegate.deleteCertificateByOwner(owner));
+	}
+}
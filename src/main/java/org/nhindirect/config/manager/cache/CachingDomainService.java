@@ -0,0 +1,66 @@
+package org.nhindirect.config.manager.cache;
+
+import java.util.Collection;
+
+import org.nhind.config.rest.DomainService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.model.Domain;
+import org.nhindirect.config.model.EntityStatus;
+
+/**
+ * Read-through caching decorator of the domain service.  Domain writes also invalidate the caches of entities that
+ * are associated to domains, such as trust bundle and policy group associations.
+ *
+ * @since 8.0.1
+ */
+public class CachingDomainService implements DomainService
+{
+	protected final DomainService delegate;
+
+	protected final ServiceCache cache;
+
+	protected final ServiceCache[] associatedCaches;
+
+	/**
+	 * Constructor.
+	 * @param delegate The service that is cached.
+	 * @param cache The domain cache.
+	 * @param associatedCaches Caches that hold domain associations.
+	 */
+	public CachingDomainService(DomainService delegate, ServiceCache cache, ServiceCache... associatedCaches)
+	{
+		this.delegate = delegate;
+		this.cache = cache;
+		this.associatedCaches = associatedCaches;
+	}
+
+	@Override
+	public Domain getDomain(String domainName) throws ServiceException
+	{
+		return cache.get(ServiceCache.key("getDomain", domainName), () -> delegate.getDomain(domainName));
+	}
+
+	@Override
+	public Collection<Domain> searchDomains(String domainName, EntityStatus status) throws ServiceException
+	{
+		return cache.getCollection(ServiceCache.key("searchDomains", domainName, status), () -> delegate.searchDomains(domainName, status));
+	}
+
+	@Override
+	public void addDomain(Domain domain) throws ServiceException
+	{
+		cache.write(() -> delegate.addDomain(domain), associatedCaches);
+	}
+
+	@Override
+	public void updateDomain(Domain domain) throws ServiceException
+	{
+		cache.write(() -> delegate.updateDomain(domain), associatedCaches);
+	}
+
+	@Override
+	public void deleteDomain(String domainName) throws ServiceException
+	{
+		cache.write(() -> delegate.deleteDomain(domainName), associatedCaches);
+	}
+}
@@ -0,0 +1,123 @@
+package org.nhindirect.config.manager.cache;
+
+import org.nhind.config.rest.CertPolicyService;
+import org.nhind.config.rest.CertificateService;
+import org.nhind.config.rest.DomainService;
+import org.nhind.config.rest.SettingService;
+import org.nhind.config.rest.TrustBundleService;
+import org.nhind.config.rest.feign.CertificateClient;
+import org.nhind.config.rest.feign.CertificatePolicyClient;
+import org.nhind.config.rest.feign.DomainClient;
+import org.nhind.config.rest.feign.SettingClient;
+import org.nhind.config.rest.feign.TrustBundleClient;
+import org.nhind.config.rest.impl.DefaultCertPolicyService;
+import org.nhind.config.rest.impl.DefaultCertificateService;
+import org.nhind.config.rest.impl.DefaultDomainService;
+import org.nhind.config.rest.impl.DefaultSettingService;
+import org.nhind.config.rest.impl.DefaultTrustBundleService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wraps the domain, trust bundle, policy, certificate, and setting services in read-through caches when
+ * direct.config.service.cache.enabled is true, and coalesces concurrent identical reads of these services when
+ * direct.config.service.coalesce.enabled is true.  The service beans use the same names as the defaults in
+ * ConfigServiceClientConfig and replace them.  Other providers of these services, such as the stand-ins of the standin
+ * profile, wrap their services with the ServiceCacheDecorator bean so the caches apply to them as well.
+ * <p>
+ * Domain writes also invalidate the trust bundle and policy caches because those hold domain associations.
+ *
+ * @since 8.0.1
+ */
+@Configuration
+@ConditionalOnExpression("${direct.config.service.cache.enabled:false} or ${direct.config.service.coalesce.enabled:false}")
+public class CachingServiceConfig
+{
+	@Value("${direct.config.service.cache.enabled:false}")
+	protected boolean cacheEnabled;
+	
+	@Value("${direct.config.service.cache.maxEntries:1000}")
+	protected int maxEntries;
+	
+	@Value("${direct.config.service.coalesce.enabled:false}")
+	protected boolean coalesceEnabled;
+	
+	@Bean
+	public ServiceCache domainCache(@Value("${direct.config.service.cache.domainTtlMillis:30000}") long ttlMillis)
+	{
+		return createCache("domain", ttlMillis);
+	}
+	
+	@Bean
+	public ServiceCache trustBundleCache(@Value("${direct.config.service.cache.trustBundleTtlMillis:30000}") long ttlMillis)
+	{
+		return createCache("trustBundle", ttlMillis);
+	}
+	
+	@Bean
+	public ServiceCache certPolicyCache(@Value("${direct.config.service.cache.certPolicyTtlMillis:30000}") long ttlMillis)
+	{
+		return createCache("certPolicy", ttlMillis);
+	}
+	
+	@Bean
+	public ServiceCache certificateCache(@Value("${direct.config.service.cache.certificateTtlMillis:10000}") long ttlMillis)
+	{
+		return createCache("certificate", ttlMillis);
+	}
+	
+	@Bean
+	public ServiceCache settingCache(@Value("${direct.config.service.cache.settingTtlMillis:60000}") long ttlMillis)
+	{
+		return createCache("setting", ttlMillis);
+	}
+	
+	@Bean
+	public ServiceCacheDecorator serviceCacheDecorator(@Qualifier("domainCache") ServiceCache domainCache, @Qualifier("trustBundleCache") ServiceCache trustBundleCache,
+			@Qualifier("certPolicyCache") ServiceCache certPolicyCache, @Qualifier("certificateCache") ServiceCache certificateCache, 
+			@Qualifier("settingCache") ServiceCache settingCache)
+	{
+		return new ServiceCacheDecorator(domainCache, trustBundleCache, certPolicyCache, certificateCache, settingCache);
+	}
+	
+	@Bean
+	public DomainService domainService(DomainClient domainClient, ServiceCacheDecorator decorator)
+	{
+		return decorator.decorate(new DefaultDomainService(domainClient));
+	}
+	
+	@Bean
+	public TrustBundleService trustBundleService(TrustBundleClient bundleClient, ServiceCacheDecorator decorator)
+	{
+		return decorator.decorate(new DefaultTrustBundleService(bundleClient));
+	}
+	
+	@Bean
+	public CertPolicyService certPolicyService(CertificatePolicyClient polClient, ServiceCacheDecorator decorator)
+	{
+		return decorator.decorate(new DefaultCertPolicyService(polClient));
+	}
+	
+	@Bean
+	public CertificateService certificateService(CertificateClient certClient, ServiceCacheDecorator decorator)
+	{
+		return decorator.decorate(new DefaultCertificateService(certClient));
+	}
+	
+	@Bean
+	public SettingService settingService(SettingClient settingClient, ServiceCacheDecorator decorator)
+	{
+		return decorator.decorate(new DefaultSettingService(settingClient));
+	}
+	
+	/*
+	 * A zero time to live turns the cache into a pass through that only coalesces
+	 */
+	protected ServiceCache createCache(String name, long ttlMillis)
+	{
+		return new ServiceCache(name, cacheEnabled ? ttlMillis : 0, maxEntries, coalesceEnabled ? new SingleFlight() : null);
+	}
+}
@@ -0,0 +1,55 @@
+package org.nhindirect.config.manager.cache;
+
+import java.util.Collection;
+
+import org.nhind.config.rest.SettingService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.model.Setting;
+
+/**
+ * Read-through caching decorator of the setting service.
+ *
+ * @since 8.0.1
+ */
+public class CachingSettingService implements SettingService
+{
+	protected final SettingService delegate;
+
+	protected final ServiceCache cache;
+
+	public CachingSettingService(SettingService delegate, ServiceCache cache)
+	{
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public Collection<Setting> getSettings() throws ServiceException
+	{
+		return cache.getCollection(ServiceCache.key("getSettings"), () -> delegate.getSettings());
+	}
+
+	@Override
+	public Setting getSetting(String name) throws ServiceException
+	{
+		return cache.get(ServiceCache.key("getSetting", name), () -> delegate.getSetting(name));
+	}
+
+	@Override
+	public void addSetting(String name, String value) throws ServiceException
+	{
+		cache.write(() -> delegate.addSetting(name, value));
+	}
+
+	@Override
+	public void updateSetting(String name, String value) throws ServiceException
+	{
+		cache.write(() -> delegate.updateSetting(name, value));
+	}
+
+	@Override
+	public void deleteSetting(String name) throws ServiceException
+	{
+		cache.write(() -> delegate.deleteSetting(name));
+	}
+}
@@ -0,0 +1,107 @@
+package org.nhindirect.config.manager.cache;
+
+import java.security.cert.X509Certificate;
+import java.util.Collection;
+
+import org.nhind.config.rest.TrustBundleService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.model.TrustBundle;
+import org.nhindirect.config.model.TrustBundleDomainReltn;
+
+/**
+ * Read-through caching decorator of the trust bundle service.  Bundles and their domain associations share one cache.
+ *
+ * @since 8.0.1
+ */
+public class CachingTrustBundleService implements TrustBundleService
+{
+	protected final TrustBundleService delegate;
+
+	protected final ServiceCache cache;
+
+	public CachingTrustBundleService(TrustBundleService delegate, ServiceCache cache)
+	{
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	@Override
+	public Collection<TrustBundle> getTrustBundles(boolean fetchAnchors) throws ServiceException
+	{
+		return cache.getCollection(ServiceCache.key("getTrustBundles", fetchAnchors), () -> delegate.getTrustBundles(fetchAnchors));
+	}
+
+	@Override
+	public Collection<TrustBundleDomainReltn> getTrustBundlesByDomain(String domainName, boolean fetchAnchors) throws ServiceException
+	{
+		return cache.getCollection(ServiceCache.key("getTrustBundlesByDomain", domainName, fetchAnchors), 
+				() -> delegate.getTrustBundlesByDomain(domainName, fetchAnchors));
+	}
+
+	@Override
+	public Collection<TrustBundleDomainReltn> getAllTrustBundleDomainReltns(boolean fetchAnchors) throws ServiceException
+	{
+		return cache.getCollection(ServiceCache.key("getAllTrustBundleDomainReltns", fetchAnchors), 
+				() -> delegate.getAllTrustBundleDomainReltns(fetchAnchors));
+	}
+
+	@Override
+	public TrustBundle getTrustBundle(String bundleName) throws ServiceException
+	{
+		return cache.get(ServiceCache.key("getTrustBundle", bundleName), () -> delegate.getTrustBundle(bundleName));
+	}
+
+	@Override
+	public void addTrustBundle(TrustBundle bundle) throws ServiceException
+	{
+		cache.write(() -> delegate.addTrustBundle(bundle));
+	}
+
+	@Override
+	public void refreshTrustBundle(String bundleName) throws ServiceException
+	{
+		cache.write(() -> delegate.refreshTrustBundle(bundleName));
+	}
+
+	@Override
+	public void deleteTrustBundle(String bundleName) throws ServiceException
+	{
+		cache.write(() -> delegate.deleteTrustBundle(bundleName));
+	}
+
+	@Override
+	public void updateSigningCert(String bundleName, X509Certificate signingCert) throws ServiceException
+	{
+		cache.write(() -> delegate.updateSigningCert(bundleName, signingCert));
+	}
+
+	@Override
+	public void updateTrustBundleAttributes(String bundleName, TrustBundle bundleData) throws ServiceException
+	{
+		cache.write(() -> delegate.updateTrustBundleAttributes(bundleName, bundleData));
+	}
+
+	@Override
+	public void associateTrustBundleToDomain(String bundleName, String domainName, boolean incoming, boolean outgoing) throws ServiceException
+	{
+		cache.write(() -> delegate.associateTrustBundleToDomain(bundleName, domainName, incoming, outgoing));
+	}
+
+	@Override
+	public void disassociateTrustBundleFromDomain(String bundleName, String domainName) throws ServiceException
+	{
+		cache.write(() -> delegate.disassociateTrustBundleFromDomain(bundleName, domainName));
+	}
+
+	@Override
+	public void disassociateTrustBundlesFromDomain(String domainName) throws ServiceException
+	{
+		cache.write(() -> delegate.disassociateTrustBundlesFromDomain(domainName));
+	}
+
+	@Override
+	public void disassociateTrustBundleFromDomains(String bundleName) throws ServiceException
+	{
+		cache.write(() -> delegate.disassociateTrustBundleFromDomains(bundleName));
+	}
+}
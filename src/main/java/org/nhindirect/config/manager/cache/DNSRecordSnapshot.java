@@ -0,0 +1,250 @@
+package org.nhindirect.config.manager.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.nhind.config.rest.DNSService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.manager.feign.CloseableIterator;
+import org.nhindirect.config.manager.feign.StreamingConfigServiceClient;
+import org.nhindirect.config.model.DNSRecord;
+import org.xbill.DNS.Type;
+
+/**
+ * An indexed in-memory copy of all DNS records, shared by the commands of a session.  The whole store is downloaded
+ * on first use and again once the snapshot is older than its time to live.  DNS writes made through the manager
+ * invalidate the snapshot, so only changes made by others can be up to the time to live old.
+ * <p>
+ * Records are indexed in a trie of reversed name labels (com, example, www) and by name and type.  Exact and suffix
+ * lookups walk the trie instead of scanning every record.  Regular expressions are matched against the distinct
+ * record names rather than every record.
+ *
+ * @since 8.0.1
+ */
+public class DNSRecordSnapshot
+{
+	protected final DNSService dnsService;
+
+	protected final StreamingConfigServiceClient streamingClient;
+
+	protected final long ttlNanos;
+
+	protected volatile Index index;
+
+	/*
+	 * A node of the label trie.  The records of a node are those of the name formed by the labels on the path to it.
+	 */
+	protected static class Node
+	{
+		protected final Map<String, Node> children = new TreeMap<String, Node>();
+
+		protected Map<Integer, List<DNSRecord>> recordsByType;
+	}
+
+	/*
+	 * An immutable index of one download of the store
+	 */
+	protected static class Index
+	{
+		protected final Node root = new Node();
+
+		protected final Map<String, Node> nodesByName = new HashMap<String, Node>();
+
+		protected final Map<String, List<DNSRecord>> recordsByRawName = new LinkedHashMap<String, List<DNSRecord>>();
+
+		protected final long loadedAt = System.nanoTime();
+
+		protected int recordCount;
+
+		protected void add(DNSRecord record)
+		{
+			final String name = normalize(record.getName());
+			Node node = nodesByName.get(name);
+			if (node == null)
+			{
+				node = root;
+				final String[] labels = name.split("\\.");
+				for (int i = labels.length - 1; i >= 0; --i)
+					if (!labels[i].isEmpty())
+						node = node.children.computeIfAbsent(labels[i], label -> new Node());
+				nodesByName.put(name, node);
+			}
+			if (node.recordsByType == null)
+				node.recordsByType = new TreeMap<Integer, List<DNSRecord>>();
+
+			node.recordsByType.computeIfAbsent(record.getType(), type -> new ArrayList<DNSRecord>(1)).add(record);
+			recordsByRawName.computeIfAbsent(record.getName(), rawName -> new ArrayList<DNSRecord>(1)).add(record);
+			++recordCount;
+		}
+	}
+
+	/**
+	 * Constructor.
+	 * @param dnsService The DNS service.
+	 * @param streamingClient Client that downloads the records one at a time.  If null, the DNS service is used.
+	 * @param ttlMillis The time to live of a snapshot.  Zero or less downloads the store for every lookup.
+	 */
+	public DNSRecordSnapshot(DNSService dnsService, StreamingConfigServiceClient streamingClient, long ttlMillis)
+	{
+		this.dnsService = dnsService;
+		this.streamingClient = streamingClient;
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+	}
+
+	/**
+	 * Gets the records of a name.
+	 * @param name The name, with or without the trailing dot.  Case is ignored.
+	 * @param type The record type, or Type.ANY for all types.
+	 * @return The records.  Empty if there are none.
+	 * @throws ServiceException Thrown if the snapshot cannot be loaded.
+	 */
+	public Collection<DNSRecord> getRecords(String name, int type) throws ServiceException
+	{
+		final Node node = current().nodesByName.get(normalize(name));
+		final List<DNSRecord> retVal = new ArrayList<DNSRecord>();
+		if (node != null)
+			collect(node, type, retVal);
+
+		return retVal;
+	}
+
+	/**
+	 * Gets the records of a name and all names below it.
+	 * @param suffix The name, with or without the trailing dot.  Case is ignored.
+	 * @param includeSuffix Indicates if the records of the name itself are included.
+	 * @return The records in canonical name order.  Empty if there are none.
+	 * @throws ServiceException Thrown if the snapshot cannot be loaded.
+	 */
+	public Collection<DNSRecord> getRecordsUnder(String suffix, boolean includeSuffix) throws ServiceException
+	{
+		Node node = current().root;
+		final String[] labels = normalize(suffix).split("\\.");
+		for (int i = labels.length - 1; i >= 0 && node != null; --i)
+			if (!labels[i].isEmpty())
+				node = node.children.get(labels[i]);
+
+		final List<DNSRecord> retVal = new ArrayList<DNSRecord>();
+		if (node != null)
+		{
+			if (includeSuffix)
+				collect(node, Type.ANY, retVal);
+			for (Node child : node.children.values())
+				collectTree(child, retVal);
+		}
+
+		return retVal;
+	}
+
+	/**
+	 * Gets the records whose name contains a match of a regular expression.
+	 * @param pattern The regular expression.  Matched against the names as stored, like Matcher.find.
+	 * @return The records.  Empty if there are none.
+	 * @throws ServiceException Thrown if the snapshot cannot be loaded.
+	 */
+	public Collection<DNSRecord> match(Pattern pattern) throws ServiceException
+	{
+		final List<DNSRecord> retVal = new ArrayList<DNSRecord>();
+		for (Map.Entry<String, List<DNSRecord>> name : current().recordsByRawName.entrySet())
+			if (pattern.matcher(name.getKey()).find())
+				retVal.addAll(name.getValue());
+
+		return retVal;
+	}
+
+	/**
+	 * Discards the snapshot.  The next lookup downloads the store again.
+	 */
+	public void invalidate()
+	{
+		index = null;
+	}
+
+	/**
+	 * Gets the number of records in the snapshot.
+	 * @return The number of records, or zero if the snapshot is not loaded.
+	 */
+	public int size()
+	{
+		final Index current = index;
+
+		return (current == null) ? 0 : current.recordCount;
+	}
+
+	/*
+	 * Gets the current index, loading the store if there is none or it has expired
+	 */
+	protected Index current() throws ServiceException
+	{
+		Index current = index;
+		if (current != null && System.nanoTime() - current.loadedAt < ttlNanos)
+			return current;
+
+		synchronized (this)
+		{
+			current = index;
+			if (current != null && System.nanoTime() - current.loadedAt < ttlNanos)
+				return current;
+
+			current = load();
+			index = current;
+			return current;
+		}
+	}
+
+	protected Index load() throws ServiceException
+	{
+		final Index retVal = new Index();
+		if (streamingClient != null)
+		{
+			try (CloseableIterator<DNSRecord> records = streamingClient.streamDNSRecords(Type.ANY, ""))
+			{
+				while (records.hasNext())
+					retVal.add(records.next());
+			}
+			return retVal;
+		}
+
+		final Collection<DNSRecord> records = dnsService.getDNSRecord(Type.ANY, "");
+		for (DNSRecord record : (records == null) ? Collections.<DNSRecord>emptyList() : records)
+			retVal.add(record);
+
+		return retVal;
+	}
+
+	protected static void collect(Node node, int type, List<DNSRecord> records)
+	{
+		if (node.recordsByType == null)
+			return;
+
+		if (type == Type.ANY)
+		{
+			for (List<DNSRecord> typeRecords : node.recordsByType.values())
+				records.addAll(typeRecords);
+		}
+		else if (node.recordsByType.containsKey(type))
+			records.addAll(node.recordsByType.get(type));
+	}
+
+	protected static void collectTree(Node node, List<DNSRecord> records)
+	{
+		collect(node, Type.ANY, records);
+		for (Node child : node.children.values())
+			collectTree(child, records);
+	}
+
+	protected static String normalize(String name)
+	{
+		final String retVal = name.trim().toLowerCase(Locale.ENGLISH);
+
+		return retVal.endsWith(".") ? retVal : retVal + ".";
+	}
+}
@@ -0,0 +1,24 @@
+package org.nhindirect.config.manager.cache;
+
+import org.nhind.config.rest.DNSService;
+import org.nhindirect.config.manager.feign.StreamingConfigServiceClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The DNS record snapshot used by the Dns_Match command.  Its time to live is set with
+ * direct.config.service.cache.dnsSnapshotTtlMillis and applies whether or not the service caches are enabled.
+ *
+ * @since 8.0.1
+ */
+@Configuration
+public class DNSSnapshotConfig
+{
+	@Bean
+	public DNSRecordSnapshot dnsRecordSnapshot(DNSService dnsService, StreamingConfigServiceClient streamingClient,
+			@Value("${direct.config.service.cache.dnsSnapshotTtlMillis:30000}") long ttlMillis)
+	{
+		return new DNSRecordSnapshot(dnsService, streamingClient, ttlMillis);
+	}
+}
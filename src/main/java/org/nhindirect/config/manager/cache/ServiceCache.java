@@ -0,0 +1,252 @@
+package org.nhindirect.config.manager.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.nhindirect.common.rest.exceptions.ServiceException;
+
+/**
+ * A size bounded, read-through cache of config service responses for one kind of entity.  Entries expire after a
+ * fixed time to live, and the least recently used entries are evicted once the cache is full.  Results that were
+ * not found (null) are cached as well, so repeated existence checks do not reach the service.
+ * <p>
+ * Concurrent identical loads can be coalesced into one service call with a {@link SingleFlight}.  Coalescing also
+ * applies when caching is disabled.
+ * <p>
+ * Writes through the caching services invalidate the whole cache of the affected entity kind.  A load that started
+ * before an invalidation does not populate the cache, so a concurrent read cannot reinsert stale data.
+ *
+ * @since 8.0.1
+ */
+public class ServiceCache
+{
+	protected final String name;
+
+	protected final long ttlNanos;
+
+	protected final int maxEntries;
+
+	protected final Map<String, CacheEntry> entries;
+
+	protected final SingleFlight flights;
+
+	protected final AtomicLong hits = new AtomicLong();
+
+	protected final AtomicLong misses = new AtomicLong();
+
+	protected long generation;
+
+	/**
+	 * Loads a value from the config service on a cache miss.
+	 */
+	@FunctionalInterface
+	public interface Loader<T>
+	{
+		public T load() throws ServiceException;
+	}
+
+	/**
+	 * A write to the config service.
+	 */
+	@FunctionalInterface
+	public interface Write
+	{
+		public void run() throws ServiceException;
+	}
+
+	protected static class CacheEntry
+	{
+		protected final Object value;
+
+		protected final long expiresAt;
+
+		public CacheEntry(Object value, long expiresAt)
+		{
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * Constructor.
+	 * @param name The name of the cache used in reports.
+	 * @param ttlMillis The time to live of an entry.  Zero or less disables caching.
+	 * @param maxEntries The maximum number of entries.
+	 */
+	public ServiceCache(String name, long ttlMillis, final int maxEntries)
+	{
+		this(name, ttlMillis, maxEntries, null);
+	}
+
+	/**
+	 * Constructor.
+	 * @param name The name of the cache used in reports.
+	 * @param ttlMillis The time to live of an entry.  Zero or less disables caching.
+	 * @param maxEntries The maximum number of entries.
+	 * @param flights Coalesces concurrent identical loads.  May be null.
+	 */
+	public ServiceCache(String name, long ttlMillis, final int maxEntries, SingleFlight flights)
+	{
+		this.name = name;
+		this.flights = flights;
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest)
+			{
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Gets a value from the cache or loads and caches it if it is missing or expired.  Failed loads are not cached.
+	 * @param key The key of the value.
+	 * @param loader Loads the value on a miss.
+	 * @return The cached or loaded value.
+	 * @throws ServiceException Thrown if the value is not cached and cannot be loaded.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String key, Loader<T> loader) throws ServiceException
+	{
+		if (ttlNanos <= 0 || maxEntries <= 0)
+			return load(key, loader);
+
+		final long loadGeneration;
+		synchronized (entries)
+		{
+			final CacheEntry entry = entries.get(key);
+			if (entry != null)
+			{
+				if (entry.expiresAt - System.nanoTime() > 0)
+				{
+					hits.incrementAndGet();
+					return (T)entry.value;
+				}
+				entries.remove(key);
+			}
+			loadGeneration = generation;
+		}
+
+		misses.incrementAndGet();
+		final T value = load(key, loader);
+
+		synchronized (entries)
+		{
+			if (loadGeneration == generation)
+				entries.put(key, new CacheEntry(value, System.nanoTime() + ttlNanos));
+		}
+
+		return value;
+	}
+
+	/*
+	 * Loads through the single flight if loads are coalesced
+	 */
+	protected <T> T load(String key, Loader<T> loader) throws ServiceException
+	{
+		return (flights == null) ? loader.load() : flights.execute(key, loader);
+	}
+
+	/**
+	 * Gets a collection from the cache or loads and caches it.  Each caller receives its own copy of the collection
+	 * so that changes made by one caller are not seen by others.
+	 * @param key The key of the collection.
+	 * @param loader Loads the collection on a miss.
+	 * @return A copy of the cached or loaded collection.
+	 * @throws ServiceException Thrown if the collection is not cached and cannot be loaded.
+	 */
+	public <T> Collection<T> getCollection(String key, Loader<Collection<T>> loader) throws ServiceException
+	{
+		final Collection<T> retVal = get(key, loader);
+
+		return (retVal == null) ? null : new ArrayList<T>(retVal);
+	}
+
+	/**
+	 * Performs a write and invalidates this cache and the given associated caches afterwards.  The caches are
+	 * invalidated even if the write fails, because the service may have applied it anyway.
+	 * @param write The write.
+	 * @param associatedCaches Caches of other entities affected by the write.
+	 * @throws ServiceException Thrown if the write fails.
+	 */
+	public void write(Write write, ServiceCache... associatedCaches) throws ServiceException
+	{
+		try
+		{
+			write.run();
+		}
+		finally
+		{
+			invalidateAll();
+			for (ServiceCache associated : associatedCaches)
+				associated.invalidateAll();
+		}
+	}
+
+	/**
+	 * Removes all entries.  Loads in flight are detached so that later reads do not share a result that may predate
+	 * a write.
+	 */
+	public void invalidateAll()
+	{
+		synchronized (entries)
+		{
+			entries.clear();
+			++generation;
+		}
+		if (flights != null)
+			flights.forgetAll();
+	}
+
+	/**
+	 * Builds a cache key from an operation name and its arguments.
+	 * @param operation The operation name.
+	 * @param args The operation arguments.
+	 * @return The cache key.
+	 */
+	public static String key(String operation, Object... args)
+	{
+		final StringBuilder builder = new StringBuilder(operation);
+		for (Object arg : args)
+			builder.append('\u0000').append(arg);
+
+		return builder.toString();
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public long getHits()
+	{
+		return hits.get();
+	}
+
+	public long getMisses()
+	{
+		return misses.get();
+	}
+
+	public long getCoalesced()
+	{
+		return (flights == null) ? 0 : flights.getCoalesced();
+	}
+
+	public int size()
+	{
+		synchronized (entries)
+		{
+			return entries.size();
+		}
+	}
+}
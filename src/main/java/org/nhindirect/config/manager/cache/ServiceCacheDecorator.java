@@ -0,0 +1,63 @@
+package org.nhindirect.config.manager.cache;
+
+import org.nhind.config.rest.CertPolicyService;
+import org.nhind.config.rest.CertificateService;
+import org.nhind.config.rest.DomainService;
+import org.nhind.config.rest.SettingService;
+import org.nhind.config.rest.TrustBundleService;
+
+/**
+ * Wraps services in the caching decorators that share the caches of the caching configuration.  Whatever provides
+ * the services, the Feign clients or the in-process stand-ins, wraps them with this so caching and coalescing apply
+ * to the services that are actually used.
+ *
+ * @since 8.0.1
+ */
+public class ServiceCacheDecorator
+{
+	protected final ServiceCache domainCache;
+
+	protected final ServiceCache trustBundleCache;
+
+	protected final ServiceCache certPolicyCache;
+
+	protected final ServiceCache certificateCache;
+
+	protected final ServiceCache settingCache;
+
+	public ServiceCacheDecorator(ServiceCache domainCache, ServiceCache trustBundleCache, ServiceCache certPolicyCache,
+			ServiceCache certificateCache, ServiceCache settingCache)
+	{
+		this.domainCache = domainCache;
+		this.trustBundleCache = trustBundleCache;
+		this.certPolicyCache = certPolicyCache;
+		this.certificateCache = certificateCache;
+		this.settingCache = settingCache;
+	}
+
+	public DomainService decorate(DomainService service)
+	{
+		// domain writes invalidate the caches that hold domain associations
+		return new CachingDomainService(service, domainCache, trustBundleCache, certPolicyCache);
+	}
+
+	public TrustBundleService decorate(TrustBundleService service)
+	{
+		return new CachingTrustBundleService(service, trustBundleCache);
+	}
+
+	public CertPolicyService decorate(CertPolicyService service)
+	{
+		return new CachingCertPolicyService(service, certPolicyCache);
+	}
+
+	public CertificateService decorate(CertificateService service)
+	{
+		return new CachingCertificateService(service, certificateCache);
+	}
+
+	public SettingService decorate(SettingService service)
+	{
+		return new CachingSettingService(service, settingCache);
+	}
+}
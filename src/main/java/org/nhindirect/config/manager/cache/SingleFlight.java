@@ -0,0 +1,111 @@
+package org.nhindirect.config.manager.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.nhindirect.common.rest.exceptions.ServiceException;
+
+/**
+ * Coalesces concurrent identical reads.  The first caller of a key performs the load, and callers that ask for the
+ * same key while it is in flight wait for and share its result or failure instead of calling the service again.
+ * Nothing is retained once the load completes.
+ *
+ * @since 8.0.1
+ */
+public class SingleFlight
+{
+	protected final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+	protected final AtomicLong coalesced = new AtomicLong();
+
+	/**
+	 * Performs a load or joins an identical load that is already in flight.
+	 * @param key The key of the load.
+	 * @param loader Performs the load.
+	 * @return The loaded value.
+	 * @throws ServiceException Thrown if the load fails.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T execute(String key, ServiceCache.Loader<T> loader) throws ServiceException
+	{
+		final CompletableFuture<Object> flight = new CompletableFuture<>();
+		final CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+		if (existing != null)
+		{
+			coalesced.incrementAndGet();
+			return (T)await(existing);
+		}
+
+		try
+		{
+			final T value = loader.load();
+			inFlight.remove(key, flight);
+			flight.complete(value);
+			return value;
+		}
+		catch (ServiceException | RuntimeException | Error e)
+		{
+			inFlight.remove(key, flight);
+			flight.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Detaches all loads in flight so that later callers start new loads.  Callers that already joined a load still
+	 * receive its result.  Used after writes, when the result of a load that started earlier may be stale.
+	 */
+	public void forgetAll()
+	{
+		inFlight.clear();
+	}
+
+	/**
+	 * Gets the number of calls that were served by another caller's load.
+	 * @return The number of coalesced calls.
+	 */
+	public long getCoalesced()
+	{
+		return coalesced.get();
+	}
+
+	protected static Object await(CompletableFuture<Object> flight) throws ServiceException
+	{
+		boolean interrupted = false;
+		try
+		{
+			while (true)
+			{
+				try
+				{
+					return flight.get();
+				}
+				catch (InterruptedException e)
+				{
+					// the leader is still loading for other callers, so finish waiting and keep the interrupt
+					interrupted = true;
+				}
+				catch (ExecutionException e)
+				{
+					// rethrow the leader's exception as is so callers can still inspect its type and status
+					final Throwable cause = e.getCause();
+					if (cause instanceof ServiceException)
+						throw (ServiceException)cause;
+					if (cause instanceof RuntimeException)
+						throw (RuntimeException)cause;
+					if (cause instanceof Error)
+						throw (Error)cause;
+					throw new ServiceException(cause);
+				}
+			}
+		}
+		finally
+		{
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,257 @@
+package org.nhindirect.config.manager.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the configuration manager running and executes commands sent by {@link DaemonClient} processes.  The Spring
+ * context, the pooled config service connections, and the caches stay warm between commands, so scripts that run
+ * many commands only pay the start up cost once.
+ * <p>
+ * Commands write to System.out and System.err, so they run one at a time with both streams redirected to the client
+ * that sent the command.  Output is streamed to the client line by line while the command runs.
+ *
+ * @since 8.0.1
+ */
+public class CommandDaemon
+{
+	/**
+	 * Runs one command.
+	 */
+	@FunctionalInterface
+	public interface CommandRunner
+	{
+		/**
+		 * @param args The command arguments.
+		 * @return True if the command was run successfully.  False otherwise.
+		 */
+		public boolean run(String[] args);
+	}
+
+	protected final CommandRunner runner;
+
+	protected final int port;
+
+	protected final File endpointFile;
+
+	protected final Object commandLock = new Object();
+
+	protected volatile boolean stopped;
+
+	protected volatile ServerSocket serverSocket;
+
+	/**
+	 * Constructor.
+	 * @param runner Runs the commands.
+	 * @param port The loopback port to listen on.  Zero picks a free port.
+	 * @param endpointFile The file the port and access token are written to for the clients.
+	 */
+	public CommandDaemon(CommandRunner runner, int port, File endpointFile)
+	{
+		this.runner = runner;
+		this.port = port;
+		this.endpointFile = endpointFile;
+	}
+
+	/**
+	 * Accepts commands until a client stops the daemon.
+	 * @throws IOException Thrown if the daemon cannot listen or publish its endpoint.
+	 */
+	public void run() throws IOException
+	{
+		serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		final DaemonEndpoint endpoint = DaemonEndpoint.create(serverSocket.getLocalPort());
+		final ExecutorService connections = Executors.newCachedThreadPool(runnable ->
+		{
+			final Thread thread = new Thread(runnable, "config-manager-daemon");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try
+		{
+			endpoint.write(endpointFile);
+			System.out.println("Configuration manager daemon listening on " + serverSocket.getLocalSocketAddress()
+				+ ", endpoint file " + endpointFile.getAbsolutePath());
+
+			while (!stopped)
+			{
+				final Socket socket;
+				try
+				{
+					socket = serverSocket.accept();
+				}
+				catch (SocketException e)
+				{
+					if (stopped)
+						break;
+					throw e;
+				}
+				connections.execute(() -> serve(socket, endpoint.getToken()));
+			}
+		}
+		finally
+		{
+			stop();
+			connections.shutdown();
+			endpoint.delete(endpointFile);
+		}
+
+		System.out.println("Configuration manager daemon stopped");
+	}
+
+	/**
+	 * Stops accepting commands.  A command that is running is completed.
+	 */
+	public void stop()
+	{
+		stopped = true;
+		try
+		{
+			if (serverSocket != null)
+				serverSocket.close();
+		}
+		catch (IOException e)
+		{
+			// already closed
+		}
+	}
+
+	/*
+	 * Authenticates one client and runs its request
+	 */
+	protected void serve(Socket socket, String token)
+	{
+		try (Socket client = socket)
+		{
+			client.setTcpNoDelay(true);
+			final DataInputStream in = new DataInputStream(new BufferedInputStream(client.getInputStream()));
+			final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(client.getOutputStream()));
+
+			if (!MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), in.readUTF().getBytes(StandardCharsets.UTF_8)))
+				return;
+
+			final byte request = in.readByte();
+			if (request == DaemonEndpoint.REQUEST_STOP)
+			{
+				writeExit(out, 0);
+				stop();
+				return;
+			}
+			if (request != DaemonEndpoint.REQUEST_RUN)
+				return;
+
+			final String[] args = new String[in.readInt()];
+			for (int i = 0; i < args.length; ++i)
+				args[i] = in.readUTF();
+
+			writeExit(out, execute(args, out) ? 0 : -1);
+		}
+		catch (IOException e)
+		{
+			// the client went away, output of a running command is discarded
+		}
+	}
+
+	/*
+	 * Runs a command with the standard streams redirected to the client
+	 */
+	protected boolean execute(String[] args, DataOutputStream out)
+	{
+		final PrintStream stdout = new PrintStream(new BufferedOutputStream(new FrameOutputStream(out, DaemonEndpoint.FRAME_STDOUT)), true);
+		final PrintStream stderr = new PrintStream(new BufferedOutputStream(new FrameOutputStream(out, DaemonEndpoint.FRAME_STDERR)), true);
+
+		synchronized (commandLock)
+		{
+			final PrintStream originalOut = System.out;
+			final PrintStream originalErr = System.err;
+			System.setOut(stdout);
+			System.setErr(stderr);
+			try
+			{
+				return runner.run(args);
+			}
+			catch (RuntimeException e)
+			{
+				stderr.println("Command failed: " + e.getMessage());
+				return false;
+			}
+			finally
+			{
+				stdout.flush();
+				stderr.flush();
+				System.setOut(originalOut);
+				System.setErr(originalErr);
+			}
+		}
+	}
+
+	protected static void writeExit(DataOutputStream out, int exitCode) throws IOException
+	{
+		synchronized (out)
+		{
+			out.writeByte(DaemonEndpoint.FRAME_EXIT);
+			out.writeInt(exitCode);
+			out.flush();
+		}
+	}
+
+	/*
+	 * Writes bytes as frames of one output stream of the client
+	 */
+	protected static class FrameOutputStream extends OutputStream
+	{
+		protected final DataOutputStream out;
+
+		protected final byte kind;
+
+		public FrameOutputStream(DataOutputStream out, byte kind)
+		{
+			this.out = out;
+			this.kind = kind;
+		}
+
+		@Override
+		public void write(int b) throws IOException
+		{
+			write(new byte[] {(byte)b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			if (len == 0)
+				return;
+
+			synchronized (out)
+			{
+				out.writeByte(kind);
+				out.writeInt(len);
+				out.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException
+		{
+			synchronized (out)
+			{
+				out.flush();
+			}
+		}
+	}
+}
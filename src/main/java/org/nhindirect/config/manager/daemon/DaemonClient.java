@@ -0,0 +1,154 @@
+package org.nhindirect.config.manager.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Thin command line client of a {@link CommandDaemon}.  Sends its arguments to the daemon, copies the command output
+ * to its own standard output and error while the command runs, and exits with the exit code of the command.  The
+ * client only uses JDK classes, so it starts in a fraction of the time of the full configuration manager.
+ * <p>
+ * The daemon resolves file names relative to its own working directory.  Arguments that name an existing file relative
+ * to the working directory of the client are therefore sent as absolute paths.
+ * <p>
+ * Exit codes other than those of the commands: 2 if no daemon is running, 255 if the connection to the daemon failed.
+ * Running the client with --stop stops the daemon.
+ *
+ * @since 8.0.1
+ */
+public class DaemonClient
+{
+	/**
+	 * Client argument that stops the daemon.
+	 */
+	public static final String STOP_ARG = "--stop";
+
+	public static final int EXIT_NO_DAEMON = 2;
+
+	protected final File endpointFile;
+
+	public DaemonClient(File endpointFile)
+	{
+		this.endpointFile = endpointFile;
+	}
+
+	/**
+	 * Client entry point.
+	 * @param args The command and its arguments, or --stop.
+	 */
+	public static void main(String[] args)
+	{
+		System.exit(new DaemonClient(DaemonEndpoint.getDefaultFile()).run(args));
+	}
+
+	/**
+	 * Runs a command in the daemon.
+	 * @param args The command and its arguments, or --stop.
+	 * @return The exit code.
+	 */
+	public int run(String[] args)
+	{
+		if (args.length == 0)
+		{
+			System.err.println("Usage: DaemonClient <command> [arguments] | " + STOP_ARG);
+			return -1;
+		}
+
+		final boolean stop = args.length == 1 && STOP_ARG.equals(args[0]);
+		try
+		{
+			final DaemonEndpoint endpoint = DaemonEndpoint.read(endpointFile);
+			if (endpoint == null)
+				return noDaemon();
+
+			try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), endpoint.getPort()))
+			{
+				socket.setTcpNoDelay(true);
+				final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+				out.writeUTF(endpoint.getToken());
+				if (stop)
+					out.writeByte(DaemonEndpoint.REQUEST_STOP);
+				else
+				{
+					out.writeByte(DaemonEndpoint.REQUEST_RUN);
+					out.writeInt(args.length);
+					for (String arg : args)
+						out.writeUTF(resolvePath(arg));
+				}
+				out.flush();
+
+				return copyOutput(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
+			}
+		}
+		catch (ConnectException e)
+		{
+			return noDaemon();
+		}
+		catch (IOException e)
+		{
+			System.err.println("Lost the connection to the configuration manager daemon: " + e.getMessage());
+			return -1;
+		}
+	}
+
+	/*
+	 * Copies output frames until the exit frame arrives
+	 */
+	protected int copyOutput(DataInputStream in) throws IOException
+	{
+		final byte[] buffer = new byte[8192];
+		while (true)
+		{
+			final byte kind;
+			try
+			{
+				kind = in.readByte();
+			}
+			catch (EOFException e)
+			{
+				throw new IOException("The daemon closed the connection");
+			}
+
+			if (kind == DaemonEndpoint.FRAME_EXIT)
+			{
+				System.out.flush();
+				System.err.flush();
+				return in.readInt();
+			}
+
+			final PrintStream target = (kind == DaemonEndpoint.FRAME_STDERR) ? System.err : System.out;
+			int remaining = in.readInt();
+			while (remaining > 0)
+			{
+				final int read = in.read(buffer, 0, Math.min(buffer.length, remaining));
+				if (read < 0)
+					throw new IOException("The daemon closed the connection");
+				target.write(buffer, 0, read);
+				remaining -= read;
+			}
+			target.flush();
+		}
+	}
+
+	protected int noDaemon()
+	{
+		System.err.println("No configuration manager daemon is running.  Start one with the --daemon option of the configuration manager.");
+		return EXIT_NO_DAEMON;
+	}
+
+	protected static String resolvePath(String arg)
+	{
+		final File file = new File(arg);
+
+		return (!arg.isEmpty() && !file.isAbsolute() && file.exists()) ? file.getAbsolutePath() : arg;
+	}
+}
@@ -0,0 +1,158 @@
+package org.nhindirect.config.manager.daemon;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * The endpoint of a running {@link CommandDaemon} and the wire protocol shared with the {@link DaemonClient}.
+ * <p>
+ * The daemon only listens on the loopback interface.  Its port and a random access token are written to an endpoint
+ * file that only the owner can read, so other local users cannot run commands through the daemon.  Clients send the
+ * token, a request code, and the command arguments.  The daemon answers with frames of standard output and standard
+ * error followed by an exit frame with the exit code.
+ * <p>
+ * This class and the client only use JDK classes so that the client starts without loading Spring.
+ *
+ * @since 8.0.1
+ */
+public class DaemonEndpoint
+{
+	/**
+	 * System property (or application property of the daemon) with the location of the endpoint file.
+	 */
+	public static final String ENDPOINT_FILE_PROPERTY = "direct.config.manager.daemon.endpointFile";
+
+	static final byte REQUEST_RUN = 'R';
+
+	static final byte REQUEST_STOP = 'S';
+
+	static final byte FRAME_STDOUT = 'O';
+
+	static final byte FRAME_STDERR = 'E';
+
+	static final byte FRAME_EXIT = 'X';
+
+	protected final int port;
+
+	protected final String token;
+
+	public DaemonEndpoint(int port, String token)
+	{
+		this.port = port;
+		this.token = token;
+	}
+
+	public int getPort()
+	{
+		return port;
+	}
+
+	public String getToken()
+	{
+		return token;
+	}
+
+	/**
+	 * Gets the endpoint file from the system properties or the default location in the home directory.
+	 * @return The endpoint file.
+	 */
+	public static File getDefaultFile()
+	{
+		final String file = System.getProperty(ENDPOINT_FILE_PROPERTY);
+
+		return (file == null || file.isEmpty()) ? new File(System.getProperty("user.home"), ".config-manager/daemon") : new File(file);
+	}
+
+	/**
+	 * Creates an endpoint with a new random access token.
+	 * @param port The port the daemon listens on.
+	 * @return The endpoint.
+	 */
+	public static DaemonEndpoint create(int port)
+	{
+		final byte[] token = new byte[24];
+		new SecureRandom().nextBytes(token);
+
+		return new DaemonEndpoint(port, Base64.getUrlEncoder().withoutPadding().encodeToString(token));
+	}
+
+	/**
+	 * Writes the endpoint to a file that only the owner can read.  The file is replaced atomically so clients never
+	 * read a partial endpoint.
+	 * @param file The endpoint file.
+	 * @throws IOException Thrown if the file cannot be written.
+	 */
+	public void write(File file) throws IOException
+	{
+		final Path target = file.getAbsoluteFile().toPath();
+		Files.createDirectories(target.getParent());
+
+		final Path temp;
+		if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix"))
+			temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp",
+					PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+		else
+			temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+
+		try
+		{
+			Files.write(temp, (port + " " + token).getBytes(StandardCharsets.UTF_8));
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally
+		{
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Reads the endpoint of a running daemon.
+	 * @param file The endpoint file.
+	 * @return The endpoint, or null if no daemon has written the file.
+	 * @throws IOException Thrown if the file exists but cannot be read.
+	 */
+	public static DaemonEndpoint read(File file) throws IOException
+	{
+		if (!file.exists())
+			return null;
+
+		final String[] parts = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim().split(" ");
+		if (parts.length != 2)
+			throw new IOException("Invalid daemon endpoint file " + file.getAbsolutePath());
+
+		try
+		{
+			return new DaemonEndpoint(Integer.parseInt(parts[0]), parts[1]);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IOException("Invalid daemon endpoint file " + file.getAbsolutePath(), e);
+		}
+	}
+
+	/**
+	 * Deletes the endpoint file if it still describes this endpoint.  A newer daemon may have replaced it.
+	 * @param file The endpoint file.
+	 */
+	public void delete(File file)
+	{
+		try
+		{
+			final DaemonEndpoint current = read(file);
+			if (current != null && current.port == port && current.token.equals(token))
+				Files.deleteIfExists(file.toPath());
+		}
+		catch (IOException e)
+		{
+			// left for the next daemon to replace
+		}
+	}
+}
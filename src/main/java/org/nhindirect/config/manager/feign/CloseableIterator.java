@@ -0,0 +1,51 @@
+package org.nhindirect.config.manager.feign;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * An iterator over records that are read while the caller consumes them.  The iterator holds on to the underlying
+ * HTTP response until it is exhausted or closed, so callers should close it in a try-with-resources block.
+ *
+ * @param <T> The record type.
+ * @since 8.0.1
+ */
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable
+{
+	/**
+	 * Releases the underlying resources.  Closing an exhausted or already closed iterator has no effect.
+	 */
+	@Override
+	public void close();
+
+	/**
+	 * Creates an iterator over a collection that is already in memory.
+	 * @param records The records.  May be null.
+	 * @return An iterator over the records.
+	 */
+	public static <T> CloseableIterator<T> of(Collection<T> records)
+	{
+		final Iterator<T> it = (records == null) ? Collections.<T>emptyIterator() : records.iterator();
+
+		return new CloseableIterator<T>()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return it.hasNext();
+			}
+
+			@Override
+			public T next()
+			{
+				return it.next();
+			}
+
+			@Override
+			public void close()
+			{
+			}
+		};
+	}
+}
@@ -0,0 +1,164 @@
+package org.nhindirect.config.manager.feign;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive limit of the number of config service requests in flight, with an optional fixed request rate cap.
+ * <p>
+ * The limit follows a gradient algorithm: it grows while request latency stays near the service's unloaded latency
+ * and shrinks as latency rises above it, which is the service queueing work.  The unloaded latency is the lowest
+ * latency of the recent requests, so it follows a service that becomes slower or faster over time.  Requests that fail, time out, or are
+ * rejected by an overloaded service (HTTP 429, 502, 503, 504) cut the limit multiplicatively, as in AIMD.  The
+ * limit only grows while at least half of it is used, so a quiet period cannot inflate it.
+ *
+ * @since 8.0.1
+ */
+public class ConcurrencyLimiter
+{
+	/*
+	 * How much slower than the unloaded latency requests may get before the limit shrinks
+	 */
+	protected static final double RTT_TOLERANCE = 1.5;
+
+	protected static final double SMOOTHING = 0.2;
+
+	protected static final double BACKOFF_RATIO = 0.9;
+
+	protected static final int MIN_RTT_WINDOW = 500;
+
+	protected final int minLimit;
+
+	protected final int maxLimit;
+
+	protected final long rateIntervalNanos;
+
+	protected double limit;
+
+	protected int inFlight;
+
+	protected long minRttNanos = Long.MAX_VALUE;
+
+	protected long windowMinRttNanos = Long.MAX_VALUE;
+
+	protected int windowSamples;
+
+	protected long nextRequestNanos;
+
+	/**
+	 * Constructor.
+	 * @param initialLimit The limit before any latency has been observed.
+	 * @param minLimit The lowest limit.
+	 * @param maxLimit The highest limit.
+	 * @param maxRequestsPerSecond The most requests started per second.  Zero or less for no rate cap.
+	 */
+	public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double maxRequestsPerSecond)
+	{
+		this.minLimit = Math.max(minLimit, 1);
+		this.maxLimit = Math.max(maxLimit, this.minLimit);
+		this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+		this.rateIntervalNanos = (maxRequestsPerSecond > 0) ? (long)(TimeUnit.SECONDS.toNanos(1) / maxRequestsPerSecond) : 0;
+	}
+
+	/**
+	 * Waits until a request may be sent.  Every successful call must be followed by a call to {@link #release}.
+	 * @throws InterruptedException Thrown if the thread is interrupted while waiting.
+	 */
+	public void acquire() throws InterruptedException
+	{
+		final long startAt;
+		synchronized (this)
+		{
+			while (inFlight >= (int)limit)
+				wait();
+
+			++inFlight;
+
+			if (rateIntervalNanos <= 0)
+				return;
+
+			// reserve the next free slot of the rate cap and wait for it outside the lock
+			final long now = System.nanoTime();
+			startAt = Math.max(now, nextRequestNanos);
+			nextRequestNanos = startAt + rateIntervalNanos;
+		}
+
+		long remaining;
+		while ((remaining = startAt - System.nanoTime()) > 0)
+		{
+			try
+			{
+				TimeUnit.NANOSECONDS.sleep(remaining);
+			}
+			catch (InterruptedException e)
+			{
+				release();
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Releases a request without adjusting the limit, for example when it was never sent.
+	 */
+	public synchronized void release()
+	{
+		--inFlight;
+		notifyAll();
+	}
+
+	/**
+	 * Releases a request and adjusts the limit from its outcome.
+	 * @param rttNanos The round trip time of the request.
+	 * @param dropped True if the request failed in a way that indicates overload.
+	 */
+	public synchronized void release(long rttNanos, boolean dropped)
+	{
+		final int used = inFlight;
+		--inFlight;
+
+		if (dropped)
+		{
+			limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+		}
+		else
+		{
+			windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+			if (++windowSamples >= MIN_RTT_WINDOW)
+			{
+				minRttNanos = windowMinRttNanos;
+				windowMinRttNanos = Long.MAX_VALUE;
+				windowSamples = 0;
+			}
+			final long baseRttNanos = Math.min(minRttNanos, windowMinRttNanos);
+
+			// the limit only grows while it is actually in use
+			if (used * 2 >= limit || rttNanos > baseRttNanos * RTT_TOLERANCE)
+			{
+				final double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * baseRttNanos / Math.max(rttNanos, 1)));
+				final double queueSize = Math.sqrt(limit);
+				final double newLimit = limit * gradient + queueSize;
+				limit = Math.min(maxLimit, Math.max(minLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+			}
+		}
+
+		notifyAll();
+	}
+
+	/**
+	 * Gets the current limit.
+	 * @return The current limit.
+	 */
+	public synchronized int getLimit()
+	{
+		return (int)limit;
+	}
+
+	/**
+	 * Gets the number of requests in flight.
+	 * @return The number of requests in flight.
+	 */
+	public synchronized int getInFlight()
+	{
+		return inFlight;
+	}
+}
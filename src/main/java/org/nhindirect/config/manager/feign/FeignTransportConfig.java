@@ -0,0 +1,159 @@
+package org.nhindirect.config.manager.feign;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.codec.Decoder;
+import feign.httpclient.ApacheHttpClient;
+import feign.okhttp.OkHttpClient;
+import feign.optionals.OptionalDecoder;
+import okhttp3.ConnectionPool;
+import okhttp3.Protocol;
+
+/**
+ * Configures the HTTP transport used by the Feign configuration service clients.  Bulk provisioning makes thousands
+ * of small requests, so connections are pooled and kept alive instead of paying connection setup and TLS handshake
+ * cost on each call.
+ * <p>
+ * The transport is selected with direct.config.service.http.client:
+ * <ul>
+ * <li>apache (default) - Apache HttpClient with a bounded connection pool per route, keep-alive, and idle eviction.</li>
+ * <li>okhttp - OkHttp with a keep-alive connection pool.  Negotiates HTTP/2 over TLS when the server and JVM support it.</li>
+ * <li>jdk - The default Feign client based on HttpURLConnection.</li>
+ * </ul>
+ * Connect and read timeouts and gzip compression (direct.config.service.http.compression) apply to every transport.
+ *
+ * @since 8.0.1
+ */
+@Configuration
+public class FeignTransportConfig
+{
+	@Value("${direct.config.service.http.client:apache}")
+	protected String client;
+
+	@Value("${direct.config.service.http.maxConnections:200}")
+	protected int maxConnections;
+
+	@Value("${direct.config.service.http.maxConnectionsPerRoute:50}")
+	protected int maxConnectionsPerRoute;
+
+	@Value("${direct.config.service.http.keepAliveMillis:60000}")
+	protected long keepAliveMillis;
+
+	@Value("${direct.config.service.http.idleEvictionMillis:30000}")
+	protected long idleEvictionMillis;
+
+	@Value("${direct.config.service.http.http2:true}")
+	protected boolean http2;
+
+	@Bean
+	public Request.Options feignRequestOptions(@Value("${direct.config.service.http.connectTimeoutMillis:10000}") long connectTimeoutMillis,
+			@Value("${direct.config.service.http.readTimeoutMillis:60000}") long readTimeoutMillis)
+	{
+		return new Request.Options(connectTimeoutMillis, TimeUnit.MILLISECONDS, readTimeoutMillis, TimeUnit.MILLISECONDS, true);
+	}
+
+	@Bean
+	public RequestInterceptor gzipRequestInterceptor(@Value("${direct.config.service.http.compression.request:false}") boolean compressRequests,
+			@Value("${direct.config.service.http.compression.minRequestSize:2048}") int minRequestSize,
+			@Value("${direct.config.service.http.compression.response:true}") boolean compressResponses)
+	{
+		return new GzipRequestInterceptor(compressRequests, minRequestSize, compressResponses, "jdk".equalsIgnoreCase(client));
+	}
+
+	@Bean
+	public Decoder feignDecoder(ObjectFactory<HttpMessageConverters> messageConverters)
+	{
+		return new GzipResponseDecoder(new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(messageConverters))));
+	}
+
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(name = "direct.config.service.http.client", havingValue = "apache", matchIfMissing = true)
+	public CloseableHttpClient pooledHttpClient()
+	{
+		final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(maxConnections);
+		connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+		// re-check connections the server may have closed while they sat in the pool
+		connectionManager.setValidateAfterInactivity(2000);
+
+		return HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setKeepAliveStrategy(keepAliveStrategy())
+				.evictExpiredConnections()
+				.evictIdleConnections(idleEvictionMillis, TimeUnit.MILLISECONDS)
+				// connections are authenticated per request, so they can be reused by any caller
+				.disableConnectionState()
+				.build();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "direct.config.service.http.client", havingValue = "apache", matchIfMissing = true)
+	public Client apacheFeignClient(CloseableHttpClient pooledHttpClient)
+	{
+		return new ApacheHttpClient(pooledHttpClient);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "direct.config.service.http.client", havingValue = "okhttp")
+	public Client okHttpFeignClient()
+	{
+		final okhttp3.OkHttpClient client = new okhttp3.OkHttpClient.Builder()
+				.connectionPool(new ConnectionPool(maxConnectionsPerRoute, Math.min(keepAliveMillis, idleEvictionMillis), TimeUnit.MILLISECONDS))
+				.protocols(http2 ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1) : Collections.singletonList(Protocol.HTTP_1_1))
+				.build();
+
+		return new OkHttpClient(client);
+	}
+
+	/*
+	 * Honors the timeout of a server Keep-Alive header and otherwise keeps connections for the configured time
+	 */
+	protected ConnectionKeepAliveStrategy keepAliveStrategy()
+	{
+		return (HttpResponse response, HttpContext context) ->
+		{
+			final HeaderElementIterator it = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+			while (it.hasNext())
+			{
+				final HeaderElement element = it.nextElement();
+				if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null)
+				{
+					try
+					{
+						return Math.min(Long.parseLong(element.getValue()) * 1000, keepAliveMillis);
+					}
+					catch (NumberFormatException e)
+					{
+						// fall back to the configured keep-alive
+					}
+				}
+			}
+
+			return keepAliveMillis;
+		};
+	}
+}
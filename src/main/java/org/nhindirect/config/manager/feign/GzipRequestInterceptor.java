@@ -0,0 +1,87 @@
+package org.nhindirect.config.manager.feign;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Negotiates gzip compression of config service requests and responses.
+ * <p>
+ * Request bodies at or above a minimum size are gzip compressed when request compression is enabled.  The
+ * configuration service must accept gzip encoded bodies for this to work, so request compression is off by default.
+ * The JDK transport compresses bodies itself once the Content-Encoding header is set, so for that transport only the
+ * header is added.
+ * <p>
+ * Gzip responses are requested explicitly only from transports that do not ask for them on their own.  When response
+ * compression is disabled, identity encoding is requested from every transport.
+ *
+ * @since 8.0.1
+ */
+public class GzipRequestInterceptor implements RequestInterceptor
+{
+	protected static final String CONTENT_ENCODING = "Content-Encoding";
+
+	protected static final String ACCEPT_ENCODING = "Accept-Encoding";
+
+	protected final boolean compressRequests;
+
+	protected final int minRequestSize;
+
+	protected final boolean compressResponses;
+
+	protected final boolean jdkTransport;
+
+	/**
+	 * Constructor.
+	 * @param compressRequests Indicates if request bodies are compressed.
+	 * @param minRequestSize The smallest body size in bytes that is compressed.
+	 * @param compressResponses Indicates if compressed responses are requested.
+	 * @param jdkTransport Indicates if the JDK transport is used.
+	 */
+	public GzipRequestInterceptor(boolean compressRequests, int minRequestSize, boolean compressResponses, boolean jdkTransport)
+	{
+		this.compressRequests = compressRequests;
+		this.minRequestSize = minRequestSize;
+		this.compressResponses = compressResponses;
+		this.jdkTransport = jdkTransport;
+	}
+
+	@Override
+	public void apply(RequestTemplate template)
+	{
+		if (!compressResponses)
+			template.header(ACCEPT_ENCODING, "identity");
+		else if (jdkTransport)
+			template.header(ACCEPT_ENCODING, "gzip");
+
+		final byte[] body = template.body();
+		if (!compressRequests || body == null || body.length < minRequestSize || template.headers().containsKey(CONTENT_ENCODING))
+			return;
+
+		template.header(CONTENT_ENCODING, "gzip");
+		// the JDK transport compresses while sending, so the compressed length is not known up front
+		if (jdkTransport)
+			template.removeHeader("Content-Length");
+		else
+			template.body(gzip(body), null);
+	}
+
+	protected static byte[] gzip(byte[] data)
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(data.length / 4, 64));
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out))
+		{
+			gzip.write(data);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+
+		return out.toByteArray();
+	}
+}
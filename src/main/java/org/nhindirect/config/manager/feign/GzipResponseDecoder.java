@@ -0,0 +1,79 @@
+package org.nhindirect.config.manager.feign;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import feign.FeignException;
+import feign.Response;
+import feign.codec.Decoder;
+
+/**
+ * Decompresses gzip encoded response bodies before handing them to another decoder.  The Apache and OkHttp transports
+ * decompress responses on their own and remove the Content-Encoding header, in which case the response is passed
+ * through untouched.
+ *
+ * @since 8.0.1
+ */
+public class GzipResponseDecoder implements Decoder
+{
+	protected static final String CONTENT_ENCODING = "Content-Encoding";
+
+	protected final Decoder delegate;
+
+	public GzipResponseDecoder(Decoder delegate)
+	{
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Object decode(Response response, Type type) throws IOException, FeignException
+	{
+		return delegate.decode(decompress(response), type);
+	}
+
+	/**
+	 * Replaces the body of a gzip encoded response with a decompressing stream.
+	 * @param response The response.
+	 * @return A response with a plain body.  The original response if it is not gzip encoded.
+	 * @throws IOException Thrown if the body is not valid gzip data.
+	 */
+	public static Response decompress(Response response) throws IOException
+	{
+		if (response.body() == null || !isGzipEncoded(response))
+			return response;
+
+		final Map<String, Collection<String>> headers = new LinkedHashMap<String, Collection<String>>();
+		for (Map.Entry<String, Collection<String>> header : response.headers().entrySet())
+		{
+			// the decompressed length is unknown
+			if (!CONTENT_ENCODING.equalsIgnoreCase(header.getKey()) && !"Content-Length".equalsIgnoreCase(header.getKey()))
+				headers.put(header.getKey(), header.getValue());
+		}
+
+		return response.toBuilder()
+				.headers(headers)
+				.body(new GZIPInputStream(response.body().asInputStream()), null)
+				.build();
+	}
+
+	protected static boolean isGzipEncoded(Response response)
+	{
+		for (Map.Entry<String, Collection<String>> header : response.headers().entrySet())
+		{
+			if (CONTENT_ENCODING.equalsIgnoreCase(header.getKey()))
+			{
+				for (String value : header.getValue())
+				{
+					if (value.trim().equalsIgnoreCase("gzip"))
+						return true;
+				}
+			}
+		}
+
+		return false;
+	}
+}
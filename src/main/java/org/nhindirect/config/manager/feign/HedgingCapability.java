@@ -0,0 +1,43 @@
+package org.nhindirect.config.manager.feign;
+
+import java.util.concurrent.Executor;
+
+import feign.Capability;
+import feign.Client;
+
+/**
+ * Wraps the transport of every Feign config service client in a {@link HedgingClient}.  Each client keeps its own
+ * latency distributions and hedge budget.
+ *
+ * @since 8.0.1
+ */
+public class HedgingCapability implements Capability
+{
+	protected final Executor executor;
+
+	protected final double percentile;
+
+	protected final long minDelayMillis;
+
+	protected final int minSamples;
+
+	protected final double budgetPercent;
+
+	protected final int maxBurst;
+
+	public HedgingCapability(Executor executor, double percentile, long minDelayMillis, int minSamples, double budgetPercent, int maxBurst)
+	{
+		this.executor = executor;
+		this.percentile = percentile;
+		this.minDelayMillis = minDelayMillis;
+		this.minSamples = minSamples;
+		this.budgetPercent = budgetPercent;
+		this.maxBurst = maxBurst;
+	}
+
+	@Override
+	public Client enrich(Client client)
+	{
+		return new HedgingClient(client, executor, percentile, minDelayMillis, minSamples, budgetPercent, maxBurst);
+	}
+}
@@ -0,0 +1,315 @@
+package org.nhindirect.config.manager.feign;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+/**
+ * Sends a second, hedged copy of a GET request when the first has not answered within a percentile of the recent
+ * latency of the same operation, and returns whichever response arrives first.  A single slow replica behind a load
+ * balancer then no longer stalls a lookup for the length of its pause.  The response that loses is closed when it
+ * arrives.
+ * <p>
+ * Only GET requests are hedged because they are idempotent.  Hedging starts once an operation has enough latency
+ * samples, and hedges are limited by a budget: every request earns a fraction of a hedge (the budget percent), and
+ * a hedge can only be sent while at least one whole hedge has been earned.  Unused budget is capped so an idle
+ * period cannot save up a burst of hedges.
+ *
+ * @since 8.0.1
+ */
+public class HedgingClient implements Client
+{
+	protected static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+	protected static final int SAMPLE_WINDOW = 1000;
+
+	protected static final int DELAY_REFRESH_INTERVAL = 32;
+
+	protected final Client delegate;
+
+	protected final Executor executor;
+
+	protected final double percentile;
+
+	protected final long minDelayNanos;
+
+	protected final int minSamples;
+
+	protected final HedgeBudget budget;
+
+	protected final ConcurrentMap<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+
+	protected final AtomicLong hedges = new AtomicLong();
+
+	protected final AtomicLong hedgeWins = new AtomicLong();
+
+	/**
+	 * Constructor.
+	 * @param delegate The transport the requests are sent with.
+	 * @param executor Runs the requests.  Must be able to run two requests per concurrent caller.
+	 * @param percentile The latency percentile of an operation after which a hedge is sent, for example 95.
+	 * @param minDelayMillis The shortest delay before a hedge is sent.
+	 * @param minSamples The number of latency samples an operation needs before its requests are hedged.
+	 * @param budgetPercent The most hedges sent as a percent of all requests.
+	 * @param maxBurst The most unused hedges that can be saved up.
+	 */
+	public HedgingClient(Client delegate, Executor executor, double percentile, long minDelayMillis, int minSamples, 
+			double budgetPercent, int maxBurst)
+	{
+		this.delegate = delegate;
+		this.executor = executor;
+		this.percentile = percentile;
+		this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+		this.minSamples = minSamples;
+		this.budget = new HedgeBudget(budgetPercent / 100.0, maxBurst);
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException
+	{
+		if (request.httpMethod() != Request.HttpMethod.GET)
+			return delegate.execute(request, options);
+
+		final LatencyTracker tracker = trackers.computeIfAbsent(operation(request), key -> new LatencyTracker());
+		budget.deposit();
+
+		final CompletableFuture<Response> primary = send(request, options, tracker);
+		final long delayNanos = tracker.getHedgeDelayNanos();
+		if (delayNanos < 0)
+			return await(primary);
+
+		try
+		{
+			return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+		}
+		catch (TimeoutException e)
+		{
+			// the primary is slow, hedge below if the budget allows it
+		}
+		catch (InterruptedException e)
+		{
+			closeWhenDone(primary);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for " + request.url());
+		}
+		catch (ExecutionException e)
+		{
+			throw unwrap(e);
+		}
+
+		if (!budget.withdraw())
+			return await(primary);
+
+		hedges.incrementAndGet();
+		final CompletableFuture<Response> hedge = send(request, options, tracker);
+
+		final CompletableFuture<Response> first = new CompletableFuture<>();
+		final AtomicInteger failures = new AtomicInteger();
+		primary.whenComplete((response, error) -> complete(first, response, error, failures, primary, false));
+		hedge.whenComplete((response, error) -> complete(first, response, error, failures, primary, true));
+
+		return await(first);
+	}
+
+	/**
+	 * Gets the number of hedges sent.
+	 * @return The number of hedges sent.
+	 */
+	public long getHedges()
+	{
+		return hedges.get();
+	}
+
+	/**
+	 * Gets the number of hedges that answered before the request they hedged.
+	 * @return The number of hedges that won.
+	 */
+	public long getHedgeWins()
+	{
+		return hedgeWins.get();
+	}
+
+	protected CompletableFuture<Response> send(Request request, Request.Options options, LatencyTracker tracker)
+	{
+		final CompletableFuture<Response> retVal = new CompletableFuture<>();
+		executor.execute(() ->
+		{
+			final long start = System.nanoTime();
+			try
+			{
+				final Response response = delegate.execute(request, options);
+				tracker.record(System.nanoTime() - start);
+				retVal.complete(response);
+			}
+			catch (Throwable e)
+			{
+				retVal.completeExceptionally(e);
+			}
+		});
+
+		return retVal;
+	}
+
+	/*
+	 * The first response wins and later ones are closed.  The primary's error is reported if both fail.
+	 */
+	protected void complete(CompletableFuture<Response> first, Response response, Throwable error, AtomicInteger failures,
+			CompletableFuture<Response> primary, boolean isHedge)
+	{
+		if (error == null)
+		{
+			if (first.complete(response))
+			{
+				if (isHedge)
+					hedgeWins.incrementAndGet();
+			}
+			else
+				response.close();
+		}
+		else if (failures.incrementAndGet() == 2)
+		{
+			primary.whenComplete((r, primaryError) -> first.completeExceptionally(primaryError));
+		}
+	}
+
+	protected Response await(CompletableFuture<Response> future) throws IOException
+	{
+		try
+		{
+			return future.get();
+		}
+		catch (InterruptedException e)
+		{
+			closeWhenDone(future);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a config service response");
+		}
+		catch (ExecutionException e)
+		{
+			throw unwrap(e);
+		}
+	}
+
+	protected static void closeWhenDone(CompletableFuture<Response> future)
+	{
+		future.thenAccept(response -> Util.ensureClosed(response));
+	}
+
+	protected static IOException unwrap(ExecutionException e)
+	{
+		final Throwable cause = e.getCause();
+		if (cause instanceof IOException)
+			return (IOException)cause;
+		if (cause instanceof RuntimeException)
+			throw (RuntimeException)cause;
+		if (cause instanceof Error)
+			throw (Error)cause;
+
+		return new IOException(cause);
+	}
+
+	/*
+	 * Requests of the same client method share a latency distribution
+	 */
+	protected static String operation(Request request)
+	{
+		final MethodMetadata metadata = request.requestTemplate().methodMetadata();
+
+		return (metadata != null) ? metadata.configKey() : request.url();
+	}
+
+	/*
+	 * Latency distribution of the most recent requests of one operation.  Two windows are kept so the distribution
+	 * follows changes in the service without dropping to zero samples when a window is rotated.
+	 */
+	protected class LatencyTracker
+	{
+		protected Histogram current = new Histogram(HIGHEST_TRACKABLE_MICROS, 2);
+
+		protected Histogram previous = new Histogram(HIGHEST_TRACKABLE_MICROS, 2);
+
+		protected volatile long hedgeDelayNanos = -1;
+
+		protected int sinceRefresh;
+
+		public synchronized void record(long nanos)
+		{
+			current.recordValue(Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 1), HIGHEST_TRACKABLE_MICROS));
+
+			if (current.getTotalCount() >= SAMPLE_WINDOW)
+			{
+				final Histogram swap = previous;
+				previous = current;
+				current = swap;
+				current.reset();
+			}
+
+			if (++sinceRefresh < DELAY_REFRESH_INTERVAL && hedgeDelayNanos >= 0)
+				return;
+
+			sinceRefresh = 0;
+			final Histogram combined = current.copy();
+			combined.add(previous);
+			if (combined.getTotalCount() < minSamples)
+				return;
+
+			hedgeDelayNanos = Math.max(TimeUnit.MICROSECONDS.toNanos(combined.getValueAtPercentile(percentile)), minDelayNanos);
+		}
+
+		/*
+		 * -1 until enough samples have been recorded
+		 */
+		public long getHedgeDelayNanos()
+		{
+			return hedgeDelayNanos;
+		}
+	}
+
+	/*
+	 * Token bucket of hedges.  Each request deposits a fraction of a token and each hedge withdraws a whole token.
+	 */
+	protected static class HedgeBudget
+	{
+		protected final double ratio;
+
+		protected final double maxTokens;
+
+		protected double tokens;
+
+		public HedgeBudget(double ratio, int maxBurst)
+		{
+			this.ratio = ratio;
+			this.maxTokens = Math.max(maxBurst, 1);
+		}
+
+		public synchronized void deposit()
+		{
+			tokens = Math.min(tokens + ratio, maxTokens);
+		}
+
+		public synchronized boolean withdraw()
+		{
+			if (tokens < 1)
+				return false;
+
+			tokens -= 1;
+			return true;
+		}
+	}
+}
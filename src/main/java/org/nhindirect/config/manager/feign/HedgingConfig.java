@@ -0,0 +1,47 @@
+package org.nhindirect.config.manager.feign;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables hedging of idempotent config service lookups when direct.config.service.http.hedge.enabled is true.  See
+ * {@link HedgingClient} for the hedging rules and the direct.config.service.http.hedge properties for the delay
+ * percentile and the hedge budget.
+ *
+ * @since 8.0.1
+ */
+@Configuration
+@ConditionalOnProperty(name = "direct.config.service.http.hedge.enabled", havingValue = "true")
+public class HedgingConfig
+{
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService hedgingExecutor()
+	{
+		// callers block while their requests run, so the pool grows with caller concurrency and the hedge budget
+		final AtomicInteger threadCount = new AtomicInteger();
+		return Executors.newCachedThreadPool(r ->
+		{
+			final Thread thread = new Thread(r, "config-hedge-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	@Bean
+	public HedgingCapability hedgingCapability(@Qualifier("hedgingExecutor") ExecutorService executor,
+			@Value("${direct.config.service.http.hedge.percentile:95}") double percentile,
+			@Value("${direct.config.service.http.hedge.minDelayMillis:5}") long minDelayMillis,
+			@Value("${direct.config.service.http.hedge.minSamples:20}") int minSamples,
+			@Value("${direct.config.service.http.hedge.budgetPercent:5}") double budgetPercent,
+			@Value("${direct.config.service.http.hedge.maxBurst:10}") int maxBurst)
+	{
+		return new HedgingCapability(executor, percentile, minDelayMillis, minSamples, budgetPercent, maxBurst);
+	}
+}
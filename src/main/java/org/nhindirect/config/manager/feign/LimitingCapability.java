@@ -0,0 +1,34 @@
+package org.nhindirect.config.manager.feign;
+
+import org.springframework.core.Ordered;
+
+import feign.Capability;
+import feign.Client;
+
+/**
+ * Wraps the transport of every Feign client in a {@link LimitingClient}.  Applied after the metrics and before
+ * hedging, so recorded latency excludes time spent waiting for the limiter and hedges are limited as well.
+ *
+ * @since 8.0.1
+ */
+public class LimitingCapability implements Capability, Ordered
+{
+	protected final ConcurrencyLimiter limiter;
+
+	public LimitingCapability(ConcurrencyLimiter limiter)
+	{
+		this.limiter = limiter;
+	}
+
+	@Override
+	public Client enrich(Client client)
+	{
+		return new LimitingClient(client, limiter);
+	}
+
+	@Override
+	public int getOrder()
+	{
+		return 0;
+	}
+}
@@ -0,0 +1,59 @@
+package org.nhindirect.config.manager.feign;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * Sends requests through a delegate transport only as fast as a shared {@link ConcurrencyLimiter} allows, and
+ * feeds the latency and outcome of every request back into the limiter.
+ *
+ * @since 8.0.1
+ */
+public class LimitingClient implements Client
+{
+	protected final Client delegate;
+
+	protected final ConcurrencyLimiter limiter;
+
+	public LimitingClient(Client delegate, ConcurrencyLimiter limiter)
+	{
+		this.delegate = delegate;
+		this.limiter = limiter;
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException
+	{
+		try
+		{
+			limiter.acquire();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting to send " + request.url());
+		}
+
+		final long start = System.nanoTime();
+		boolean dropped = true;
+		try
+		{
+			final Response response = delegate.execute(request, options);
+			dropped = isOverloaded(response.status());
+			return response;
+		}
+		finally
+		{
+			limiter.release(System.nanoTime() - start, dropped);
+		}
+	}
+
+	protected static boolean isOverloaded(int status)
+	{
+		return status == 429 || status == 502 || status == 503 || status == 504;
+	}
+}
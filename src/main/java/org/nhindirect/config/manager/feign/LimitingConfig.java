@@ -0,0 +1,46 @@
+package org.nhindirect.config.manager.feign;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limits the config service requests of the whole manager with an adaptive {@link ConcurrencyLimiter} when
+ * direct.config.service.http.limit.enabled is true.  The limiter sits in the transport of every Feign client, so
+ * bulk and parallel commands, the asynchronous facades, and scripts are all throttled, while commands that make one
+ * request at a time are unaffected.  A fixed request rate cap is set with maxRequestsPerSecond.
+ *
+ * @since 8.0.1
+ */
+@Configuration
+@ConditionalOnProperty(name = "direct.config.service.http.limit.enabled", havingValue = "true")
+public class LimitingConfig
+{
+	@Bean
+	public ConcurrencyLimiter concurrencyLimiter(@Value("${direct.config.service.http.limit.initialLimit:8}") int initialLimit,
+			@Value("${direct.config.service.http.limit.minLimit:1}") int minLimit,
+			@Value("${direct.config.service.http.limit.maxLimit:64}") int maxLimit,
+			@Value("${direct.config.service.http.limit.maxRequestsPerSecond:0}") double maxRequestsPerSecond,
+			ObjectProvider<MeterRegistry> registry)
+	{
+		final ConcurrencyLimiter limiter = new ConcurrencyLimiter(initialLimit, minLimit, maxLimit, maxRequestsPerSecond);
+		registry.ifAvailable(r -> 
+		{
+			Gauge.builder("config.service.client.concurrency.limit", limiter, ConcurrencyLimiter::getLimit).register(r);
+			Gauge.builder("config.service.client.concurrency.inflight", limiter, ConcurrencyLimiter::getInFlight).register(r);
+		});
+		
+		return limiter;
+	}
+	
+	@Bean
+	public LimitingCapability limitingCapability(ConcurrencyLimiter concurrencyLimiter)
+	{
+		return new LimitingCapability(concurrencyLimiter);
+	}
+}
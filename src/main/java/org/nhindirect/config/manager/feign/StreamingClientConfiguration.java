@@ -0,0 +1,38 @@
+package org.nhindirect.config.manager.feign;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Scope;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.Feign;
+import feign.Retryer;
+import feign.codec.Decoder;
+import feign.optionals.OptionalDecoder;
+
+/**
+ * Feign configuration of the {@link StreamingConfigServiceClient}.  Only applies to that client.  The response must stay
+ * open after decoding so the returned iterators can keep reading from it.
+ *
+ * @since 8.0.1
+ */
+public class StreamingClientConfiguration
+{
+	@Bean
+	public Decoder streamingDecoder(ObjectMapper mapper, ObjectFactory<HttpMessageConverters> messageConverters)
+	{
+		return new StreamingJsonDecoder(mapper,
+				new GzipResponseDecoder(new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(messageConverters)))));
+	}
+
+	@Bean
+	@Scope("prototype")
+	public Feign.Builder streamingFeignBuilder(Retryer retryer)
+	{
+		return Feign.builder().retryer(retryer).doNotCloseAfterDecode();
+	}
+}
@@ -0,0 +1,37 @@
+package org.nhindirect.config.manager.feign;
+
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.common.rest.feign.DefaultFeignClientConfiguration;
+import org.nhindirect.config.model.Anchor;
+import org.nhindirect.config.model.Certificate;
+import org.nhindirect.config.model.DNSRecord;
+import org.nhindirect.config.model.TrustBundle;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Streaming variants of the config service calls that return the largest collections.  Records are decoded one at
+ * a time while the caller iterates, so listing commands print the first rows before the whole response has arrived
+ * and memory stays flat on large stores.  Every returned iterator must be closed.
+ *
+ * @since 8.0.1
+ */
+@FeignClient(name = "direct-config-service", contextId = "direct-config-service-streaming", url = "${direct.config.service.url}", primary = false,
+	configuration = {DefaultFeignClientConfiguration.class, StreamingClientConfiguration.class})
+public interface StreamingConfigServiceClient
+{
+	@GetMapping("/certificate")
+	public CloseableIterator<Certificate> streamCertificates() throws ServiceException;
+
+	@GetMapping("/anchor")
+	public CloseableIterator<Anchor> streamAnchors() throws ServiceException;
+
+	@GetMapping("/trustbundle")
+	public CloseableIterator<TrustBundle> streamTrustBundles(@RequestParam(name = "fetchAnchors", defaultValue = "true") boolean fetchAnchors)
+			throws ServiceException;
+
+	@GetMapping("/dns")
+	public CloseableIterator<DNSRecord> streamDNSRecords(@RequestParam(name = "type", defaultValue = "-1") int type,
+			@RequestParam(name = "name", defaultValue = "") String name) throws ServiceException;
+}
@@ -0,0 +1,157 @@
+package org.nhindirect.config.manager.feign;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.NoSuchElementException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import feign.FeignException;
+import feign.Response;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+
+/**
+ * Decodes a JSON array response into a {@link CloseableIterator} that parses one element at a time as the caller
+ * consumes it.  Large collections are never held in memory, and callers can process the first records before the
+ * rest of the response has arrived.  Return types other than {@link CloseableIterator} are handed to the delegate.
+ * <p>
+ * The client must be built with decode-time closing disabled, the iterator closes the response when it is exhausted
+ * or closed.
+ *
+ * @since 8.0.1
+ */
+public class StreamingJsonDecoder implements Decoder
+{
+	protected final ObjectMapper mapper;
+
+	protected final Decoder delegate;
+
+	public StreamingJsonDecoder(ObjectMapper mapper, Decoder delegate)
+	{
+		this.mapper = mapper;
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Object decode(Response response, Type type) throws IOException, FeignException
+	{
+		if (!(type instanceof ParameterizedType) || ((ParameterizedType)type).getRawType() != CloseableIterator.class)
+		{
+			try
+			{
+				return delegate.decode(response, type);
+			}
+			finally
+			{
+				response.close();
+			}
+		}
+
+		if (response.status() == 204 || response.body() == null)
+		{
+			response.close();
+			return CloseableIterator.of(null);
+		}
+
+		final Response plainResponse = GzipResponseDecoder.decompress(response);
+		final JsonParser parser = mapper.getFactory().createParser(plainResponse.body().asInputStream());
+		try
+		{
+			final JsonToken first = parser.nextToken();
+			if (first == null)
+			{
+				parser.close();
+				return CloseableIterator.of(null);
+			}
+			if (first != JsonToken.START_ARRAY)
+				throw new DecodeException(response.status(), "Expected a JSON array but found " + first, response.request());
+		}
+		catch (IOException | RuntimeException e)
+		{
+			Util.ensureClosed(parser);
+			response.close();
+			throw e;
+		}
+
+		final JavaType elementType = mapper.constructType(((ParameterizedType)type).getActualTypeArguments()[0]);
+		return new JsonArrayIterator<Object>(parser, elementType, response);
+	}
+
+	/*
+	 * Reads array elements on demand and releases the response at the end of the array
+	 */
+	protected class JsonArrayIterator<T> implements CloseableIterator<T>
+	{
+		protected final JsonParser parser;
+
+		protected final JavaType elementType;
+
+		protected final Response response;
+
+		protected T next;
+
+		protected boolean closed;
+
+		public JsonArrayIterator(JsonParser parser, JavaType elementType, Response response)
+		{
+			this.parser = parser;
+			this.elementType = elementType;
+			this.response = response;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			if (next != null)
+				return true;
+			if (closed)
+				return false;
+
+			try
+			{
+				final JsonToken token = parser.nextToken();
+				if (token == null || token == JsonToken.END_ARRAY)
+				{
+					close();
+					return false;
+				}
+
+				next = mapper.readValue(parser, elementType);
+				return true;
+			}
+			catch (IOException e)
+			{
+				close();
+				throw new DecodeException(response.status(), "Failed to read record: " + e.getMessage(), response.request(), e);
+			}
+		}
+
+		@Override
+		public T next()
+		{
+			if (!hasNext())
+				throw new NoSuchElementException();
+
+			final T retVal = next;
+			next = null;
+			return retVal;
+		}
+
+		@Override
+		public void close()
+		{
+			if (closed)
+				return;
+
+			closed = true;
+			Util.ensureClosed(parser);
+			response.close();
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package org.nhindirect.config.manager.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+
+/**
+ * Records per call metrics of every Feign config service client in a Micrometer registry and reports them when the
+ * manager exits.  Enabled with direct.config.service.metrics.enabled.  The report is configured with the
+ * direct.config.service.metrics properties:
+ * <ul>
+ * <li>summary - Prints a per call latency and bytes summary.</li>
+ * <li>file - Writes the metrics to a file in the Prometheus text format.</li>
+ * <li>pushgateway.url and pushgateway.job - Pushes the metrics to a Prometheus pushgateway.</li>
+ * </ul>
+ * The reporter is created eagerly even in fast-start mode, otherwise nothing would be reported.
+ *
+ * @since 8.0.1
+ */
+@Configuration
+@ConditionalOnProperty(name = "direct.config.service.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class ClientMetricsConfig
+{
+	@Bean(destroyMethod = "close")
+	public PrometheusMeterRegistry clientMeterRegistry()
+	{
+		return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+	}
+	
+	@Bean
+	public MetricsCapability metricsCapability(PrometheusMeterRegistry clientMeterRegistry)
+	{
+		return new MetricsCapability(clientMeterRegistry);
+	}
+	
+	@Bean(destroyMethod = "report")
+	@Lazy(false)
+	public MetricsReporter metricsReporter(PrometheusMeterRegistry clientMeterRegistry, 
+			@Value("${direct.config.service.metrics.summary:false}") boolean printSummary,
+			@Value("${direct.config.service.metrics.file:}") String file,
+			@Value("${direct.config.service.metrics.pushgateway.url:}") String pushgatewayURL,
+			@Value("${direct.config.service.metrics.pushgateway.job:config-manager}") String job)
+	{
+		return new MetricsReporter(clientMeterRegistry, printSummary, file, pushgatewayURL, job);
+	}
+}
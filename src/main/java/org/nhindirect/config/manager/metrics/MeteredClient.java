@@ -0,0 +1,175 @@
+package org.nhindirect.config.manager.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+import feign.Target;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Feign client that records a timer and byte counters for every config service call made through a delegate client.
+ * <p>
+ * The {@value #REQUEST_TIMER} timer measures each HTTP exchange until the response headers arrive.  Every retry is
+ * recorded separately.  It is tagged with the service (the Feign client interface), the operation (the client
+ * method), the HTTP status, and the outcome (SUCCESS, REDIRECTION, CLIENT_ERROR, SERVER_ERROR, or UNKNOWN for calls
+ * that failed without a response).  The {@value #BYTES_SENT} and {@value #BYTES_RECEIVED} counters are tagged with
+ * service and operation and count body bytes on the wire.  Received bytes are counted as the caller reads the body,
+ * so streamed listings are counted in full.
+ *
+ * @since 8.0.1
+ */
+public class MeteredClient implements Client
+{
+	public static final String REQUEST_TIMER = "config.service.client.requests";
+
+	public static final String BYTES_SENT = "config.service.client.bytes.sent";
+
+	public static final String BYTES_RECEIVED = "config.service.client.bytes.received";
+
+	protected static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+	protected final Client delegate;
+
+	protected final MeterRegistry registry;
+
+	public MeteredClient(Client delegate, MeterRegistry registry)
+	{
+		this.delegate = delegate;
+		this.registry = registry;
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException
+	{
+		final Tags callTags = callTags(request);
+
+		final byte[] body = request.body();
+		if (body != null)
+			registry.counter(BYTES_SENT, callTags).increment(body.length);
+
+		final long start = System.nanoTime();
+		Response response = null;
+		try
+		{
+			response = delegate.execute(request, options);
+		}
+		finally
+		{
+			final long elapsed = System.nanoTime() - start;
+			final Tags resultTags = (response == null) ? callTags.and("status", "IO_ERROR", "outcome", "UNKNOWN") :
+				callTags.and("status", Integer.toString(response.status()), "outcome", outcome(response.status()));
+			Timer.builder(REQUEST_TIMER).tags(resultTags).publishPercentiles(PERCENTILES).register(registry)
+				.record(elapsed, TimeUnit.NANOSECONDS);
+		}
+
+		if (response.body() == null)
+			return response;
+
+		return response.toBuilder().body(new CountingBody(response.body(), registry.counter(BYTES_RECEIVED, callTags))).build();
+	}
+
+	/*
+	 * The service and operation of a request, taken from the Feign client method that built it
+	 */
+	protected static Tags callTags(Request request)
+	{
+		final MethodMetadata metadata = request.requestTemplate().methodMetadata();
+		final Target<?> target = request.requestTemplate().feignTarget();
+
+		final String service = (target != null) ? target.type().getSimpleName() : "unknown";
+		final String operation = (metadata != null && metadata.method() != null) ? metadata.method().getName() : request.httpMethod().name();
+
+		return Tags.of("service", service, "operation", operation);
+	}
+
+	protected static String outcome(int status)
+	{
+		if (status >= 200 && status < 300)
+			return "SUCCESS";
+		if (status >= 300 && status < 400)
+			return "REDIRECTION";
+		if (status >= 400 && status < 500)
+			return "CLIENT_ERROR";
+		if (status >= 500 && status < 600)
+			return "SERVER_ERROR";
+
+		return "UNKNOWN";
+	}
+
+	/*
+	 * Counts response body bytes as they are read
+	 */
+	protected static class CountingBody implements Response.Body
+	{
+		protected final Response.Body delegate;
+
+		protected final Counter counter;
+
+		public CountingBody(Response.Body delegate, Counter counter)
+		{
+			this.delegate = delegate;
+			this.counter = counter;
+		}
+
+		@Override
+		public Integer length()
+		{
+			return delegate.length();
+		}
+
+		@Override
+		public boolean isRepeatable()
+		{
+			return delegate.isRepeatable();
+		}
+
+		@Override
+		public InputStream asInputStream() throws IOException
+		{
+			return new FilterInputStream(delegate.asInputStream())
+			{
+				@Override
+				public int read() throws IOException
+				{
+					final int retVal = super.read();
+					if (retVal >= 0)
+						counter.increment();
+					return retVal;
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) throws IOException
+				{
+					final int retVal = super.read(b, off, len);
+					if (retVal > 0)
+						counter.increment(retVal);
+					return retVal;
+				}
+			};
+		}
+
+		@Override
+		public Reader asReader(Charset charset) throws IOException
+		{
+			return new InputStreamReader(asInputStream(), charset);
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			delegate.close();
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package org.nhindirect.config.manager.metrics;
+
+import org.springframework.core.Ordered;
+
+import feign.Capability;
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wraps the transport of every Feign config service client in a {@link MeteredClient}.  Applied before other
+ * capabilities so the metered client is the innermost wrapper and records every HTTP exchange, including hedges.
+ *
+ * @since 8.0.1
+ */
+public class MetricsCapability implements Capability, Ordered
+{
+	protected final MeterRegistry registry;
+
+	public MetricsCapability(MeterRegistry registry)
+	{
+		this.registry = registry;
+	}
+
+	@Override
+	public Client enrich(Client client)
+	{
+		return new MeteredClient(client, registry);
+	}
+
+	@Override
+	public int getOrder()
+	{
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+}
@@ -0,0 +1,181 @@
+package org.nhindirect.config.manager.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+
+/**
+ * Reports the config service client metrics when the manager exits.  The metrics can be printed as a per call
+ * summary, written to a file in the Prometheus text format, and pushed to a Prometheus pushgateway.
+ *
+ * @since 8.0.1
+ */
+public class MetricsReporter
+{
+	protected static final String SUMMARY_FORMAT = "%-28s %-28s %6s %-12s %8s %10s %10s %10s %10s %10s %12s %12s";
+
+	protected final PrometheusMeterRegistry registry;
+
+	protected final boolean printSummary;
+
+	protected final String file;
+
+	protected final String pushgatewayURL;
+
+	protected final String job;
+
+	/**
+	 * Constructor.
+	 * @param registry The registry holding the client metrics.
+	 * @param printSummary Indicates if a summary is printed.
+	 * @param file The file the metrics are written to.  Empty if no file is written.
+	 * @param pushgatewayURL The base URL of the pushgateway.  Empty if metrics are not pushed.
+	 * @param job The job name the metrics are pushed under.
+	 */
+	public MetricsReporter(PrometheusMeterRegistry registry, boolean printSummary, String file, String pushgatewayURL, String job)
+	{
+		this.registry = registry;
+		this.printSummary = printSummary;
+		this.file = file;
+		this.pushgatewayURL = pushgatewayURL;
+		this.job = job;
+	}
+
+	/**
+	 * Prints, writes, and pushes the metrics as configured.  Failures are reported but do not fail the manager.
+	 */
+	public void report()
+	{
+		if (printSummary)
+			printSummary();
+
+		if (!file.isEmpty())
+		{
+			try
+			{
+				Files.write(Paths.get(file), registry.scrape().getBytes(StandardCharsets.UTF_8));
+				System.out.println("Client metrics written to " + file);
+			}
+			catch (IOException e)
+			{
+				System.err.println("Failed to write client metrics to " + file + ": " + e.getMessage());
+			}
+		}
+
+		if (!pushgatewayURL.isEmpty())
+		{
+			try
+			{
+				push();
+			}
+			catch (IOException e)
+			{
+				System.err.println("Failed to push client metrics to " + pushgatewayURL + ": " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Prints one line per service, operation, and status with latency percentiles and bytes transferred.
+	 */
+	public void printSummary()
+	{
+		final List<Timer> timers = new ArrayList<Timer>(registry.find(MeteredClient.REQUEST_TIMER).timers());
+		if (timers.isEmpty())
+			return;
+
+		timers.sort(Comparator.comparing((Timer t) -> t.getId().getTag("service"))
+			.thenComparing(t -> t.getId().getTag("operation")).thenComparing(t -> t.getId().getTag("status")));
+
+		System.out.println("\r\nConfig service client calls (latency in ms):");
+		System.out.println(String.format(Locale.US, SUMMARY_FORMAT, "Service", "Operation", "Status", "Outcome", "Count", "Mean", 
+				"p50", "p95", "p99", "Max", "Bytes Sent", "Bytes Recv"));
+
+		for (Timer timer : timers)
+		{
+			final String service = timer.getId().getTag("service");
+			final String operation = timer.getId().getTag("operation");
+			final HistogramSnapshot snapshot = timer.takeSnapshot();
+
+			System.out.println(String.format(Locale.US, SUMMARY_FORMAT, service, operation, timer.getId().getTag("status"),
+					timer.getId().getTag("outcome"), Long.toString(snapshot.count()), millis(snapshot.mean(TimeUnit.NANOSECONDS)),
+					millis(percentile(snapshot, 0.5)), millis(percentile(snapshot, 0.95)), millis(percentile(snapshot, 0.99)),
+					millis(snapshot.max(TimeUnit.NANOSECONDS)), bytes(MeteredClient.BYTES_SENT, service, operation),
+					bytes(MeteredClient.BYTES_RECEIVED, service, operation)));
+		}
+	}
+
+	/*
+	 * PUTs the metrics of this run, replacing the previous run of the same job
+	 */
+	protected void push() throws IOException
+	{
+		final String base = pushgatewayURL.endsWith("/") ? pushgatewayURL.substring(0, pushgatewayURL.length() - 1) : pushgatewayURL;
+		final URL url = new URL(base + "/metrics/job/" + URLEncoder.encode(job, "UTF-8"));
+		final byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+
+		final HttpURLConnection conn = (HttpURLConnection)url.openConnection();
+		try
+		{
+			conn.setRequestMethod("PUT");
+			conn.setDoOutput(true);
+			conn.setConnectTimeout(10000);
+			conn.setReadTimeout(10000);
+			conn.setRequestProperty("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+			conn.setFixedLengthStreamingMode(body.length);
+			try (OutputStream out = conn.getOutputStream())
+			{
+				out.write(body);
+			}
+
+			final int status = conn.getResponseCode();
+			if (status / 100 != 2)
+				throw new IOException("Pushgateway responded with HTTP status " + status);
+
+			System.out.println("Client metrics pushed to " + url);
+		}
+		finally
+		{
+			conn.disconnect();
+		}
+	}
+
+	protected static double percentile(HistogramSnapshot snapshot, double percentile)
+	{
+		for (ValueAtPercentile value : snapshot.percentileValues())
+		{
+			if (value.percentile() == percentile)
+				return value.value(TimeUnit.NANOSECONDS);
+		}
+
+		return Double.NaN;
+	}
+
+	protected static String millis(double nanos)
+	{
+		return Double.isNaN(nanos) ? "-" : String.format(Locale.US, "%.2f", nanos / 1000000.0);
+	}
+
+	protected String bytes(String name, String service, String operation)
+	{
+		final Counter counter = registry.find(name).tag("service", service).tag("operation", operation).counter();
+
+		return (counter == null) ? "0" : Long.toString((long)counter.count());
+	}
+}
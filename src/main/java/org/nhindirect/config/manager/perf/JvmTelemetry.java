@@ -0,0 +1,227 @@
+package org.nhindirect.config.manager.perf;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Samples heap usage, garbage collection pauses, and thread counts of the load generator's own JVM using the platform
+ * MXBeans.  Long running tests report these next to the service latencies so that client side artifacts such as a
+ * GC pause in the load generator can be told apart from service degradation.
+ * <p>
+ * Individual pause times are collected from GC notifications when the JVM supports them.  Otherwise only the
+ * accumulated collection time is reported.
+ *
+ * @since 8.0.1
+ */
+public class JvmTelemetry implements AutoCloseable
+{
+	protected final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+
+	protected final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+	protected final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+	protected final List<NotificationEmitter> registeredEmitters = new ArrayList<NotificationEmitter>();
+
+	protected final NotificationListener gcListener = this::handleGcNotification;
+
+	protected final AtomicLong intervalPauses = new AtomicLong();
+
+	protected final AtomicLong intervalMaxPauseMillis = new AtomicLong();
+
+	protected long lastCollectionCount;
+
+	protected long lastCollectionMillis;
+
+	/**
+	 * A point in time sample of the JVM.  GC values cover the interval since the previous sample.
+	 */
+	public static class Sample
+	{
+		protected final long heapUsed;
+
+		protected final long heapCommitted;
+
+		protected final long heapMax;
+
+		protected final long collections;
+
+		protected final long collectionMillis;
+
+		protected final long pauses;
+
+		protected final long maxPauseMillis;
+
+		protected final int threadCount;
+
+		protected final int peakThreadCount;
+
+		public Sample(long heapUsed, long heapCommitted, long heapMax, long collections, long collectionMillis, long pauses,
+				long maxPauseMillis, int threadCount, int peakThreadCount)
+		{
+			this.heapUsed = heapUsed;
+			this.heapCommitted = heapCommitted;
+			this.heapMax = heapMax;
+			this.collections = collections;
+			this.collectionMillis = collectionMillis;
+			this.pauses = pauses;
+			this.maxPauseMillis = maxPauseMillis;
+			this.threadCount = threadCount;
+			this.peakThreadCount = peakThreadCount;
+		}
+
+		public long getHeapUsed()
+		{
+			return heapUsed;
+		}
+
+		public long getHeapCommitted()
+		{
+			return heapCommitted;
+		}
+
+		public long getHeapMax()
+		{
+			return heapMax;
+		}
+
+		public long getCollections()
+		{
+			return collections;
+		}
+
+		public long getCollectionMillis()
+		{
+			return collectionMillis;
+		}
+
+		public long getPauses()
+		{
+			return pauses;
+		}
+
+		public long getMaxPauseMillis()
+		{
+			return maxPauseMillis;
+		}
+
+		public int getThreadCount()
+		{
+			return threadCount;
+		}
+
+		public int getPeakThreadCount()
+		{
+			return peakThreadCount;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format(Locale.US, "heap=%dMB/%dMB gc=%d (%dms, %d pause(s), max %dms) threads=%d (peak %d)", 
+					toMB(heapUsed), toMB(heapCommitted), collections, collectionMillis, pauses, maxPauseMillis, threadCount, peakThreadCount);
+		}
+
+		protected static long toMB(long bytes)
+		{
+			return bytes / (1024 * 1024);
+		}
+	}
+
+	/**
+	 * Starts collecting telemetry.  The first sample covers the time since construction.
+	 */
+	public JvmTelemetry()
+	{
+		for (GarbageCollectorMXBean gcBean : gcBeans)
+		{
+			lastCollectionCount += Math.max(gcBean.getCollectionCount(), 0);
+			lastCollectionMillis += Math.max(gcBean.getCollectionTime(), 0);
+
+			if (gcBean instanceof NotificationEmitter)
+			{
+				try
+				{
+					((NotificationEmitter)gcBean).addNotificationListener(gcListener, null, null);
+					registeredEmitters.add((NotificationEmitter)gcBean);
+				}
+				catch (Exception e)
+				{
+					// pause times are not available, fall back to accumulated collection time
+				}
+			}
+		}
+	}
+
+	/**
+	 * Takes a sample and resets the interval GC counters.
+	 * @return The sample.
+	 */
+	public synchronized Sample sample()
+	{
+		long collectionCount = 0;
+		long collectionMillis = 0;
+		for (GarbageCollectorMXBean gcBean : gcBeans)
+		{
+			collectionCount += Math.max(gcBean.getCollectionCount(), 0);
+			collectionMillis += Math.max(gcBean.getCollectionTime(), 0);
+		}
+
+		final MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+		final Sample sample = new Sample(heap.getUsed(), heap.getCommitted(), heap.getMax(), collectionCount - lastCollectionCount,
+				collectionMillis - lastCollectionMillis, intervalPauses.getAndSet(0), intervalMaxPauseMillis.getAndSet(0),
+				threadBean.getThreadCount(), threadBean.getPeakThreadCount());
+
+		lastCollectionCount = collectionCount;
+		lastCollectionMillis = collectionMillis;
+
+		return sample;
+	}
+
+	/*
+	 * Tracks stop the world pauses.  Concurrent collector cycles do not pause the application and are ignored.
+	 */
+	protected void handleGcNotification(Notification notification, Object handback)
+	{
+		if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType()))
+			return;
+
+		final GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData)notification.getUserData());
+		if (info.getGcName().contains("Concurrent") || info.getGcName().contains("Cycles"))
+			return;
+
+		final long duration = info.getGcInfo().getDuration();
+		intervalPauses.incrementAndGet();
+		intervalMaxPauseMillis.accumulateAndGet(duration, Math::max);
+	}
+
+	@Override
+	public void close()
+	{
+		for (NotificationEmitter emitter : registeredEmitters)
+		{
+			try
+			{
+				emitter.removeNotificationListener(gcListener);
+			}
+			catch (Exception e)
+			{
+				// already removed
+			}
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package org.nhindirect.config.manager.perf;
+
+/**
+ * A single unit of work executed by the load runner.  Implementations typically make one call to the configuration service.
+ *
+ * @since 8.0.1
+ */
+@FunctionalInterface
+public interface LoadOperation
+{
+	/**
+	 * Executes the operation.
+	 * @param iteration The zero based index of the operation within the phase.  Useful for generating unique entity names.
+	 * @throws Exception Thrown if the operation fails.  The failure is counted as an error in the phase statistics.
+	 */
+	public void execute(int iteration) throws Exception;
+}
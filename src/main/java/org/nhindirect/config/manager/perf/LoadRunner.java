@@ -0,0 +1,354 @@
+package org.nhindirect.config.manager.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.WriterReaderPhaser;
+
+/**
+ * Executes load test phases using a configurable number of concurrent workers.  Each worker pulls the next iteration
+ * from a shared counter until the requested number of operations has been executed.  With a single worker the
+ * operations are executed sequentially in iteration order.
+ * <p>
+ * Phases can also be run open loop at a constant arrival rate.  In this mode each operation has an intended send time
+ * and its latency is measured from that time rather than from when a worker got around to sending it.  This avoids
+ * coordinated omission where a stalled service slows down the load generator and hides the stall from the results.
+ *
+ * @since 8.0.1
+ */
+public class LoadRunner
+{
+	protected final int workers;
+
+	protected final ThreadingMode threadingMode;
+
+	public LoadRunner(int workers, ThreadingMode threadingMode)
+	{
+		if (workers < 1)
+			throw new IllegalArgumentException("Worker count must be at least 1");
+
+		this.workers = workers;
+		this.threadingMode = threadingMode;
+	}
+
+	public int getWorkers()
+	{
+		return workers;
+	}
+
+	public ThreadingMode getThreadingMode()
+	{
+		return threadingMode;
+	}
+
+	/**
+	 * Runs a phase consisting of a single operation type.
+	 * @param phaseName The name of the phase.
+	 * @param operation The name of the operation used when reporting statistics.
+	 * @param operations The number of times the operation is executed.
+	 * @param op The operation.
+	 * @return The phase result.
+	 * @throws InterruptedException Thrown if the calling thread is interrupted while waiting for the workers.
+	 */
+	public PhaseResult runPhase(String phaseName, String operation, int operations, LoadOperation op) throws InterruptedException
+	{
+		return runPhase(phaseName, operations, WeightedOperationMix.of(operation, op));
+	}
+
+	/**
+	 * Runs a phase where each iteration executes an operation randomly selected from a weighted mix.  Statistics
+	 * are kept separately for each operation type.
+	 * @param phaseName The name of the phase.
+	 * @param operations The total number of operations executed.
+	 * @param mix The weighted operation mix.
+	 * @return The phase result.
+	 * @throws InterruptedException Thrown if the calling thread is interrupted while waiting for the workers.
+	 */
+	public PhaseResult runPhase(String phaseName, int operations, WeightedOperationMix mix) throws InterruptedException
+	{
+		final PhaseResult result = new PhaseResult(phaseName);
+		final AtomicInteger nextIteration = new AtomicInteger();
+
+		// create the stats up front so they are reported in mix order
+		for (WeightedOperationMix.Entry entry : mix.getEntries())
+			result.getOperationStats(entry.getOperation());
+
+		final long startTime = System.nanoTime();
+
+		runWorkers(Math.min(workers, Math.max(operations, 1)), () ->
+		{
+			int iteration;
+			while ((iteration = nextIteration.getAndIncrement()) < operations)
+				execute(mix.select(), iteration, result);
+		});
+
+		result.complete(System.nanoTime() - startTime);
+
+		return result;
+	}
+
+	/**
+	 * Runs a phase open loop where operations are scheduled at a constant arrival rate regardless of how quickly the
+	 * service responds.  Latency is measured from each operation's intended send time, so operations that are delayed
+	 * because all workers are busy waiting on a slow service are charged for the time they spent waiting.  The worker
+	 * count limits the number of outstanding operations and should be large enough to absorb the expected latency
+	 * at the target rate.
+	 * @param phaseName The name of the phase.
+	 * @param ratePerSecond The target arrival rate in operations per second.
+	 * @param operations The total number of operations executed.
+	 * @param mix The weighted operation mix.
+	 * @return The phase result.
+	 * @throws InterruptedException Thrown if the calling thread is interrupted while waiting for the workers.
+	 */
+	public PhaseResult runPhaseAtRate(String phaseName, double ratePerSecond, int operations, WeightedOperationMix mix) throws InterruptedException
+	{
+		if (ratePerSecond <= 0)
+			throw new IllegalArgumentException("The arrival rate must be greater than 0");
+
+		final PhaseResult result = new PhaseResult(phaseName);
+		final AtomicInteger nextIteration = new AtomicInteger();
+		final double intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+
+		for (WeightedOperationMix.Entry entry : mix.getEntries())
+			result.getOperationStats(entry.getOperation());
+
+		final long startTime = System.nanoTime();
+
+		runWorkers(Math.min(workers, Math.max(operations, 1)), () ->
+		{
+			int iteration;
+			while ((iteration = nextIteration.getAndIncrement()) < operations)
+			{
+				final long intendedStartTime = startTime + (long)(iteration * intervalNanos);
+
+				// wait for the scheduled send time.  if the worker is already late the operation is sent immediately
+				// and the time it spent queued is included in its latency
+				long waitNanos;
+				while ((waitNanos = intendedStartTime - System.nanoTime()) > 0)
+				{
+					LockSupport.parkNanos(waitNanos);
+					if (Thread.currentThread().isInterrupted())
+						return;
+				}
+
+				execute(mix.select(), iteration, result, intendedStartTime);
+			}
+		});
+
+		result.complete(System.nanoTime() - startTime);
+
+		return result;
+	}
+
+	/**
+	 * Runs a phase for a fixed duration instead of a fixed number of operations.  The workers run closed loop
+	 * until the duration expires.  At the end of every reporting interval the listener receives the statistics of
+	 * just that interval, which makes slow degradation visible during long soak runs.  Operations are counted in the
+	 * interval in which they complete, and an interval is only reported once every operation counted in it has been
+	 * recorded.
+	 * @param phaseName The name of the phase.
+	 * @param durationMillis How long the phase runs in milliseconds.
+	 * @param intervalMillis The length of a reporting interval in milliseconds.
+	 * @param mix The weighted operation mix.
+	 * @param intervalListener Receives the result of each completed interval, including the final partial interval.
+	 * @return The result of the entire phase.
+	 * @throws InterruptedException Thrown if the calling thread is interrupted while waiting for the workers.
+	 */
+	public PhaseResult runPhaseForDuration(String phaseName, long durationMillis, long intervalMillis, WeightedOperationMix mix,
+			Consumer<PhaseResult> intervalListener) throws InterruptedException
+	{
+		if (durationMillis <= 0 || intervalMillis <= 0)
+			throw new IllegalArgumentException("The duration and interval must be greater than 0");
+
+		final PhaseResult result = new PhaseResult(phaseName);
+		final AtomicInteger nextIteration = new AtomicInteger();
+
+		for (WeightedOperationMix.Entry entry : mix.getEntries())
+			result.getOperationStats(entry.getOperation());
+
+		final AtomicInteger intervalCount = new AtomicInteger(1);
+		final AtomicReference<PhaseResult> interval = new AtomicReference<PhaseResult>(new PhaseResult(phaseName + " interval 1"));
+
+		final long startTime = System.nanoTime();
+		final long deadline = startTime + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+		final AtomicLong intervalStartTime = new AtomicLong(startTime);
+		// the same scheme HdrHistogram's Recorder uses to swap interval histograms without locking the writers
+		final WriterReaderPhaser intervalPhaser = new WriterReaderPhaser();
+
+		// a separate thread rolls the interval over so the workers never block on reporting
+		final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r ->
+		{
+			final Thread thread = new Thread(r, "load-interval-reporter");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		final Runnable rollInterval = () ->
+		{
+			try
+			{
+				final long now;
+				final PhaseResult completed;
+				intervalPhaser.readerLock();
+				try
+				{
+					now = System.nanoTime();
+					completed = interval.getAndSet(new PhaseResult(phaseName + " interval " + intervalCount.incrementAndGet()));
+					// waits for workers that are still recording into the completed interval
+					intervalPhaser.flipPhase();
+				}
+				finally
+				{
+					intervalPhaser.readerUnlock();
+				}
+
+				completed.complete(now - intervalStartTime.getAndSet(now));
+				intervalListener.accept(completed);
+			}
+			catch (RuntimeException e)
+			{
+				// an exception thrown here would silently cancel the remaining interval reports
+				System.err.println("Failed to report load test interval: " + e.getMessage());
+			}
+		};
+
+		try
+		{
+			reporter.scheduleAtFixedRate(rollInterval, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+
+			runWorkers(workers, () ->
+			{
+				while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted())
+				{
+					execute(mix.select(), nextIteration.getAndIncrement(), result, interval, intervalPhaser);
+				}
+			});
+		}
+		finally
+		{
+			reporter.shutdownNow();
+		}
+
+		result.complete(System.nanoTime() - startTime);
+
+		// report the final partial interval
+		reporter.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS);
+		rollInterval.run();
+
+		return result;
+	}
+
+	/*
+	 * Executes and times a single operation
+	 */
+	protected void execute(WeightedOperationMix.Entry entry, int iteration, PhaseResult result)
+	{
+		execute(entry, iteration, result, System.nanoTime());
+	}
+
+	/*
+	 * Executes a single operation and records its latency relative to the given start time
+	 */
+	protected void execute(WeightedOperationMix.Entry entry, int iteration, PhaseResult result, long opStartTime)
+	{
+		final OperationStats stats = result.getOperationStats(entry.getOperation());
+		try
+		{
+			entry.getOp().execute(iteration);
+
+			stats.recordSuccess(System.nanoTime() - opStartTime);
+		}
+		catch (Exception e)
+		{
+			stats.recordError(e, System.nanoTime() - opStartTime);
+		}
+	}
+
+	/*
+	 * Executes a single operation and records its latency in the phase and in the interval that is current when the
+	 * operation completes
+	 */
+	protected void execute(WeightedOperationMix.Entry entry, int iteration, PhaseResult result, AtomicReference<PhaseResult> interval,
+			WriterReaderPhaser intervalPhaser)
+	{
+		final long opStartTime = System.nanoTime();
+		Exception error = null;
+		try
+		{
+			entry.getOp().execute(iteration);
+		}
+		catch (Exception e)
+		{
+			error = e;
+		}
+		final long latency = System.nanoTime() - opStartTime;
+
+		record(result.getOperationStats(entry.getOperation()), error, latency);
+
+		final long criticalValue = intervalPhaser.writerCriticalSectionEnter();
+		try
+		{
+			record(interval.get().getOperationStats(entry.getOperation()), error, latency);
+		}
+		finally
+		{
+			intervalPhaser.writerCriticalSectionExit(criticalValue);
+		}
+	}
+
+	protected static void record(OperationStats stats, Exception error, long latency)
+	{
+		if (error == null)
+			stats.recordSuccess(latency);
+		else
+			stats.recordError(error, latency);
+	}
+
+	/*
+	 * Runs the worker body on the requested number of threads and waits for all of them to complete
+	 */
+	protected void runWorkers(int workerCount, Runnable worker) throws InterruptedException
+	{
+		if (workerCount == 1)
+		{
+			// no need for thread hand off when running sequentially
+			worker.run();
+			return;
+		}
+
+		final ExecutorService executor = threadingMode.newExecutor(workerCount);
+		try
+		{
+			final List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int i = 0; i < workerCount; ++i)
+				futures.add(executor.submit(worker));
+
+			for (Future<?> future : futures)
+			{
+				try
+				{
+					future.get();
+				}
+				catch (ExecutionException e)
+				{
+					throw new IllegalStateException("Load test worker failed: " + e.getCause().getMessage(), e.getCause());
+				}
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+}
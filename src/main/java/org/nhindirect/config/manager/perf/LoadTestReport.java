@@ -0,0 +1,386 @@
+package org.nhindirect.config.manager.perf;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * A machine readable summary of a load test run.  The report contains the run parameters and the counts, errors,
+ * throughput, and latency percentiles of every operation in every phase.  Reports are written as JSON so they can
+ * be archived and used as a baseline for later runs.
+ *
+ * @since 8.0.1
+ */
+public class LoadTestReport
+{
+	protected static final ObjectMapper MAPPER = new ObjectMapper()
+			.enable(SerializationFeature.INDENT_OUTPUT)
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+	protected String testName;
+
+	protected long timestamp;
+
+	/*
+	 * False if the run aborted before all of its phases ran.  Reports written before this was recorded are complete.
+	 */
+	protected boolean complete = true;
+
+	protected Map<String, String> parameters = new LinkedHashMap<String, String>();
+
+	protected List<OperationReport> operations = new ArrayList<OperationReport>();
+
+	/**
+	 * The results of a single operation type within a phase.
+	 */
+	public static class OperationReport
+	{
+		protected String phase;
+
+		protected String operation;
+
+		protected long count;
+
+		protected long errors;
+
+		protected long elapsedMillis;
+
+		protected double throughput;
+
+		protected double minMillis;
+
+		protected double p50Millis;
+
+		protected double p90Millis;
+
+		protected double p99Millis;
+
+		protected double p999Millis;
+
+		protected double maxMillis;
+
+		public OperationReport()
+		{
+		}
+
+		public OperationReport(OperationStats stats)
+		{
+			this.phase = stats.getPhase();
+			this.operation = stats.getOperation();
+			this.count = stats.getCount();
+			this.errors = stats.getErrors();
+			this.elapsedMillis = stats.getElapsedMillis();
+			this.throughput = stats.getThroughput();
+			this.minMillis = stats.getMinLatencyMillis();
+			this.p50Millis = stats.getLatencyMillis(50);
+			this.p90Millis = stats.getLatencyMillis(90);
+			this.p99Millis = stats.getLatencyMillis(99);
+			this.p999Millis = stats.getLatencyMillis(99.9);
+			this.maxMillis = stats.getMaxLatencyMillis();
+		}
+
+		/**
+		 * Gets the key that identifies the operation across runs.
+		 * @return The phase and operation name.
+		 */
+		public String key()
+		{
+			return phase + " / " + operation;
+		}
+
+		/**
+		 * Gets the share of executions that failed.
+		 * @return The failed executions in percent of all executions.
+		 */
+		public double errorPercent()
+		{
+			return (count == 0) ? 0 : errors * 100.0 / count;
+		}
+
+		public String getPhase()
+		{
+			return phase;
+		}
+
+		public void setPhase(String phase)
+		{
+			this.phase = phase;
+		}
+
+		public String getOperation()
+		{
+			return operation;
+		}
+
+		public void setOperation(String operation)
+		{
+			this.operation = operation;
+		}
+
+		public long getCount()
+		{
+			return count;
+		}
+
+		public void setCount(long count)
+		{
+			this.count = count;
+		}
+
+		public long getErrors()
+		{
+			return errors;
+		}
+
+		public void setErrors(long errors)
+		{
+			this.errors = errors;
+		}
+
+		public long getElapsedMillis()
+		{
+			return elapsedMillis;
+		}
+
+		public void setElapsedMillis(long elapsedMillis)
+		{
+			this.elapsedMillis = elapsedMillis;
+		}
+
+		public double getThroughput()
+		{
+			return throughput;
+		}
+
+		public void setThroughput(double throughput)
+		{
+			this.throughput = throughput;
+		}
+
+		public double getMinMillis()
+		{
+			return minMillis;
+		}
+
+		public void setMinMillis(double minMillis)
+		{
+			this.minMillis = minMillis;
+		}
+
+		public double getP50Millis()
+		{
+			return p50Millis;
+		}
+
+		public void setP50Millis(double p50Millis)
+		{
+			this.p50Millis = p50Millis;
+		}
+
+		public double getP90Millis()
+		{
+			return p90Millis;
+		}
+
+		public void setP90Millis(double p90Millis)
+		{
+			this.p90Millis = p90Millis;
+		}
+
+		public double getP99Millis()
+		{
+			return p99Millis;
+		}
+
+		public void setP99Millis(double p99Millis)
+		{
+			this.p99Millis = p99Millis;
+		}
+
+		public double getP999Millis()
+		{
+			return p999Millis;
+		}
+
+		public void setP999Millis(double p999Millis)
+		{
+			this.p999Millis = p999Millis;
+		}
+
+		public double getMaxMillis()
+		{
+			return maxMillis;
+		}
+
+		public void setMaxMillis(double maxMillis)
+		{
+			this.maxMillis = maxMillis;
+		}
+	}
+
+	public LoadTestReport()
+	{
+	}
+
+	/**
+	 * Creates a report from the results of a run.
+	 * @param testName The name of the test command that was run.
+	 * @param parameters The run parameters in the order they should be reported.
+	 * @param results The phase results of the run.
+	 */
+	public LoadTestReport(String testName, Map<String, String> parameters, List<PhaseResult> results)
+	{
+		this.testName = testName;
+		this.timestamp = System.currentTimeMillis();
+		this.parameters.putAll(parameters);
+
+		for (PhaseResult result : results)
+		{
+			for (OperationStats stats : result.getOperations())
+				operations.add(new OperationReport(stats));
+		}
+	}
+
+	/**
+	 * Reads a report previously written with {@link #write(File)}.
+	 * @param file The report file.
+	 * @return The report.
+	 * @throws IOException Thrown if the file cannot be read or is not a valid report.
+	 */
+	public static LoadTestReport read(File file) throws IOException
+	{
+		return MAPPER.readValue(file, LoadTestReport.class);
+	}
+
+	/**
+	 * Writes the report as JSON.
+	 * @param file The file to write to.  An existing file is overwritten.
+	 * @throws IOException Thrown if the file cannot be written.
+	 */
+	public void write(File file) throws IOException
+	{
+		MAPPER.writeValue(file, this);
+	}
+
+	/**
+	 * Gets the operation reports keyed by phase and operation name.  If a phase contains the same operation more than
+	 * once, the last occurrence wins.
+	 * @return The operation reports in report order.
+	 */
+	public Map<String, OperationReport> operationsByKey()
+	{
+		final Map<String, OperationReport> retVal = new LinkedHashMap<String, OperationReport>();
+		for (OperationReport op : operations)
+			retVal.put(op.key(), op);
+
+		return retVal;
+	}
+
+	/**
+	 * Compares this report against a baseline.  An operation regresses when its throughput drops, or its p99 latency
+	 * grows, by more than the tolerance, or when its error rate grows by more than the tolerance in percentage points.
+	 * Throughput and latency only cover successful executions.  Operations of the baseline that are missing from this
+	 * report are regressions, and so is a baseline or report of a run that aborted.  Operations that are new in this
+	 * report, or that executed fewer than the minimum number of operations in either report, are not compared.
+	 * @param baseline The baseline report.
+	 * @param tolerancePercent The allowed change in percent.
+	 * @param minCount The minimum number of executions for an operation to be compared.
+	 * @return A description of each regression.  The list is empty if nothing regressed.
+	 */
+	public List<String> findRegressions(LoadTestReport baseline, double tolerancePercent, long minCount)
+	{
+		final List<String> retVal = new ArrayList<String>();
+		if (!baseline.isComplete())
+			retVal.add("The baseline run did not complete");
+		if (!complete)
+			retVal.add("The run did not complete");
+
+		final Map<String, OperationReport> currentOps = operationsByKey();
+		final double tolerance = tolerancePercent / 100;
+
+		for (OperationReport previous : baseline.operationsByKey().values())
+		{
+			final OperationReport current = currentOps.get(previous.key());
+			if (current == null)
+			{
+				retVal.add(previous.key() + " is in the baseline but was not run");
+				continue;
+			}
+
+			if (current.getCount() < minCount || previous.getCount() < minCount)
+				continue;
+
+			if (current.errorPercent() > previous.errorPercent() + tolerancePercent)
+				retVal.add(String.format(Locale.US, "%s error rate grew from %.1f%% to %.1f%%", current.key(), 
+						previous.errorPercent(), current.errorPercent()));
+
+			if (current.getThroughput() < previous.getThroughput() * (1 - tolerance))
+				retVal.add(String.format(Locale.US, "%s throughput dropped from %.1f to %.1f ops/sec", current.key(), 
+						previous.getThroughput(), current.getThroughput()));
+
+			if (current.getP99Millis() > previous.getP99Millis() * (1 + tolerance))
+				retVal.add(String.format(Locale.US, "%s p99 latency grew from %.3f to %.3f ms", current.key(), 
+						previous.getP99Millis(), current.getP99Millis()));
+		}
+
+		return retVal;
+	}
+
+	public String getTestName()
+	{
+		return testName;
+	}
+
+	public void setTestName(String testName)
+	{
+		this.testName = testName;
+	}
+
+	public long getTimestamp()
+	{
+		return timestamp;
+	}
+
+	public void setTimestamp(long timestamp)
+	{
+		this.timestamp = timestamp;
+	}
+
+	public boolean isComplete()
+	{
+		return complete;
+	}
+
+	public void setComplete(boolean complete)
+	{
+		this.complete = complete;
+	}
+
+	public Map<String, String> getParameters()
+	{
+		return parameters;
+	}
+
+	public void setParameters(Map<String, String> parameters)
+	{
+		this.parameters = parameters;
+	}
+
+	public List<OperationReport> getOperations()
+	{
+		return operations;
+	}
+
+	public void setOperations(List<OperationReport> operations)
+	{
+		this.operations = operations;
+	}
+}
@@ -0,0 +1,83 @@
+package org.nhindirect.config.manager.perf;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A minimal HTTP server that serves a single trust bundle on the loopback interface.  Allows the trust bundle
+ * stress test to run without access to a public bundle URL.  The configuration service must run on the same host
+ * as the load generator to reach the server.
+ *
+ * @since 8.0.1
+ */
+public class LocalBundleServer implements Closeable
+{
+	protected static final String BUNDLE_PATH = "/bundles/stress-bundle.p7b";
+
+	protected final HttpServer server;
+
+	protected final ExecutorService executor;
+
+	protected final AtomicLong downloads = new AtomicLong();
+
+	/**
+	 * Starts the server on an ephemeral loopback port.
+	 * @param bundleData The raw bundle returned for every request.
+	 * @throws IOException Thrown if the server cannot bind to a port.
+	 */
+	public LocalBundleServer(byte[] bundleData) throws IOException
+	{
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext(BUNDLE_PATH, exchange ->
+		{
+			downloads.incrementAndGet();
+			exchange.getResponseHeaders().add("Content-Type", "application/pkcs7-mime");
+			exchange.sendResponseHeaders(200, bundleData.length);
+			try (OutputStream out = exchange.getResponseBody())
+			{
+				out.write(bundleData);
+			}
+		});
+		executor = Executors.newCachedThreadPool(r ->
+		{
+			final Thread thread = new Thread(r, "local-bundle-server");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * Gets the URL the bundle is served from.
+	 * @return The bundle URL.
+	 */
+	public String getBundleURL()
+	{
+		return "http://" + server.getAddress().getAddress().getHostAddress() + ":" + server.getAddress().getPort() + BUNDLE_PATH;
+	}
+
+	/**
+	 * Gets the number of times the bundle has been downloaded.
+	 * @return The download count.
+	 */
+	public long getDownloads()
+	{
+		return downloads.get();
+	}
+
+	@Override
+	public void close()
+	{
+		server.stop(0);
+		executor.shutdownNow();
+	}
+}
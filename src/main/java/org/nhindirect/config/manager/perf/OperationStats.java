@@ -0,0 +1,153 @@
+package org.nhindirect.config.manager.perf;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Thread safe statistics for a single operation type (such as addAnchor) within a load test phase.  Every successful
+ * call is recorded in a nanosecond resolution histogram so that tail latencies (p99, p99.9) can be reported.  Failed
+ * calls are counted separately and are not part of the latencies or the throughput, so a service that fails fast
+ * does not look faster.
+ *
+ * @since 8.0.1
+ */
+public class OperationStats
+{
+	protected final String phase;
+
+	protected final String operation;
+
+	protected final AtomicLong count = new AtomicLong();
+
+	protected final AtomicLong errors = new AtomicLong();
+
+	protected final AtomicReference<String> firstError = new AtomicReference<String>();
+
+	/*
+	 * Auto resizing histogram with 3 significant digits of precision
+	 */
+	protected final Histogram latencies = new ConcurrentHistogram(3);
+
+	protected volatile long elapsedNanos;
+
+	public OperationStats(String phase, String operation)
+	{
+		this.phase = phase;
+		this.operation = operation;
+	}
+
+	/**
+	 * Records a successful operation.
+	 * @param latencyNanos The latency of the operation in nanoseconds.
+	 */
+	public void recordSuccess(long latencyNanos)
+	{
+		count.incrementAndGet();
+		latencies.recordValue(Math.max(latencyNanos, 0));
+	}
+
+	/**
+	 * Records a failed operation.  Failed operations are included in the operation count and the error count, but not
+	 * in the latency distribution or the throughput.
+	 * @param e The exception that caused the failure.
+	 * @param latencyNanos The latency of the operation in nanoseconds.
+	 */
+	public void recordError(Exception e, long latencyNanos)
+	{
+		count.incrementAndGet();
+		errors.incrementAndGet();
+		firstError.compareAndSet(null, e.getClass().getSimpleName() + ": " + e.getMessage());
+	}
+
+	/**
+	 * Sets the wall clock time over which the operations were executed.  Used to calculate throughput.
+	 * @param elapsedNanos The elapsed time in nanoseconds.
+	 */
+	public void setElapsedNanos(long elapsedNanos)
+	{
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public String getPhase()
+	{
+		return phase;
+	}
+
+	public String getOperation()
+	{
+		return operation;
+	}
+
+	public long getCount()
+	{
+		return count.get();
+	}
+
+	public long getErrors()
+	{
+		return errors.get();
+	}
+
+	public String getFirstError()
+	{
+		return firstError.get();
+	}
+
+	public long getElapsedMillis()
+	{
+		return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+	}
+
+	/**
+	 * Gets a copy of the latency histogram.
+	 * @return A copy of the latency histogram with values in nanoseconds.
+	 */
+	public Histogram getLatencies()
+	{
+		return latencies.copy();
+	}
+
+	/**
+	 * Gets the latency at a given percentile.
+	 * @param percentile The percentile between 0 and 100.
+	 * @return The latency in milliseconds.
+	 */
+	public double getLatencyMillis(double percentile)
+	{
+		return toMillis(latencies.getValueAtPercentile(percentile));
+	}
+
+	public double getMinLatencyMillis()
+	{
+		return (latencies.getTotalCount() == 0) ? 0 : toMillis(latencies.getMinValue());
+	}
+
+	public double getMaxLatencyMillis()
+	{
+		return toMillis(latencies.getMaxValue());
+	}
+
+	/*
+	 * converts nanoseconds to fractional milliseconds
+	 */
+	protected static double toMillis(long nanos)
+	{
+		return nanos / (double)TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	/**
+	 * Gets the number of operations completed successfully per second over the elapsed time.
+	 * @return The throughput in operations per second.
+	 */
+	public double getThroughput()
+	{
+		if (elapsedNanos <= 0)
+			return 0;
+
+		return (count.get() - errors.get()) / (elapsedNanos / (double)TimeUnit.SECONDS.toNanos(1));
+	}
+}
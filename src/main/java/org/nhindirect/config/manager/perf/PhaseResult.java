@@ -0,0 +1,122 @@
+package org.nhindirect.config.manager.perf;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * The outcome of a single load test phase such as "Creating anchors".  A phase contains statistics for one or more operation types.
+ *
+ * @since 8.0.1
+ */
+public class PhaseResult
+{
+	protected final String phaseName;
+
+	protected final Map<String, OperationStats> operations = new LinkedHashMap<String, OperationStats>();
+
+	protected long elapsedNanos;
+
+	public PhaseResult(String phaseName)
+	{
+		this.phaseName = phaseName;
+	}
+
+	/**
+	 * Gets the statistics for an operation type, creating them if they do not yet exist.
+	 * @param operation The name of the operation.
+	 * @return The statistics for the operation.
+	 */
+	public synchronized OperationStats getOperationStats(String operation)
+	{
+		OperationStats stats = operations.get(operation);
+		if (stats == null)
+		{
+			stats = new OperationStats(phaseName, operation);
+			operations.put(operation, stats);
+		}
+
+		return stats;
+	}
+
+	/**
+	 * Marks the phase as complete.
+	 * @param elapsedNanos The wall clock time of the phase in nanoseconds.
+	 */
+	public synchronized void complete(long elapsedNanos)
+	{
+		this.elapsedNanos = elapsedNanos;
+		for (OperationStats stats : operations.values())
+			stats.setElapsedNanos(elapsedNanos);
+	}
+
+	public String getPhaseName()
+	{
+		return phaseName;
+	}
+
+	public synchronized Collection<OperationStats> getOperations()
+	{
+		return operations.values();
+	}
+
+	public long getElapsedMillis()
+	{
+		return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+	}
+
+	/**
+	 * Gets the total number of operations executed in the phase.
+	 * @return The total number of operations of all types.
+	 */
+	public synchronized long getCount()
+	{
+		long count = 0;
+		for (OperationStats stats : operations.values())
+			count += stats.getCount();
+
+		return count;
+	}
+
+	/**
+	 * Gets the total number of failed operations in the phase.
+	 * @return The total number of failed operations of all types.
+	 */
+	public synchronized long getErrors()
+	{
+		long errors = 0;
+		for (OperationStats stats : operations.values())
+			errors += stats.getErrors();
+
+		return errors;
+	}
+
+	/**
+	 * Gets the aggregate throughput of all successful operations in the phase.
+	 * @return The throughput in operations per second.
+	 */
+	public double getThroughput()
+	{
+		if (elapsedNanos <= 0)
+			return 0;
+
+		return (getCount() - getErrors()) / (elapsedNanos / (double)TimeUnit.SECONDS.toNanos(1));
+	}
+
+	/**
+	 * Gets the latency at a given percentile across all operations in the phase.
+	 * @param percentile The percentile between 0 and 100.
+	 * @return The latency in milliseconds.
+	 */
+	public synchronized double getLatencyMillis(double percentile)
+	{
+		final Histogram combined = new Histogram(3);
+		for (OperationStats stats : operations.values())
+			combined.add(stats.getLatencies());
+
+		return OperationStats.toMillis(combined.getValueAtPercentile(percentile));
+	}
+}
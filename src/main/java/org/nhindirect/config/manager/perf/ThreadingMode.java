@@ -0,0 +1,101 @@
+package org.nhindirect.config.manager.perf;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The type of threads used to run load test workers.
+ *
+ * @since 8.0.1
+ */
+public enum ThreadingMode
+{
+	/**
+	 * Classic platform (OS) threads.
+	 */
+	PLATFORM,
+
+	/**
+	 * Virtual threads.  Only available when running on a JVM that supports them (Java 21+).  Falls back to platform
+	 * threads otherwise.
+	 */
+	VIRTUAL;
+
+	/**
+	 * Parses a threading mode from a command line argument.  The value is case-insensitive.
+	 * @param value The threading mode name.
+	 * @return The matching threading mode.
+	 */
+	public static ThreadingMode fromString(String value)
+	{
+		try
+		{
+			return ThreadingMode.valueOf(value.toUpperCase(Locale.getDefault()));
+		}
+		catch (Exception e)
+		{
+			throw new IllegalArgumentException("Invalid threading mode " + value + ".  Valid values are platform or virtual");
+		}
+	}
+
+	/**
+	 * Determines if virtual threads are supported by the running JVM.
+	 * @return True if virtual threads are available.  False otherwise.
+	 */
+	public static boolean isVirtualThreadsSupported()
+	{
+		try
+		{
+			Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return true;
+		}
+		catch (Exception e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Creates an executor that can run the requested number of workers concurrently.
+	 * @param workers The number of concurrent workers.
+	 * @return An executor service.  The caller is responsible for shutting the executor down.
+	 */
+	public ExecutorService newExecutor(int workers)
+	{
+		if (this == VIRTUAL && isVirtualThreadsSupported())
+		{
+			// the project targets Java 8, so virtual threads are created reflectively when the runtime supports them
+			try
+			{
+				final Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				return (ExecutorService)method.invoke(null);
+			}
+			catch (Exception e)
+			{
+				throw new IllegalStateException("Failed to create virtual thread executor: " + e.getMessage(), e);
+			}
+		}
+
+		return Executors.newFixedThreadPool(workers, new WorkerThreadFactory());
+	}
+
+	/*
+	 * Creates named daemon threads so an aborted test does not hold the JVM open
+	 */
+	private static class WorkerThreadFactory implements ThreadFactory
+	{
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r)
+		{
+			final Thread thread = new Thread(r, "load-worker-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
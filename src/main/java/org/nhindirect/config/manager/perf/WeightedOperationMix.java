@@ -0,0 +1,149 @@
+package org.nhindirect.config.manager.perf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A set of named operations that are randomly selected in proportion to their weights.  Used to replay a realistic
+ * mix of service calls such as the lookup pattern of the security agent.
+ *
+ * @since 8.0.1
+ */
+public class WeightedOperationMix
+{
+	protected final List<Entry> entries = new ArrayList<Entry>();
+
+	protected int totalWeight;
+
+	/**
+	 * A single operation in the mix.
+	 */
+	public static class Entry
+	{
+		protected final String operation;
+
+		protected final int weight;
+
+		protected final LoadOperation op;
+
+		public Entry(String operation, int weight, LoadOperation op)
+		{
+			this.operation = operation;
+			this.weight = weight;
+			this.op = op;
+		}
+
+		public String getOperation()
+		{
+			return operation;
+		}
+
+		public int getWeight()
+		{
+			return weight;
+		}
+
+		public LoadOperation getOp()
+		{
+			return op;
+		}
+	}
+
+	/**
+	 * Creates a mix containing a single operation.
+	 * @param operation The name of the operation.
+	 * @param op The operation.
+	 * @return A mix that always selects the operation.
+	 */
+	public static WeightedOperationMix of(String operation, LoadOperation op)
+	{
+		return new WeightedOperationMix().add(operation, 1, op);
+	}
+
+	/**
+	 * Parses operation weight overrides in the form name=weight,name=weight.
+	 * @param weights The weight list.  An empty string results in an empty map.
+	 * @return The weights keyed by lower case operation name in the order they were specified.
+	 */
+	public static Map<String, Integer> parseWeights(String weights)
+	{
+		final Map<String, Integer> retVal = new LinkedHashMap<String, Integer>();
+		if (weights == null || weights.trim().isEmpty())
+			return retVal;
+
+		for (String pair : weights.split(","))
+		{
+			final int idx = pair.indexOf('=');
+			if (idx < 1)
+				throw new IllegalArgumentException("Invalid operation weight " + pair + ".  Expected name=weight");
+
+			final String name = pair.substring(0, idx).trim().toLowerCase(Locale.getDefault());
+			final int weight = Integer.parseInt(pair.substring(idx + 1).trim());
+			if (weight < 0)
+				throw new IllegalArgumentException("Operation weight for " + name + " cannot be negative");
+
+			retVal.put(name, weight);
+		}
+
+		return retVal;
+	}
+
+	/**
+	 * Adds an operation to the mix.  Operations with a weight of 0 are ignored.
+	 * @param operation The name of the operation used when reporting statistics.
+	 * @param weight The relative weight of the operation.
+	 * @param op The operation.
+	 * @return This mix.
+	 */
+	public WeightedOperationMix add(String operation, int weight, LoadOperation op)
+	{
+		if (weight < 0)
+			throw new IllegalArgumentException("Operation weight cannot be negative");
+
+		if (weight > 0)
+		{
+			entries.add(new Entry(operation, weight, op));
+			totalWeight += weight;
+		}
+
+		return this;
+	}
+
+	/**
+	 * Randomly selects an operation in proportion to the operation weights.
+	 * @return The selected operation.
+	 */
+	public Entry select()
+	{
+		if (entries.size() == 1)
+			return entries.get(0);
+
+		if (entries.isEmpty())
+			throw new IllegalStateException("The operation mix is empty");
+
+		int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+		for (Entry entry : entries)
+		{
+			pick -= entry.weight;
+			if (pick < 0)
+				return entry;
+		}
+
+		return entries.get(entries.size() - 1);
+	}
+
+	public List<Entry> getEntries()
+	{
+		return Collections.unmodifiableList(entries);
+	}
+
+	public int getTotalWeight()
+	{
+		return totalWeight;
+	}
+}
@@ -3,6 +3,7 @@ package org.nhindirect.config.manager.printers;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 
 
 public abstract class AbstractRecordPrinter<T> implements RecordPrinter<T>
@@ -45,6 +46,25 @@ public abstract class AbstractRecordPrinter<T> implements RecordPrinter<T>
 			printRecordInternal(record);
 	}
 	
+	@Override
+	public int printRecords(Iterator<T> records)
+	{
+		// rows are printed as they are read, the header only if there is at least one row
+		if (!records.hasNext())
+			return 0;
+		
+		printHeader();
+		
+		int count = 0;
+		while (records.hasNext())
+		{
+			printRecordInternal(records.next());
+			++count;
+		}
+		
+		return count;
+	}
+	
 	protected void printRecordInternal(T record)
 	{
 		StringBuilder builder = new StringBuilder();
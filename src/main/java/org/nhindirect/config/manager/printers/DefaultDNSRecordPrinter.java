@@ -48,16 +48,14 @@ import org.nhindirect.config.model.utils.CertUtils;
  */
 public class DefaultDNSRecordPrinter implements DNSRecordPrinter
 {
-	private final PrintWriter writer;
-    
 	/**
-	 * Default constructor.  Create a writer that outputs to system console.
+	 * Default constructor.  Records are written to the system console.  The console is looked up for every print 
+	 * call, so output follows System.out when it is redirected after the printer is created.
 	 * 
 	 * @since 1.0
 	 */
     public DefaultDNSRecordPrinter()
     {        
-        writer = new PrintWriter(System.out);
     }
     
     /**
@@ -67,7 +65,9 @@ public class DefaultDNSRecordPrinter implements DNSRecordPrinter
     {
         if (records == null || records.size() == 0)
         {
+            final PrintWriter writer = new PrintWriter(System.out);
             writer.println("Empty record list");
+            writer.flush();
             return;
         }
 
@@ -115,47 +115,50 @@ public class DefaultDNSRecordPrinter implements DNSRecordPrinter
      */
     public void print(DNSRecord record)
     {
+        // a writer per record, so records printed concurrently on other threads are not mixed into its buffer
+        final PrintWriter writer = new PrintWriter(System.out);
         if (record == null)
         {
             writer.println("Null Resource Record");
+            writer.flush();
             return;
         }
         
         writer.println("-----------");
-        print("Record Name", record.getName());
-        print("Type", typeToString(record.getType()));
-        print("TTL", String.valueOf(record.getTtl()));
+        print(writer, "Record Name", record.getName());
+        print(writer, "Type", typeToString(record.getType()));
+        print(writer, "TTL", String.valueOf(record.getTtl()));
         switch(record.getType())
         {
             default:
                 break;
             
             case Type.A:
-                print((ARecord)toRecord(record));                
+                print(writer, (ARecord)toRecord(record));                
                 break;
                 
             case Type.SOA:
-            	print((SOARecord)toRecord(record));
+            	print(writer, (SOARecord)toRecord(record));
                 break;
                     
             case Type.MX:
-            	print((MXRecord)toRecord(record));
+            	print(writer, (MXRecord)toRecord(record));
                 break;               
                                         
             case Type.CERT:
-            	print((CERTRecord)toRecord(record));                                   
+            	print(writer, (CERTRecord)toRecord(record));                                   
                 break;
  
             case Type.TXT:
-            	print((TXTRecord)toRecord(record));                                   
+            	print(writer, (TXTRecord)toRecord(record));                                   
                 break;                
                 
             case Type.CNAME:
-            	print((CNAMERecord)toRecord(record));                                   
+            	print(writer, (CNAMERecord)toRecord(record));                                   
                 break;     
                 
             case Type.NS:
-            	print((NSRecord)toRecord(record));                                   
+            	print(writer, (NSRecord)toRecord(record));                                   
                 break;   
                               
         }
@@ -192,89 +195,89 @@ public class DefaultDNSRecordPrinter implements DNSRecordPrinter
     /*
      * prints TXT record specific fields
      */
-    private void print(TXTRecord body)
+    private void print(PrintWriter writer, TXTRecord body)
     {
         if (body == null)
         {
-            print("Null A Record Body");
+            print(writer, "Null A Record Body");
             return;
         }
 
-        this.print("Text", body.getStrings().get(0).toString());
+        print(writer, "Text", body.getStrings().get(0).toString());
     }
     
     /*
      * prints CNAME record specific fields
      */
-    private void print(CNAMERecord body)
+    private void print(PrintWriter writer, CNAMERecord body)
     {
         if (body == null)
         {
-            print("Null A Record Body");
+            print(writer, "Null A Record Body");
             return;
         }
 
-        this.print("Alias value", body.getAlias().toString());
+        print(writer, "Alias value", body.getAlias().toString());
     }
     
     /*
      * prints the A record specific fields
      */
-    private void print(ARecord body)
+    private void print(PrintWriter writer, ARecord body)
     {
         if (body == null)
         {
-            print("Null A Record Body");
+            print(writer, "Null A Record Body");
             return;
         }
 
-        this.print("IPAddress", body.getAddress().getHostAddress());
+        print(writer, "IPAddress", body.getAddress().getHostAddress());
     }
 
     /*
      * prints the MX record specific fields
      */
-    private void print(MXRecord body)
+    private void print(PrintWriter writer, MXRecord body)
     {
         if (body == null)
         {
-            print("Null MX Record Body");
+            print(writer, "Null MX Record Body");
             return;
         }
         
-        print("Access Exchage Server", body.getTarget().toString());
-        print("Priority", String.valueOf(body.getPriority()));
+        print(writer, "Access Exchage Server", body.getTarget().toString());
+        print(writer, "Priority", String.valueOf(body.getPriority()));
     }
     
     /*
      * prints the SOA record specific fields
      */
-    private void print(SOARecord soa)
+    private void print(PrintWriter writer, SOARecord soa)
     {
         if (soa == null)
         {
-            print("Null SOA Record Body");
+            print(writer, "Null SOA Record Body");
             return;
         }
 
     	
-    	print("DomainName", soa.getName().toString());
-        print("Primary Name Server", soa.getHost().toString());
-        print("Domain Manager:", soa.getAdmin().toString());
-        print("Refresh", String.valueOf(soa.getRefresh()));
-        print("Retry", String.valueOf(soa.getRetry()));
-        print("Expire", String.valueOf(soa.getExpire()));
-        print("Minimum", String.valueOf(soa.getMinimum()));
+    	print(writer, "DomainName", soa.getName().toString());
+        print(writer, "Primary Name Server", soa.getHost().toString());
+        print(writer, "Domain Manager:", soa.getAdmin().toString());
+        print(writer, "Refresh", String.valueOf(soa.getRefresh()));
+        print(writer, "Retry", String.valueOf(soa.getRetry()));
+        print(writer, "Expire", String.valueOf(soa.getExpire()));
+        print(writer, "Minimum", String.valueOf(soa.getMinimum()));
     }
     
     /*
      * prints the CERT record specific fields
      */    
-    private void print(CERTRecord certbody)
+    private void print(PrintWriter writer, CERTRecord certbody)
     {
         if (certbody == null)
         {
-            print("Null CERT Record Body");
+            print(writer, "Null CERT Record Body");
             return;
         }
 
@@ -283,30 +286,30 @@ public class DefaultDNSRecordPrinter implements DNSRecordPrinter
 		if (cert instanceof X509Certificate) // may not be an X509Cert
 		{
 			X509Certificate xcert = (X509Certificate)cert;
-			print("Certificate Subject", xcert.getSubjectDN().getName());			
+			print(writer, "Certificate Subject", xcert.getSubjectDN().getName());			
 		}
     }
     
     /*
      * prints the NS record specific fields
      */
-    private void print(NSRecord ns)
+    private void print(PrintWriter writer, NSRecord ns)
     {
         if (ns == null)
         {
-            print("Null NS Record Body");
+            print(writer, "Null NS Record Body");
             return;
         }
 
     	
-    	print("DomainName", ns.getName().toString());
-        print("Target Name Server", ns.getTarget().toString());
+    	print(writer, "DomainName", ns.getName().toString());
+        print(writer, "Target Name Server", ns.getTarget().toString());
     }    
 
     /*
      * prints a name value pair
      */
-    private void print(String name, String value)
+    private void print(PrintWriter writer, String name, String value)
     {
         writer.println(name + ": " + value);
     }
@@ -314,7 +317,7 @@ public class DefaultDNSRecordPrinter implements DNSRecordPrinter
     /*
      * prints a specific string message
      */
-    private void print(String message)
+    private void print(PrintWriter writer, String message)
     {
     	writer.println(message);
     }
@@ -0,0 +1,72 @@
+package org.nhindirect.config.manager.printers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Locale;
+
+import org.nhindirect.config.manager.perf.OperationStats;
+
+public class OperationStatsPrinter extends AbstractRecordPrinter<OperationStats>
+{
+	protected static final Collection<ReportColumn> REPORT_COLS;
+
+	protected static final String PHASE_COL = "Phase";
+	protected static final String OPERATION_COL = "Operation";
+	protected static final String COUNT_COL = "Count";
+	protected static final String ERRORS_COL = "Errors";
+	protected static final String THROUGHPUT_COL = "Ops/sec";
+	protected static final String MIN_COL = "Min ms";
+	protected static final String P50_COL = "p50 ms";
+	protected static final String P90_COL = "p90 ms";
+	protected static final String P99_COL = "p99 ms";
+	protected static final String P999_COL = "p99.9 ms";
+	protected static final String MAX_COL = "Max ms";
+
+	static
+	{
+		REPORT_COLS = new ArrayList<ReportColumn>();
+
+		REPORT_COLS.add(new ReportColumn(PHASE_COL, 38, "Phase"));
+		REPORT_COLS.add(new ReportColumn(OPERATION_COL, 26, "Operation"));
+		REPORT_COLS.add(new ReportColumn(COUNT_COL, 10, "Count"));
+		REPORT_COLS.add(new ReportColumn(ERRORS_COL, 9, "Errors"));
+		REPORT_COLS.add(new ReportColumn(THROUGHPUT_COL, 11, "Throughput"));
+		REPORT_COLS.add(new ReportColumn(MIN_COL, 11, "MinLatencyMillis"));
+		REPORT_COLS.add(new ReportColumn(P50_COL, 11, "LatencyMillis"));
+		REPORT_COLS.add(new ReportColumn(P90_COL, 11, "LatencyMillis"));
+		REPORT_COLS.add(new ReportColumn(P99_COL, 11, "LatencyMillis"));
+		REPORT_COLS.add(new ReportColumn(P999_COL, 11, "LatencyMillis"));
+		REPORT_COLS.add(new ReportColumn(MAX_COL, 11, "MaxLatencyMillis"));
+	}
+
+	public OperationStatsPrinter()
+	{
+		super(160, REPORT_COLS);
+	}
+
+	@Override
+	protected String getColumnValue(ReportColumn column, OperationStats record)
+	{
+		if (column.header.equals(THROUGHPUT_COL))
+			return String.format(Locale.US, "%.1f", record.getThroughput());
+		else if (column.header.equals(MIN_COL))
+			return formatMillis(record.getMinLatencyMillis());
+		else if (column.header.equals(P50_COL))
+			return formatMillis(record.getLatencyMillis(50));
+		else if (column.header.equals(P90_COL))
+			return formatMillis(record.getLatencyMillis(90));
+		else if (column.header.equals(P99_COL))
+			return formatMillis(record.getLatencyMillis(99));
+		else if (column.header.equals(P999_COL))
+			return formatMillis(record.getLatencyMillis(99.9));
+		else if (column.header.equals(MAX_COL))
+			return formatMillis(record.getMaxLatencyMillis());
+		else
+			return super.getColumnValue(column, record);
+	}
+
+	protected String formatMillis(double millis)
+	{
+		return String.format(Locale.US, "%.3f", millis);
+	}
+}
@@ -1,10 +1,30 @@
 package org.nhindirect.config.manager.printers;
 
 import java.util.Collection;
+import java.util.Iterator;
 
 public interface RecordPrinter<T> 
 {
 	public void printRecord(T rec);
 	
 	public void printRecords(Collection<T> recs);
+	
+	/**
+	 * Prints records as they are read from an iterator.  The default prints each record with {@link #printRecord(Object)}.
+	 * Printers that print a table header override this to print the header once, before the first record.
+	 * @param recs The records to print.
+	 * @return The number of records printed.
+	 * @since 8.0.1
+	 */
+	public default int printRecords(Iterator<T> recs)
+	{
+		int count = 0;
+		while (recs.hasNext())
+		{
+			printRecord(recs.next());
+			++count;
+		}
+		
+		return count;
+	}
 }
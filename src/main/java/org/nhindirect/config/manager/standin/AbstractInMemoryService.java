@@ -0,0 +1,95 @@
+package org.nhindirect.config.manager.standin;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.apache.commons.codec.binary.Hex;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+
+/**
+ * Common plumbing for the in-memory stand-in services.  Entities are held in concurrent maps keyed by their lower
+ * case natural key.  Entities are stored and returned as is rather than copied, so callers should treat returned
+ * entities as read only unless they intend to update them.
+ *
+ * @since 8.0.1
+ */
+public abstract class AbstractInMemoryService
+{
+	protected final StandInBehavior behavior;
+
+	protected final AtomicLong idSequence = new AtomicLong();
+
+	public AbstractInMemoryService(StandInBehavior behavior)
+	{
+		this.behavior = behavior;
+	}
+
+	/*
+	 * Applies the injected latency and failures to a call
+	 */
+	protected void simulate(String operation) throws ServiceException
+	{
+		behavior.simulate(operation);
+	}
+
+	protected long nextId()
+	{
+		return idSequence.incrementAndGet();
+	}
+
+	/*
+	 * Normalizes a natural key.  The configuration service treats names as case-insensitive.
+	 */
+	protected static String key(String name)
+	{
+		return (name == null) ? "" : name.toLowerCase(Locale.ENGLISH);
+	}
+
+	protected static boolean isEmpty(String value)
+	{
+		return value == null || value.trim().isEmpty();
+	}
+
+	protected static Calendar now()
+	{
+		return Calendar.getInstance(Locale.getDefault());
+	}
+
+	/*
+	 * Computes a SHA-1 thumbprint of raw certificate data without parsing the certificate
+	 */
+	protected static String thumbprint(byte[] data)
+	{
+		if (data == null)
+			return "";
+
+		try
+		{
+			return Hex.encodeHexString(MessageDigest.getInstance("SHA-1").digest(data));
+		}
+		catch (Exception e)
+		{
+			throw new IllegalStateException("SHA-1 is not available", e);
+		}
+	}
+
+	/*
+	 * Returns the entities matching a filter
+	 */
+	protected static <T> Collection<T> filter(Collection<T> values, Predicate<T> predicate)
+	{
+		final Collection<T> retVal = new ArrayList<T>();
+		for (T value : values)
+		{
+			if (predicate.test(value))
+				retVal.add(value);
+		}
+
+		return retVal;
+	}
+}
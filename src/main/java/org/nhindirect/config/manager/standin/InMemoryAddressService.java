@@ -0,0 +1,66 @@
+package org.nhindirect.config.manager.standin;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nhind.config.rest.AddressService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.model.Address;
+
+/**
+ * In-memory stand-in for the address service.
+ *
+ * @since 8.0.1
+ */
+public class InMemoryAddressService extends AbstractInMemoryService implements AddressService
+{
+	protected final Map<String, Address> addresses = new ConcurrentHashMap<String, Address>();
+
+	public InMemoryAddressService(StandInBehavior behavior)
+	{
+		super(behavior);
+	}
+
+	@Override
+	public Address getAddress(String emailAddress) throws ServiceException
+	{
+		simulate("getAddress");
+		return addresses.get(key(emailAddress));
+	}
+
+	@Override
+	public Collection<Address> getAddressesByDomain(String domainName) throws ServiceException
+	{
+		simulate("getAddressesByDomain");
+		final String domain = key(domainName);
+		return filter(addresses.values(), address -> key(address.getDomainName()).equals(domain));
+	}
+
+	@Override
+	public void addAddress(Address address) throws ServiceException
+	{
+		simulate("addAddress");
+		address.setId(nextId());
+		address.setCreateTime(now());
+		if (addresses.putIfAbsent(key(address.getEmailAddress()), address) != null)
+			throw new ServiceException("Address " + address.getEmailAddress() + " already exists");
+	}
+
+	@Override
+	public void updateAddress(Address address) throws ServiceException
+	{
+		simulate("updateAddress");
+		address.setUpdateTime(now());
+		if (addresses.replace(key(address.getEmailAddress()), address) == null)
+			throw new ServiceException("Address " + address.getEmailAddress() + " does not exist");
+	}
+
+	@Override
+	public void deleteAddress(String emailAddress) throws ServiceException
+	{
+		simulate("deleteAddress");
+		if (addresses.remove(key(emailAddress)) == null)
+			throw new ServiceException("Address " + emailAddress + " does not exist");
+	}
+}
@@ -0,0 +1,80 @@
+package org.nhindirect.config.manager.standin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nhind.config.rest.AnchorService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.model.Anchor;
+
+/**
+ * In-memory stand-in for the anchor service.
+ *
+ * @since 8.0.1
+ */
+public class InMemoryAnchorService extends AbstractInMemoryService implements AnchorService
+{
+	protected final Map<Long, Anchor> anchors = new ConcurrentHashMap<Long, Anchor>();
+
+	public InMemoryAnchorService(StandInBehavior behavior)
+	{
+		super(behavior);
+	}
+
+	@Override
+	public Collection<Anchor> getAnchors() throws ServiceException
+	{
+		simulate("getAnchors");
+		return new ArrayList<Anchor>(anchors.values());
+	}
+
+	@Override
+	public Collection<Anchor> getAnchorsForOwner(String owner, boolean incoming, boolean outgoing, String thumbprint) throws ServiceException
+	{
+		simulate("getAnchorsForOwner");
+		final String ownerKey = key(owner);
+		return filter(anchors.values(), anchor -> key(anchor.getOwner()).equals(ownerKey) &&
+				((incoming && anchor.isIncoming()) || (outgoing && anchor.isOutgoing())) &&
+				(isEmpty(thumbprint) || anchor.getThumbprint().equalsIgnoreCase(thumbprint)));
+	}
+
+	@Override
+	public void addAnchor(Anchor anchor) throws ServiceException
+	{
+		simulate("addAnchor");
+		final String thumbprint = thumbprint(anchor.getCertificateData());
+		final String ownerKey = key(anchor.getOwner());
+
+		// the duplicate check and insert must be atomic
+		synchronized (anchors)
+		{
+			for (Anchor existing : anchors.values())
+			{
+				if (key(existing.getOwner()).equals(ownerKey) && existing.getThumbprint().equals(thumbprint))
+					throw new ServiceException("Anchor already exists for owner " + anchor.getOwner());
+			}
+
+			anchor.setId(nextId());
+			anchor.setThumbprint(thumbprint);
+			anchor.setCreateTime(now());
+			anchors.put(anchor.getId(), anchor);
+		}
+	}
+
+	@Override
+	public void deleteAnchorsByIds(Collection<Long> ids) throws ServiceException
+	{
+		simulate("deleteAnchorsByIds");
+		anchors.keySet().removeAll(ids);
+	}
+
+	@Override
+	public void deleteAnchorsByOwner(String owner) throws ServiceException
+	{
+		simulate("deleteAnchorsByOwner");
+		final String ownerKey = key(owner);
+		anchors.values().removeIf(anchor -> key(anchor.getOwner()).equals(ownerKey));
+	}
+}
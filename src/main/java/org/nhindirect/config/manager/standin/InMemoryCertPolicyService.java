@@ -0,0 +1,253 @@
+package org.nhindirect.config.manager.standin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nhind.config.rest.CertPolicyService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.model.CertPolicy;
+import org.nhindirect.config.model.CertPolicyGroup;
+import org.nhindirect.config.model.CertPolicyGroupDomainReltn;
+import org.nhindirect.config.model.CertPolicyGroupUse;
+import org.nhindirect.config.model.Domain;
+
+/**
+ * In-memory stand-in for the certificate policy service.
+ *
+ * @since 8.0.1
+ */
+public class InMemoryCertPolicyService extends AbstractInMemoryService implements CertPolicyService
+{
+	protected final InMemoryDomainService domainService;
+
+	protected final Map<String, CertPolicy> policies = new ConcurrentHashMap<String, CertPolicy>();
+
+	protected final Map<String, CertPolicyGroup> groups = new ConcurrentHashMap<String, CertPolicyGroup>();
+
+	protected final Map<Long, CertPolicyGroupDomainReltn> reltns = new ConcurrentHashMap<Long, CertPolicyGroupDomainReltn>();
+
+	public InMemoryCertPolicyService(StandInBehavior behavior, InMemoryDomainService domainService)
+	{
+		super(behavior);
+		this.domainService = domainService;
+	}
+
+	@Override
+	public Collection<CertPolicy> getPolicies() throws ServiceException
+	{
+		simulate("getPolicies");
+		return new ArrayList<CertPolicy>(policies.values());
+	}
+
+	@Override
+	public CertPolicy getPolicyByName(String policyName) throws ServiceException
+	{
+		simulate("getPolicyByName");
+		return policies.get(key(policyName));
+	}
+
+	@Override
+	public void addPolicy(CertPolicy policy) throws ServiceException
+	{
+		simulate("addPolicy");
+		policy.setCreateTime(now());
+		if (policies.putIfAbsent(key(policy.getPolicyName()), policy) != null)
+			throw new ServiceException("Policy " + policy.getPolicyName() + " already exists");
+	}
+
+	@Override
+	public void deletePolicy(String policyName) throws ServiceException
+	{
+		simulate("deletePolicy");
+		if (policies.remove(key(policyName)) == null)
+			throw new ServiceException("Policy " + policyName + " does not exist");
+	}
+
+	@Override
+	public void updatePolicy(String policyName, CertPolicy attributes) throws ServiceException
+	{
+		simulate("updatePolicy");
+		final CertPolicy policy = policies.get(key(policyName));
+		if (policy == null)
+			throw new ServiceException("Policy " + policyName + " does not exist");
+
+		if (attributes.getLexicon() != null)
+			policy.setLexicon(attributes.getLexicon());
+
+		if (attributes.getPolicyData() != null)
+			policy.setPolicyData(attributes.getPolicyData());
+
+		if (!isEmpty(attributes.getPolicyName()) && !key(attributes.getPolicyName()).equals(key(policyName)))
+		{
+			policy.setPolicyName(attributes.getPolicyName());
+			policies.remove(key(policyName));
+			policies.put(key(attributes.getPolicyName()), policy);
+		}
+	}
+
+	@Override
+	public Collection<CertPolicyGroup> getPolicyGroups() throws ServiceException
+	{
+		simulate("getPolicyGroups");
+		return new ArrayList<CertPolicyGroup>(groups.values());
+	}
+
+	@Override
+	public CertPolicyGroup getPolicyGroup(String groupName) throws ServiceException
+	{
+		simulate("getPolicyGroup");
+		return groups.get(key(groupName));
+	}
+
+	@Override
+	public void addPolicyGroup(CertPolicyGroup group) throws ServiceException
+	{
+		simulate("addPolicyGroup");
+		group.setCreateTime(now());
+
+		if (groups.putIfAbsent(key(group.getPolicyGroupName()), group) != null)
+			throw new ServiceException("Policy group " + group.getPolicyGroupName() + " already exists");
+	}
+
+	@Override
+	public void deletePolicyGroup(String groupName) throws ServiceException
+	{
+		simulate("deletePolicyGroup");
+		if (groups.remove(key(groupName)) == null)
+			throw new ServiceException("Policy group " + groupName + " does not exist");
+
+		removeReltns(groupName, null);
+	}
+
+	@Override
+	public void updatePolicyGroup(String groupName, String newGroupName) throws ServiceException
+	{
+		simulate("updatePolicyGroup");
+		final CertPolicyGroup group = findGroup(groupName);
+		if (groups.putIfAbsent(key(newGroupName), group) != null)
+			throw new ServiceException("Policy group " + newGroupName + " already exists");
+
+		groups.remove(key(groupName));
+		group.setPolicyGroupName(newGroupName);
+	}
+
+	@Override
+	public void addPolicyUseToGroup(String groupName, CertPolicyGroupUse use) throws ServiceException
+	{
+		simulate("addPolicyUseToGroup");
+		final CertPolicyGroup group = findGroup(groupName);
+		final CertPolicy policy = policies.get(key(use.getPolicy().getPolicyName()));
+		if (policy == null)
+			throw new ServiceException("Policy " + use.getPolicy().getPolicyName() + " does not exist");
+
+		final CertPolicyGroupUse newUse = new CertPolicyGroupUse();
+		newUse.setPolicy(policy);
+		newUse.setPolicyUse(use.getPolicyUse());
+		newUse.setIncoming(use.isIncoming());
+		newUse.setOutgoing(use.isOutgoing());
+
+		// the model only exposes a read only view of the policy uses, so the collection is replaced rather than
+		// modified.  readers holding the previous collection are not affected.
+		synchronized (group)
+		{
+			final Collection<CertPolicyGroupUse> uses = new ArrayList<CertPolicyGroupUse>(group.getPolicies());
+			uses.add(newUse);
+			group.setPolicies(uses);
+		}
+	}
+
+	@Override
+	public void removePolicyUseFromGroup(String groupName, CertPolicyGroupUse use) throws ServiceException
+	{
+		simulate("removePolicyUseFromGroup");
+		final CertPolicyGroup group = findGroup(groupName);
+		final String policyKey = key(use.getPolicy().getPolicyName());
+
+		synchronized (group)
+		{
+			final Collection<CertPolicyGroupUse> uses = new ArrayList<CertPolicyGroupUse>(group.getPolicies());
+			uses.removeIf(existing -> key(existing.getPolicy().getPolicyName()).equals(policyKey) && 
+					existing.getPolicyUse() == use.getPolicyUse() && existing.isIncoming() == use.isIncoming() && 
+					existing.isOutgoing() == use.isOutgoing());
+			group.setPolicies(uses);
+		}
+	}
+
+	@Override
+	public Collection<CertPolicyGroupDomainReltn> getPolicyGroupDomainReltns() throws ServiceException
+	{
+		simulate("getPolicyGroupDomainReltns");
+		return new ArrayList<CertPolicyGroupDomainReltn>(reltns.values());
+	}
+
+	@Override
+	public Collection<CertPolicyGroup> getPolicyGroupsByDomain(String domainName) throws ServiceException
+	{
+		simulate("getPolicyGroupsByDomain");
+		final String domainKey = key(domainName);
+		final Collection<CertPolicyGroup> retVal = new ArrayList<CertPolicyGroup>();
+		for (CertPolicyGroupDomainReltn reltn : reltns.values())
+		{
+			if (key(reltn.getDomain().getDomainName()).equals(domainKey))
+				retVal.add(reltn.getPolicyGroup());
+		}
+
+		return retVal;
+	}
+
+	@Override
+	public void associatePolicyGroupToDomain(String groupName, String domainName) throws ServiceException
+	{
+		simulate("associatePolicyGroupToDomain");
+		final CertPolicyGroup group = findGroup(groupName);
+		final Domain domain = domainService.findDomain(domainName);
+
+		final CertPolicyGroupDomainReltn reltn = new CertPolicyGroupDomainReltn();
+		reltn.setId(nextId());
+		reltn.setPolicyGroup(group);
+		reltn.setDomain(domain);
+
+		reltns.put(reltn.getId(), reltn);
+	}
+
+	@Override
+	public void disassociatePolicyGroupFromDomain(String groupName, String domainName) throws ServiceException
+	{
+		simulate("disassociatePolicyGroupFromDomain");
+		removeReltns(groupName, domainName);
+	}
+
+	@Override
+	public void disassociatePolicyGroupsFromDomain(String domainName) throws ServiceException
+	{
+		simulate("disassociatePolicyGroupsFromDomain");
+		removeReltns(null, domainName);
+	}
+
+	@Override
+	public void disassociatePolicyGroupFromDomains(String groupName) throws ServiceException
+	{
+		simulate("disassociatePolicyGroupFromDomains");
+		removeReltns(groupName, null);
+	}
+
+	protected CertPolicyGroup findGroup(String groupName) throws ServiceException
+	{
+		final CertPolicyGroup group = groups.get(key(groupName));
+		if (group == null)
+			throw new ServiceException("Policy group " + groupName + " does not exist");
+
+		return group;
+	}
+
+	/*
+	 * Removes the relationships matching a group and/or domain.  A null name matches any group or domain.
+	 */
+	protected void removeReltns(String groupName, String domainName)
+	{
+		reltns.values().removeIf(reltn -> (groupName == null || key(reltn.getPolicyGroup().getPolicyGroupName()).equals(key(groupName))) &&
+				(domainName == null || key(reltn.getDomain().getDomainName()).equals(key(domainName))));
+	}
+}
@@ -0,0 +1,93 @@
+package org.nhindirect.config.manager.standin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nhind.config.rest.CertificateService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.model.Certificate;
+
+/**
+ * In-memory stand-in for the certificate service.  Thumbprints are computed over the raw certificate data, so
+ * private key certificates are not unwrapped.
+ *
+ * @since 8.0.1
+ */
+public class InMemoryCertificateService extends AbstractInMemoryService implements CertificateService
+{
+	protected final Map<Long, Certificate> certificates = new ConcurrentHashMap<Long, Certificate>();
+
+	public InMemoryCertificateService(StandInBehavior behavior)
+	{
+		super(behavior);
+	}
+
+	@Override
+	public Collection<Certificate> getAllCertificates() throws ServiceException
+	{
+		simulate("getAllCertificates");
+		return new ArrayList<Certificate>(certificates.values());
+	}
+
+	@Override
+	public Collection<Certificate> getCertificatesByOwner(String owner) throws ServiceException
+	{
+		simulate("getCertificatesByOwner");
+		final String ownerKey = key(owner);
+		return filter(certificates.values(), cert -> key(cert.getOwner()).equals(ownerKey));
+	}
+
+	@Override
+	public Certificate getCertificatesByOwnerAndThumbprint(String owner, String thumbprint) throws ServiceException
+	{
+		simulate("getCertificatesByOwnerAndThumbprint");
+		final String ownerKey = key(owner);
+		for (Certificate cert : certificates.values())
+		{
+			if ((isEmpty(owner) || key(cert.getOwner()).equals(ownerKey)) && cert.getThumbprint().equalsIgnoreCase(thumbprint))
+				return cert;
+		}
+
+		return null;
+	}
+
+	@Override
+	public void addCertificate(Certificate cert) throws ServiceException
+	{
+		simulate("addCertificate");
+		final String thumbprint = thumbprint(cert.getData());
+		final String ownerKey = key(cert.getOwner());
+
+		// the duplicate check and insert must be atomic
+		synchronized (certificates)
+		{
+			for (Certificate existing : certificates.values())
+			{
+				if (key(existing.getOwner()).equals(ownerKey) && existing.getThumbprint().equals(thumbprint))
+					throw new ServiceException("Certificate already exists for owner " + cert.getOwner());
+			}
+
+			cert.setId(nextId());
+			cert.setThumbprint(thumbprint);
+			cert.setCreateTime(now());
+			certificates.put(cert.getId(), cert);
+		}
+	}
+
+	@Override
+	public void deleteCertificatesByIds(Collection<Long> ids) throws ServiceException
+	{
+		simulate("deleteCertificatesByIds");
+		certificates.keySet().removeAll(ids);
+	}
+
+	@Override
+	public void deleteCertificateByOwner(String owner) throws ServiceException
+	{
+		simulate("deleteCertificateByOwner");
+		final String ownerKey = key(owner);
+		certificates.values().removeIf(cert -> key(cert.getOwner()).equals(ownerKey));
+	}
+}
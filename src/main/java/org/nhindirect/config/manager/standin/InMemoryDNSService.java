@@ -0,0 +1,67 @@
+package org.nhindirect.config.manager.standin;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nhind.config.rest.DNSService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.model.DNSRecord;
+import org.xbill.DNS.Type;
+
+/**
+ * In-memory stand-in for the DNS service.  An empty name matches every record and Type.ANY matches every type.
+ *
+ * @since 8.0.1
+ */
+public class InMemoryDNSService extends AbstractInMemoryService implements DNSService
+{
+	protected final Map<Long, DNSRecord> records = new ConcurrentHashMap<Long, DNSRecord>();
+
+	public InMemoryDNSService(StandInBehavior behavior)
+	{
+		super(behavior);
+	}
+
+	@Override
+	public Collection<DNSRecord> getDNSRecord(int type, String name) throws ServiceException
+	{
+		simulate("getDNSRecord");
+		final String nameKey = nameKey(name);
+		return filter(records.values(), record -> (type == Type.ANY || record.getType() == type) && 
+				(nameKey.isEmpty() || nameKey(record.getName()).equals(nameKey)));
+	}
+
+	@Override
+	public void addDNSRecord(DNSRecord record) throws ServiceException
+	{
+		simulate("addDNSRecord");
+		record.setId(nextId());
+		record.setCreateTime(now());
+		records.put(record.getId(), record);
+	}
+
+	@Override
+	public void updatedDNSRecord(DNSRecord record) throws ServiceException
+	{
+		simulate("updatedDNSRecord");
+		if (records.replace(record.getId(), record) == null)
+			throw new ServiceException("DNS record " + record.getId() + " does not exist");
+	}
+
+	@Override
+	public void deleteDNSRecordsByIds(Collection<Long> ids) throws ServiceException
+	{
+		simulate("deleteDNSRecordsByIds");
+		records.keySet().removeAll(ids);
+	}
+
+	/*
+	 * Record names are compared without the trailing root label
+	 */
+	protected static String nameKey(String name)
+	{
+		final String retVal = key(name);
+		return retVal.endsWith(".") ? retVal.substring(0, retVal.length() - 1) : retVal;
+	}
+}
@@ -0,0 +1,80 @@
+package org.nhindirect.config.manager.standin;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nhind.config.rest.DomainService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.model.Domain;
+import org.nhindirect.config.model.EntityStatus;
+
+/**
+ * In-memory stand-in for the domain service.
+ *
+ * @since 8.0.1
+ */
+public class InMemoryDomainService extends AbstractInMemoryService implements DomainService
+{
+	protected final Map<String, Domain> domains = new ConcurrentHashMap<String, Domain>();
+
+	public InMemoryDomainService(StandInBehavior behavior)
+	{
+		super(behavior);
+	}
+
+	@Override
+	public Domain getDomain(String domainName) throws ServiceException
+	{
+		simulate("getDomain");
+		return domains.get(key(domainName));
+	}
+
+	@Override
+	public Collection<Domain> searchDomains(String domainName, EntityStatus status) throws ServiceException
+	{
+		simulate("searchDomains");
+		final String search = key(domainName);
+		return filter(domains.values(), domain -> key(domain.getDomainName()).contains(search) &&
+				(status == null || status == domain.getStatus()));
+	}
+
+	@Override
+	public void addDomain(Domain domain) throws ServiceException
+	{
+		simulate("addDomain");
+		domain.setId(nextId());
+		domain.setCreateTime(now());
+		if (domains.putIfAbsent(key(domain.getDomainName()), domain) != null)
+			throw new ServiceException("Domain " + domain.getDomainName() + " already exists");
+	}
+
+	@Override
+	public void updateDomain(Domain domain) throws ServiceException
+	{
+		simulate("updateDomain");
+		domain.setUpdateTime(now());
+		if (domains.replace(key(domain.getDomainName()), domain) == null)
+			throw new ServiceException("Domain " + domain.getDomainName() + " does not exist");
+	}
+
+	@Override
+	public void deleteDomain(String domainName) throws ServiceException
+	{
+		simulate("deleteDomain");
+		if (domains.remove(key(domainName)) == null)
+			throw new ServiceException("Domain " + domainName + " does not exist");
+	}
+
+	/*
+	 * Looks up a domain for the association operations of the other stand-in services without injecting latency
+	 */
+	protected Domain findDomain(String domainName) throws ServiceException
+	{
+		final Domain domain = domains.get(key(domainName));
+		if (domain == null)
+			throw new ServiceException("Domain " + domainName + " does not exist");
+
+		return domain;
+	}
+}
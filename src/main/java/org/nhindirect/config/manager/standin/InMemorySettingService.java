@@ -0,0 +1,75 @@
+package org.nhindirect.config.manager.standin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nhind.config.rest.SettingService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.model.EntityStatus;
+import org.nhindirect.config.model.Setting;
+
+/**
+ * In-memory stand-in for the setting service.
+ *
+ * @since 8.0.1
+ */
+public class InMemorySettingService extends AbstractInMemoryService implements SettingService
+{
+	protected final Map<String, Setting> settings = new ConcurrentHashMap<String, Setting>();
+
+	public InMemorySettingService(StandInBehavior behavior)
+	{
+		super(behavior);
+	}
+
+	@Override
+	public Collection<Setting> getSettings() throws ServiceException
+	{
+		simulate("getSettings");
+		return new ArrayList<Setting>(settings.values());
+	}
+
+	@Override
+	public Setting getSetting(String name) throws ServiceException
+	{
+		simulate("getSetting");
+		return settings.get(key(name));
+	}
+
+	@Override
+	public void addSetting(String name, String value) throws ServiceException
+	{
+		simulate("addSetting");
+		final Setting setting = new Setting();
+		setting.setId(nextId());
+		setting.setName(name);
+		setting.setValue(value);
+		setting.setStatus(EntityStatus.ENABLED);
+		setting.setCreateTime(now());
+
+		if (settings.putIfAbsent(key(name), setting) != null)
+			throw new ServiceException("Setting " + name + " already exists");
+	}
+
+	@Override
+	public void updateSetting(String name, String value) throws ServiceException
+	{
+		simulate("updateSetting");
+		final Setting setting = settings.get(key(name));
+		if (setting == null)
+			throw new ServiceException("Setting " + name + " does not exist");
+
+		setting.setValue(value);
+		setting.setUpdateTime(now());
+	}
+
+	@Override
+	public void deleteSetting(String name) throws ServiceException
+	{
+		simulate("deleteSetting");
+		if (settings.remove(key(name)) == null)
+			throw new ServiceException("Setting " + name + " does not exist");
+	}
+}
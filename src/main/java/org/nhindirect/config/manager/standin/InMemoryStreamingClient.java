@@ -0,0 +1,62 @@
+package org.nhindirect.config.manager.standin;
+
+import org.nhind.config.rest.AnchorService;
+import org.nhind.config.rest.CertificateService;
+import org.nhind.config.rest.DNSService;
+import org.nhind.config.rest.TrustBundleService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.manager.feign.CloseableIterator;
+import org.nhindirect.config.manager.feign.StreamingConfigServiceClient;
+import org.nhindirect.config.model.Anchor;
+import org.nhindirect.config.model.Certificate;
+import org.nhindirect.config.model.DNSRecord;
+import org.nhindirect.config.model.TrustBundle;
+
+/**
+ * Stand-in for the streaming client that iterates over the collections of the in-memory services.
+ *
+ * @since 8.0.1
+ */
+public class InMemoryStreamingClient implements StreamingConfigServiceClient
+{
+	protected final CertificateService certService;
+
+	protected final AnchorService anchorService;
+
+	protected final TrustBundleService bundleService;
+
+	protected final DNSService dnsService;
+
+	public InMemoryStreamingClient(CertificateService certService, AnchorService anchorService, TrustBundleService bundleService,
+			DNSService dnsService)
+	{
+		this.certService = certService;
+		this.anchorService = anchorService;
+		this.bundleService = bundleService;
+		this.dnsService = dnsService;
+	}
+
+	@Override
+	public CloseableIterator<Certificate> streamCertificates() throws ServiceException
+	{
+		return CloseableIterator.of(certService.getAllCertificates());
+	}
+
+	@Override
+	public CloseableIterator<Anchor> streamAnchors() throws ServiceException
+	{
+		return CloseableIterator.of(anchorService.getAnchors());
+	}
+
+	@Override
+	public CloseableIterator<TrustBundle> streamTrustBundles(boolean fetchAnchors) throws ServiceException
+	{
+		return CloseableIterator.of(bundleService.getTrustBundles(fetchAnchors));
+	}
+
+	@Override
+	public CloseableIterator<DNSRecord> streamDNSRecords(int type, String name) throws ServiceException
+	{
+		return CloseableIterator.of(dnsService.getDNSRecord(type, name));
+	}
+}
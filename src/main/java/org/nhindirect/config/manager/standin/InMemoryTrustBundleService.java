@@ -0,0 +1,195 @@
+package org.nhindirect.config.manager.standin;
+
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nhind.config.rest.TrustBundleService;
+import org.nhindirect.common.rest.exceptions.ServiceException;
+import org.nhindirect.config.model.BundleRefreshError;
+import org.nhindirect.config.model.Domain;
+import org.nhindirect.config.model.TrustBundle;
+import org.nhindirect.config.model.TrustBundleAnchor;
+import org.nhindirect.config.model.TrustBundleDomainReltn;
+
+/**
+ * In-memory stand-in for the trust bundle service.  Bundles are never downloaded.  Adding or refreshing a bundle
+ * immediately marks it as successfully refreshed with no anchors.
+ *
+ * @since 8.0.1
+ */
+public class InMemoryTrustBundleService extends AbstractInMemoryService implements TrustBundleService
+{
+	protected final InMemoryDomainService domainService;
+
+	protected final Map<String, TrustBundle> bundles = new ConcurrentHashMap<String, TrustBundle>();
+
+	protected final Map<Long, TrustBundleDomainReltn> reltns = new ConcurrentHashMap<Long, TrustBundleDomainReltn>();
+
+	public InMemoryTrustBundleService(StandInBehavior behavior, InMemoryDomainService domainService)
+	{
+		super(behavior);
+		this.domainService = domainService;
+	}
+
+	@Override
+	public Collection<TrustBundle> getTrustBundles(boolean fetchAnchors) throws ServiceException
+	{
+		simulate("getTrustBundles");
+		return new ArrayList<TrustBundle>(bundles.values());
+	}
+
+	@Override
+	public Collection<TrustBundleDomainReltn> getTrustBundlesByDomain(String domainName, boolean fetchAnchors) throws ServiceException
+	{
+		simulate("getTrustBundlesByDomain");
+		final String domainKey = key(domainName);
+		return filter(reltns.values(), reltn -> key(reltn.getDomain().getDomainName()).equals(domainKey));
+	}
+
+	@Override
+	public Collection<TrustBundleDomainReltn> getAllTrustBundleDomainReltns(boolean fetchAnchors) throws ServiceException
+	{
+		simulate("getAllTrustBundleDomainReltns");
+		return new ArrayList<TrustBundleDomainReltn>(reltns.values());
+	}
+
+	@Override
+	public TrustBundle getTrustBundle(String bundleName) throws ServiceException
+	{
+		simulate("getTrustBundle");
+		return bundles.get(key(bundleName));
+	}
+
+	@Override
+	public void addTrustBundle(TrustBundle bundle) throws ServiceException
+	{
+		simulate("addTrustBundle");
+		bundle.setId(nextId());
+		bundle.setCreateTime(now());
+		markRefreshed(bundle);
+
+		if (bundles.putIfAbsent(key(bundle.getBundleName()), bundle) != null)
+			throw new ServiceException("Trust bundle " + bundle.getBundleName() + " already exists");
+	}
+
+	@Override
+	public void refreshTrustBundle(String bundleName) throws ServiceException
+	{
+		simulate("refreshTrustBundle");
+		markRefreshed(findBundle(bundleName));
+	}
+
+	@Override
+	public void deleteTrustBundle(String bundleName) throws ServiceException
+	{
+		simulate("deleteTrustBundle");
+		if (bundles.remove(key(bundleName)) == null)
+			throw new ServiceException("Trust bundle " + bundleName + " does not exist");
+
+		removeReltns(bundleName, null);
+	}
+
+	@Override
+	public void updateSigningCert(String bundleName, X509Certificate signingCert) throws ServiceException
+	{
+		simulate("updateSigningCert");
+		final TrustBundle bundle = findBundle(bundleName);
+		try
+		{
+			bundle.setSigningCertificateData(signingCert == null ? null : signingCert.getEncoded());
+		}
+		catch (Exception e)
+		{
+			throw new ServiceException("Failed to encode signing certificate", e);
+		}
+	}
+
+	@Override
+	public void updateTrustBundleAttributes(String bundleName, TrustBundle attributes) throws ServiceException
+	{
+		simulate("updateTrustBundleAttributes");
+		final TrustBundle bundle = findBundle(bundleName);
+
+		if (!isEmpty(attributes.getBundleURL()))
+			bundle.setBundleURL(attributes.getBundleURL());
+
+		if (attributes.getSigningCertificateData() != null)
+			bundle.setSigningCertificateData(attributes.getSigningCertificateData());
+
+		bundle.setRefreshInterval(attributes.getRefreshInterval());
+
+		if (!isEmpty(attributes.getBundleName()) && !key(attributes.getBundleName()).equals(key(bundleName)))
+		{
+			bundle.setBundleName(attributes.getBundleName());
+			bundles.remove(key(bundleName));
+			bundles.put(key(attributes.getBundleName()), bundle);
+		}
+	}
+
+	@Override
+	public void associateTrustBundleToDomain(String bundleName, String domainName, boolean incoming, boolean outgoing) throws ServiceException
+	{
+		simulate("associateTrustBundleToDomain");
+		final TrustBundle bundle = findBundle(bundleName);
+		final Domain domain = domainService.findDomain(domainName);
+
+		final TrustBundleDomainReltn reltn = new TrustBundleDomainReltn();
+		reltn.setId(nextId());
+		reltn.setTrustBundle(bundle);
+		reltn.setDomain(domain);
+		reltn.setIncoming(incoming);
+		reltn.setOutgoing(outgoing);
+
+		reltns.put(reltn.getId(), reltn);
+	}
+
+	@Override
+	public void disassociateTrustBundleFromDomain(String bundleName, String domainName) throws ServiceException
+	{
+		simulate("disassociateTrustBundleFromDomain");
+		removeReltns(bundleName, domainName);
+	}
+
+	@Override
+	public void disassociateTrustBundlesFromDomain(String domainName) throws ServiceException
+	{
+		simulate("disassociateTrustBundlesFromDomain");
+		removeReltns(null, domainName);
+	}
+
+	@Override
+	public void disassociateTrustBundleFromDomains(String bundleName) throws ServiceException
+	{
+		simulate("disassociateTrustBundleFromDomains");
+		removeReltns(bundleName, null);
+	}
+
+	protected TrustBundle findBundle(String bundleName) throws ServiceException
+	{
+		final TrustBundle bundle = bundles.get(key(bundleName));
+		if (bundle == null)
+			throw new ServiceException("Trust bundle " + bundleName + " does not exist");
+
+		return bundle;
+	}
+
+	protected void markRefreshed(TrustBundle bundle)
+	{
+		bundle.setTrustBundleAnchors(new ArrayList<TrustBundleAnchor>());
+		bundle.setLastRefreshAttempt(now());
+		bundle.setLastSuccessfulRefresh(now());
+		bundle.setLastRefreshError(BundleRefreshError.SUCCESS);
+	}
+
+	/*
+	 * Removes the relationships matching a bundle and/or domain.  A null name matches any bundle or domain.
+	 */
+	protected void removeReltns(String bundleName, String domainName)
+	{
+		reltns.values().removeIf(reltn -> (bundleName == null || key(reltn.getTrustBundle().getBundleName()).equals(key(bundleName))) &&
+				(domainName == null || key(reltn.getDomain().getDomainName()).equals(key(domainName))));
+	}
+}
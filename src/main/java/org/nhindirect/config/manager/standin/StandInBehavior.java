@@ -0,0 +1,64 @@
+package org.nhindirect.config.manager.standin;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.nhindirect.common.rest.exceptions.ServiceException;
+
+/**
+ * Artificial latency and failures injected into every call of the in-memory stand-in services.  Lets load scenarios
+ * approximate a remote configuration service without one being available.
+ *
+ * @since 8.0.1
+ */
+public class StandInBehavior
+{
+	protected final long latencyNanos;
+
+	protected final long jitterNanos;
+
+	protected final double errorRate;
+
+	/**
+	 * Constructor.
+	 * @param latencyMillis Fixed latency added to every call in milliseconds.
+	 * @param jitterMillis Maximum random latency added on top of the fixed latency in milliseconds.
+	 * @param errorRate Fraction of calls between 0 and 1 that fail with a ServiceException.
+	 */
+	public StandInBehavior(double latencyMillis, double jitterMillis, double errorRate)
+	{
+		if (latencyMillis < 0 || jitterMillis < 0)
+			throw new IllegalArgumentException("Stand-in latency cannot be negative");
+
+		if (errorRate < 0 || errorRate > 1)
+			throw new IllegalArgumentException("Stand-in error rate must be between 0 and 1");
+
+		this.latencyNanos = (long)(latencyMillis * TimeUnit.MILLISECONDS.toNanos(1));
+		this.jitterNanos = (long)(jitterMillis * TimeUnit.MILLISECONDS.toNanos(1));
+		this.errorRate = errorRate;
+	}
+
+	/**
+	 * Applies the configured latency and randomly fails the call.
+	 * @param operation The name of the service operation, used in the failure message.
+	 * @throws ServiceException Thrown when the call is selected to fail.
+	 */
+	public void simulate(String operation) throws ServiceException
+	{
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		final long delay = latencyNanos + (jitterNanos > 0 ? random.nextLong(jitterNanos + 1) : 0);
+		if (delay > 0)
+		{
+			// parkNanos may return early, so wait until the full delay has elapsed
+			final long deadline = System.nanoTime() + delay;
+			long remaining;
+			while ((remaining = deadline - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted())
+				LockSupport.parkNanos(remaining);
+		}
+
+		if (errorRate > 0 && random.nextDouble() < errorRate)
+			throw new ServiceException("Injected stand-in failure in " + operation);
+	}
+}
@@ -0,0 +1,126 @@
+package org.nhindirect.config.manager.standin;
+
+import org.nhind.config.rest.AddressService;
+import org.nhind.config.rest.AnchorService;
+import org.nhind.config.rest.CertPolicyService;
+import org.nhind.config.rest.CertificateService;
+import org.nhind.config.rest.DNSService;
+import org.nhind.config.rest.DomainService;
+import org.nhind.config.rest.SettingService;
+import org.nhind.config.rest.TrustBundleService;
+import org.nhindirect.config.manager.cache.ServiceCacheDecorator;
+import org.nhindirect.config.manager.feign.StreamingConfigServiceClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Replaces the Feign backed configuration service clients with in-process, in-memory stand-ins when the standin
+ * profile is active (for example --spring.profiles.active=standin).  Used to measure the manager's own overhead and
+ * to run load scenarios without a configuration service.  Artificial latency and failures are configured with the
+ * direct.config.standin properties.
+ * <p>
+ * When service caching or coalescing is enabled, the domain, trust bundle, policy, certificate, and setting stand-ins
+ * are wrapped in the same caching decorators as the Feign backed services.
+ *
+ * @since 8.0.1
+ */
+@Configuration
+@Profile("standin")
+public class StandInServiceConfig
+{
+	@Bean
+	public StandInBehavior standInBehavior(@Value("${direct.config.standin.latencyMillis:0}") double latencyMillis,
+			@Value("${direct.config.standin.jitterMillis:0}") double jitterMillis,
+			@Value("${direct.config.standin.errorRate:0}") double errorRate)
+	{
+		return new StandInBehavior(latencyMillis, jitterMillis, errorRate);
+	}
+	
+	/*
+	 * The domain store.  The trust bundle and policy stand-ins keep their domain associations in it.
+	 */
+	@Bean
+	public InMemoryDomainService inMemoryDomainService(StandInBehavior behavior)
+	{
+		return new InMemoryDomainService(behavior);
+	}
+	
+	@Bean
+	@Primary
+	public DomainService standInDomainService(InMemoryDomainService domainService, ObjectProvider<ServiceCacheDecorator> caching)
+	{
+		final ServiceCacheDecorator decorator = caching.getIfAvailable();
+		return (decorator == null) ? domainService : decorator.decorate(domainService);
+	}
+	
+	@Bean
+	@Primary
+	public AddressService standInAddressService(StandInBehavior behavior)
+	{
+		return new InMemoryAddressService(behavior);
+	}
+	
+	@Bean
+	@Primary
+	public CertificateService standInCertificateService(StandInBehavior behavior, ObjectProvider<ServiceCacheDecorator> caching)
+	{
+		final CertificateService service = new InMemoryCertificateService(behavior);
+		final ServiceCacheDecorator decorator = caching.getIfAvailable();
+		return (decorator == null) ? service : decorator.decorate(service);
+	}
+	
+	@Bean
+	@Primary
+	public AnchorService standInAnchorService(StandInBehavior behavior)
+	{
+		return new InMemoryAnchorService(behavior);
+	}
+	
+	@Bean
+	@Primary
+	public DNSService standInDNSService(StandInBehavior behavior)
+	{
+		return new InMemoryDNSService(behavior);
+	}
+	
+	@Bean
+	@Primary
+	public SettingService standInSettingService(StandInBehavior behavior, ObjectProvider<ServiceCacheDecorator> caching)
+	{
+		final SettingService service = new InMemorySettingService(behavior);
+		final ServiceCacheDecorator decorator = caching.getIfAvailable();
+		return (decorator == null) ? service : decorator.decorate(service);
+	}
+	
+	@Bean
+	@Primary
+	public TrustBundleService standInTrustBundleService(StandInBehavior behavior, InMemoryDomainService domainService, 
+			ObjectProvider<ServiceCacheDecorator> caching)
+	{
+		final TrustBundleService service = new InMemoryTrustBundleService(behavior, domainService);
+		final ServiceCacheDecorator decorator = caching.getIfAvailable();
+		return (decorator == null) ? service : decorator.decorate(service);
+	}
+	
+	@Bean
+	@Primary
+	public CertPolicyService standInCertPolicyService(StandInBehavior behavior, InMemoryDomainService domainService, 
+			ObjectProvider<ServiceCacheDecorator> caching)
+	{
+		final CertPolicyService service = new InMemoryCertPolicyService(behavior, domainService);
+		final ServiceCacheDecorator decorator = caching.getIfAvailable();
+		return (decorator == null) ? service : decorator.decorate(service);
+	}
+	
+	@Bean
+	@Primary
+	public StreamingConfigServiceClient standInStreamingClient(CertificateService certService, AnchorService anchorService,
+			TrustBundleService bundleService, DNSService dnsService)
+	{
+		return new InMemoryStreamingClient(certService, anchorService, bundleService, dnsService);
+	}
+}
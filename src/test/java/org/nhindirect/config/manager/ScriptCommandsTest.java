@@ -0,0 +1,221 @@
+package org.nhindirect.config.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nhindirect.common.tooling.Command;
+import org.nhindirect.common.tooling.Commands;
+import org.nhindirect.config.manager.printers.DefaultDNSRecordPrinter;
+
+public class ScriptCommandsTest
+{
+	private static final String NL = System.lineSeparator();
+
+	@TempDir
+	File tempDir;
+
+	private PrintStream console;
+
+	private PrintStream errorConsole;
+
+	private ByteArrayOutputStream out;
+
+	private ByteArrayOutputStream err;
+
+	private RecordingCommands recorder;
+
+	private ScriptCommands scriptCommands;
+
+	/*
+	 * Commands that record the order they ran in
+	 */
+	public static class RecordingCommands
+	{
+		protected final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+		protected final CountDownLatch released = new CountDownLatch(1);
+
+		protected final DNSRecordParser parser = new DNSRecordParser();
+
+		protected final DefaultDNSRecordPrinter printer = new DefaultDNSRecordPrinter();
+
+		@Command(name = "Wait", usage = "Waits until Release runs")
+		public void waitForRelease(String[] args) throws InterruptedException
+		{
+			final boolean wasReleased = released.await(10, TimeUnit.SECONDS);
+			events.add("wait " + args[0] + (wasReleased ? "" : " timed out"));
+		}
+
+		@Command(name = "Release", usage = "Releases Wait")
+		public void release(String[] args)
+		{
+			events.add("release " + args[0]);
+			released.countDown();
+		}
+
+		@Command(name = "Touch", usage = "Records a change")
+		public void touch(String[] args)
+		{
+			events.add("touch " + args[0]);
+		}
+
+		@Command(name = "Say", usage = "Prints its arguments")
+		public void say(String[] args)
+		{
+			System.out.println("said " + args[0]);
+		}
+
+		@Command(name = "PrintA", usage = "Prints an A record with the printer of the DNS commands")
+		public void printA(String[] args)
+		{
+			printer.print(DNSRecordCommands.fromRecord(parser.parseANAME(new String[] {args[0], args[1], "3600"})));
+		}
+
+		@Command(name = "Complain", usage = "Prints its arguments to standard error")
+		public void complain(String[] args)
+		{
+			System.err.println("complained " + args[0]);
+		}
+	}
+
+	@BeforeEach
+	public void setUp()
+	{
+		console = System.out;
+		errorConsole = System.err;
+		out = new ByteArrayOutputStream();
+		err = new ByteArrayOutputStream();
+		System.setOut(new PrintStream(out, true));
+		System.setErr(new PrintStream(err, true));
+
+		final Commands commands = new Commands("Script Test");
+		recorder = new RecordingCommands();
+		commands.register(recorder);
+		scriptCommands = new ScriptCommands(commands);
+	}
+
+	@AfterEach
+	public void tearDown()
+	{
+		System.setOut(console);
+		System.setErr(errorConsole);
+	}
+
+	@Test
+	public void testEntityKeys_normalizesArgumentsAndAddsEmailDomains()
+	{
+		assertEquals(Arrays.asList("example.com", "postmaster@example.com", "other.org"),
+				new ArrayList<>(ScriptCommands.entityKeys(new String[] {"AddDomain", "Example.COM.", "Postmaster@Example.com", "other.org"})));
+	}
+
+	@Test
+	public void testEntityKeys_skipsNumbersBooleansAndTheCommandName()
+	{
+		assertEquals(Collections.singletonList("mx.example.com"),
+				new ArrayList<>(ScriptCommands.entityKeys(new String[] {"Dns_MX_Add", "mx.example.com", "3600", "-1", "TRUE", "false", " "})));
+		assertTrue(ScriptCommands.entityKeys(new String[] {"ListDomains"}).isEmpty());
+	}
+
+	@Test
+	public void testRunScript_independentLinesRunConcurrently_dependentLinesRunInOrder() throws IOException
+	{
+		// Wait only returns once Release runs, so this only succeeds if other.org does not wait for example.com
+		final File script = writeScript(
+				"Wait example.com",
+				"Touch example.com",
+				"Release other.org");
+
+		scriptCommands.runScript(new String[] {script.getAbsolutePath(), "4"});
+
+		assertFalse(scriptCommands.isFailureDetected());
+		assertEquals(Arrays.asList("release other.org", "wait example.com", "touch example.com"), recorder.events);
+	}
+
+	@Test
+	public void testRunScript_linesWithoutArguments_areBarriers() throws IOException
+	{
+		final File script = writeScript(
+				"Touch a.org",
+				"Touch b.org",
+				"ListCommands",
+				"Touch c.org");
+
+		scriptCommands.runScript(new String[] {script.getAbsolutePath(), "4"});
+
+		assertEquals("touch c.org", recorder.events.get(2));
+	}
+
+	@Test
+	public void testRunScript_outputOfEachLineIsPrintedAsOneBlock() throws IOException
+	{
+		final File script = writeScript(
+				"Say example.com",
+				"Say other.org");
+
+		scriptCommands.runScript(new String[] {script.getAbsolutePath(), "2"});
+
+		final String output = new String(out.toByteArray(), StandardCharsets.UTF_8);
+		assertTrue(output.matches("(?s).*line 1 OK \\(\\d+ ms\\): Say example.com" + NL + "said example.com" + NL + ".*"), output);
+		assertTrue(output.matches("(?s).*line 2 OK \\(\\d+ ms\\): Say other.org" + NL + "said other.org" + NL + ".*"), output);
+		assertTrue(output.contains("Ran 2 commands"), output);
+		assertFalse(scriptCommands.isFailureDetected());
+	}
+
+	@Test
+	public void testRunScript_standardErrorIsCollectedAndFailsTheLine() throws IOException
+	{
+		final File script = writeScript(
+				"Complain example.com",
+				"NoSuchCommand other.org");
+
+		scriptCommands.runScript(new String[] {script.getAbsolutePath(), "2"});
+
+		final String output = new String(out.toByteArray(), StandardCharsets.UTF_8);
+		assertTrue(output.matches("(?s).*line 1 FAILED \\(\\d+ ms\\): Complain example.com" + NL + "complained example.com" + NL + ".*"), output);
+		assertTrue(output.contains("line 2 FAILED"), output);
+		assertTrue(output.contains("NoSuchCommand not found."), output);
+		assertEquals(0, err.size());
+		assertTrue(scriptCommands.isFailureDetected());
+	}
+
+	@Test
+	public void testRunScript_recordPrinterCreatedBeforeTheScript_printsIntoTheBlockOfItsLine() throws IOException
+	{
+		final File script = writeScript(
+				"PrintA a.example.com 10.0.0.1",
+				"PrintA b.example.com 10.0.0.2");
+
+		scriptCommands.runScript(new String[] {script.getAbsolutePath(), "2"});
+
+		final String output = new String(out.toByteArray(), StandardCharsets.UTF_8);
+		assertTrue(output.matches("(?s).*line 1 OK \\(\\d+ ms\\): PrintA a.example.com 10.0.0.1" + NL + "-----------" + NL +
+				"Record Name: a.example.com.*IPAddress: 10.0.0.1" + NL + NL + ".*"), output);
+		assertTrue(output.matches("(?s).*line 2 OK \\(\\d+ ms\\): PrintA b.example.com 10.0.0.2" + NL + "-----------" + NL +
+				"Record Name: b.example.com.*IPAddress: 10.0.0.2" + NL + NL + ".*"), output);
+	}
+
+	private File writeScript(String... lines) throws IOException
+	{
+		final File script = new File(tempDir, "script.txt");
+		Files.write(script.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+		return script;
+	}
+}